@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+#
+# Builds everything the fast-startup checkout needs: a jar of the compiled classes, a snapshot of the tool catalog and
+# holidays, and an application class-data-sharing (AppCDS) archive recorded from a training checkout.
+#
+# Usage: scripts/checkout-cds.sh [CLASSES_DIR [OUT_DIR]]
+#
+#   CLASSES_DIR  compiled main classes and resources (default out/production/aa0616)
+#   OUT_DIR      where to write checkout.jar, checkout.snapshot and checkout.jsa (default out/checkout-cli)
+#
+# The archive is only used by the same JDK build, with the same jar at the same path; rerun this script after
+# recompiling or upgrading the JDK. A stale or mismatched archive is ignored with a warning, not an error.
+# Checkout with:
+#
+#   java -XX:SharedArchiveFile=OUT_DIR/checkout.jsa $STARTUP_OPTS -cp OUT_DIR/checkout.jar \
+#       toolrental.CheckoutCli --snapshot OUT_DIR/checkout.snapshot JAKR 9 0 7/2/15
+
+set -euo pipefail
+
+CLASSES_DIR=${1:-out/production/aa0616}
+OUT_DIR=${2:-out/checkout-cli}
+
+# A single checkout has no time to repay C2 compilation or a concurrent collector's setup.
+STARTUP_OPTS=${STARTUP_OPTS:--XX:TieredStopAtLevel=1 -XX:+UseSerialGC}
+
+if [[ ! -f "$CLASSES_DIR/toolrental/CheckoutCli.class" ]]; then
+    echo "No compiled classes in $CLASSES_DIR; build the project first." >&2
+    exit 1
+fi
+
+mkdir -p "$OUT_DIR"
+JAR=$OUT_DIR/checkout.jar
+SNAPSHOT=$OUT_DIR/checkout.snapshot
+ARCHIVE=$OUT_DIR/checkout.jsa
+
+# CDS only archives classes loaded from jars, not directories.
+rm -f "$JAR" "$ARCHIVE"
+jar --create --file "$JAR" --main-class toolrental.CheckoutCli -C "$CLASSES_DIR" .
+
+java -cp "$JAR" toolrental.CheckoutCli --write-snapshot "$SNAPSHOT"
+
+# The training run takes the same path as a real checkout, so every class it loads lands in the archive.
+# shellcheck disable=SC2086
+java -XX:ArchiveClassesAtExit="$ARCHIVE" $STARTUP_OPTS -cp "$JAR" \
+    toolrental.CheckoutCli --snapshot "$SNAPSHOT" JAKR 9 0 7/2/15 > /dev/null
+
+echo "Wrote $JAR, $SNAPSHOT and $ARCHIVE"
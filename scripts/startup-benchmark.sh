@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+#
+# Measures the time from launching the JVM to the first rental agreement being printed by CheckoutCli, with and without
+# the snapshot and the AppCDS archive built by scripts/checkout-cds.sh.
+#
+# Usage: scripts/startup-benchmark.sh [OUT_DIR [RUNS]]
+#
+#   OUT_DIR  the directory checkout-cds.sh wrote to (default out/checkout-cli)
+#   RUNS     launches per configuration (default 20)
+#
+# Prints the fastest and median wall-clock time of each configuration in milliseconds. When RESULTS names a file, a
+# line per configuration is appended to it as CSV (time, commit, configuration, runs, min, median), so the numbers can
+# be tracked across changes.
+
+set -euo pipefail
+
+OUT_DIR=${1:-out/checkout-cli}
+RUNS=${2:-20}
+STARTUP_OPTS=${STARTUP_OPTS:--XX:TieredStopAtLevel=1 -XX:+UseSerialGC}
+
+JAR=$OUT_DIR/checkout.jar
+SNAPSHOT=$OUT_DIR/checkout.snapshot
+ARCHIVE=$OUT_DIR/checkout.jsa
+CHECKOUT=(JAKR 9 0 7/2/15)
+
+for file in "$JAR" "$SNAPSHOT" "$ARCHIVE"; do
+    if [[ ! -f "$file" ]]; then
+        echo "Missing $file; run scripts/checkout-cds.sh first." >&2
+        exit 1
+    fi
+done
+
+expected=$(java -cp "$JAR" toolrental.CheckoutCli "${CHECKOUT[@]}")
+commit=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+
+# Runs one configuration RUNS times after a warm-up launch, checking every checkout prints the expected agreement.
+measure() {
+    local name=$1
+    local check=$2
+    shift 2
+    local times=()
+
+    "$@" > /dev/null
+
+    for ((i = 0; i < RUNS; i++)); do
+        local start end output
+        start=$(date +%s%N)
+        output=$("$@")
+        end=$(date +%s%N)
+
+        if [[ $check == check && "$output" != "$expected" ]]; then
+            echo "$name printed a different agreement:" >&2
+            echo "$output" >&2
+            exit 1
+        fi
+
+        times+=($(((end - start) / 1000)))
+    done
+
+    local sorted
+    mapfile -t sorted < <(printf '%s\n' "${times[@]}" | sort -n)
+    local min=${sorted[0]}
+    local median=${sorted[$((RUNS / 2))]}
+
+    awk -v name="$name" -v min="$min" -v median="$median" \
+        'BEGIN { printf "%-20s min %6.1f ms   median %6.1f ms\n", name, min / 1000, median / 1000 }'
+
+    if [[ -n "${RESULTS:-}" ]]; then
+        echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$commit,$name,$RUNS,$min,$median" >> "$RESULTS"
+    fi
+}
+
+# shellcheck disable=SC2086
+{
+    measure "jvm-only" - java $STARTUP_OPTS -version 2> /dev/null
+    measure "default" check java -cp "$JAR" toolrental.CheckoutCli "${CHECKOUT[@]}"
+    measure "snapshot" check java $STARTUP_OPTS -cp "$JAR" \
+        toolrental.CheckoutCli --snapshot "$SNAPSHOT" "${CHECKOUT[@]}"
+    measure "snapshot+appcds" check java -XX:SharedArchiveFile="$ARCHIVE" $STARTUP_OPTS -cp "$JAR" \
+        toolrental.CheckoutCli --snapshot "$SNAPSHOT" "${CHECKOUT[@]}"
+}
@@ -0,0 +1,78 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks encoding and decoding a rental agreement with {@link AgreementCodec} against Java serialization. The GC
+ * profiler of {@link BenchmarkRunner} reports the allocation of each.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AgreementCodecBenchmark {
+    private final AgreementCodec codec = new AgreementCodec(ToolCatalog.getDefault());
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(AgreementCodec.AGREEMENT_SIZE);
+    private RentalAgreement agreement;
+    private ByteBuffer encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        agreement = Checkout.checkoutTool("JAKR", 9, 10, "7/2/15");
+        encoded = ByteBuffer.allocateDirect(AgreementCodec.AGREEMENT_SIZE);
+        codec.putAgreement(agreement, encoded);
+        encoded.flip();
+        serialized = serialize();
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        buffer.clear();
+        codec.putAgreement(agreement, buffer);
+
+        return buffer;
+    }
+
+    @Benchmark
+    public RentalAgreement decode() {
+        return codec.getAgreement(encoded.duplicate());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(agreement);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
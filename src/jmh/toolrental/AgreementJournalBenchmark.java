@@ -0,0 +1,100 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing and replaying the agreement journal on local disk. Each invocation handles a batch of
+ * {@value #BATCH} agreements, or the {@value #REPLAY_SIZE} in the replayed journal, so the scores are per agreement;
+ * the append-and-commit benchmark forces the file to disk once per batch.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AgreementJournalBenchmark {
+    private static final int BATCH = 1_000;
+
+    private static final int REPLAY_SIZE = 100_000;
+
+    private final RentalAgreement[] agreements = new RentalAgreement[BATCH];
+
+    private Path writeFile;
+    private Path replayFile;
+    private AgreementJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+
+        for (int i = 0; i < BATCH; i++) {
+            agreements[i] = Checkout.checkoutTool(toolCodes[i % 4], 1 + i % 30, i % 101, "7/2/15");
+        }
+
+        replayFile = Files.createTempFile("replay", ".journal");
+        try (AgreementJournal replayJournal = AgreementJournal.open(replayFile, agreement -> { })) {
+            for (int i = 0; i < REPLAY_SIZE; i++) {
+                replayJournal.append(agreements[i % BATCH]);
+            }
+        }
+
+        writeFile = Files.createTempFile("write", ".journal");
+        journal = AgreementJournal.open(writeFile, agreement -> { });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(writeFile);
+        Files.deleteIfExists(replayFile);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void appendAndCommit() throws IOException {
+        long position = 0;
+
+        for (RentalAgreement agreement : agreements) {
+            position = journal.append(agreement);
+        }
+
+        journal.commit(position);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long appendOnly() throws IOException {
+        long position = 0;
+
+        for (RentalAgreement agreement : agreements) {
+            position = journal.append(agreement);
+        }
+
+        return position;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REPLAY_SIZE)
+    public void replay(Blackhole blackhole) throws IOException {
+        AgreementJournal.open(replayFile, blackhole::consume).close();
+    }
+}
@@ -0,0 +1,118 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks looking up open agreements by id in an {@link AgreementStore}, through a reused view and as a new
+ * {@link RentalAgreement}, against a {@code HashMap<Long, RentalAgreement>}, with and without a thread writing to the
+ * store. {@link AgreementStoreComparison} measures the heap and garbage collection side of the comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class AgreementStoreBenchmark {
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKD", "JAKR"};
+
+    @Param({"1000000"})
+    public int agreements;
+
+    private AgreementStore store;
+    private Map<Long, RentalAgreement> map;
+
+    /**
+     * The ids looked up, in random order, so lookups miss the cache as they would in a large store.
+     */
+    private long[] ids;
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final AgreementStore.View view = new AgreementStore.View();
+        int next = new Random().nextInt(1 << 16);
+
+        long id(AgreementStoreBenchmark benchmark) {
+            return benchmark.ids[next++ & (benchmark.ids.length - 1)];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(22);
+        store = new AgreementStore(ToolCatalog.getDefault(), agreements);
+        map = new HashMap<>();
+
+        for (long id = 0; id < agreements; id++) {
+            RentalAgreement agreement = Checkout.checkoutTool(TOOL_CODES[random.nextInt(TOOL_CODES.length)],
+                    1 + random.nextInt(30), random.nextInt(101),
+                    (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/" + (10 + random.nextInt(90)));
+            store.put(id, agreement);
+            map.put(id, agreement);
+        }
+
+        ids = new long[1 << 16];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextInt(agreements);
+        }
+    }
+
+    @Benchmark
+    public long readView(Reader reader) {
+        store.read(reader.id(this), reader.view);
+
+        return reader.view.getFinalChargeCents();
+    }
+
+    @Benchmark
+    public RentalAgreement getAgreement(Reader reader) {
+        return store.get(reader.id(this));
+    }
+
+    @Benchmark
+    public RentalAgreement getFromHashMap(Reader reader) {
+        return map.get(reader.id(this));
+    }
+
+    /**
+     * Three readers of the store racing one writer that keeps replacing agreements.
+     */
+    @State(Scope.Group)
+    public static class Writer {
+        final Random random = new Random(220);
+        final RentalAgreement agreement = Checkout.checkoutTool("JAKR", 9, 10, "7/2/15");
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public long contendedRead(Reader reader) {
+        store.read(reader.id(this), reader.view);
+
+        return reader.view.getFinalChargeCents();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public boolean contendedWrite(Writer writer) {
+        return store.put(writer.random.nextInt(agreements), writer.agreement);
+    }
+}
@@ -0,0 +1,184 @@
+package toolrental;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the heap taken and the garbage collection pauses caused by open rental agreements kept in a
+ * {@code HashMap<Long, RentalAgreement>} and in an {@link AgreementStore}.
+ * <p>
+ * Each store is filled with the same agreements, then put through a fixed number of rentals: one agreement replaced by
+ * a new checkout per rental, as rentals are returned and others taken out. Every collection during the rentals is
+ * recorded, and finally a full collection is timed. Each store runs in a JVM of its own, started with this JVM's
+ * options, so neither measurement is disturbed by the other's garbage.
+ * <pre>
+ * AgreementStoreComparison [agreements [rentals]]
+ * AgreementStoreComparison heap|offheap agreements rentals
+ * </pre>
+ * Run with a heap large enough for the on-heap map, for example {@code -Xmx4g} for 5,000,000 agreements.
+ */
+public class AgreementStoreComparison {
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKD", "JAKR"};
+    private static final int DEFAULT_AGREEMENTS = 2_000_000;
+    private static final int DEFAULT_RENTALS = 2_000_000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 3) {
+            run(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+
+        String agreements = args.length > 0 ? args[0] : Integer.toString(DEFAULT_AGREEMENTS);
+        String rentals = args.length > 1 ? args[1] : Integer.toString(DEFAULT_RENTALS);
+
+        System.out.printf("%-8s %10s %10s %10s %12s %8s %10s %10s %10s%n", "store", "agreements", "heap MB",
+                "direct MB", "heap B/each", "GCs", "GC ms", "max ms", "full GC ms");
+
+        for (String mode : new String[]{"heap", "offheap"}) {
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                    AgreementStoreComparison.class.getName(), mode, agreements, rentals));
+
+            int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (status != 0) {
+                System.exit(status);
+            }
+        }
+    }
+
+    /**
+     * Measures one store and prints a row of the comparison.
+     *
+     * @param mode       {@code heap} for the map of records, {@code offheap} for the agreement store
+     * @param agreements the number of open agreements
+     * @param rentals    the number of agreements replaced while collections are recorded
+     */
+    private static void run(String mode, int agreements, int rentals) {
+        Random random = new Random(22);
+        Map<Long, RentalAgreement> map = null;
+        AgreementStore store = null;
+
+        long baseline = heapAfterFullGc();
+
+        if (mode.equals("heap")) {
+            map = new HashMap<>();
+            for (long id = 0; id < agreements; id++) {
+                map.put(id, checkout(random));
+            }
+        } else {
+            store = new AgreementStore(ToolCatalog.getDefault(), agreements);
+            for (long id = 0; id < agreements; id++) {
+                store.put(id, checkout(random));
+            }
+        }
+
+        long heap = heapAfterFullGc() - baseline;
+
+        AtomicLong collections = new AtomicLong();
+        AtomicLong totalMillis = new AtomicLong();
+        AtomicLong maxMillis = new AtomicLong();
+        listen(collections, totalMillis, maxMillis);
+
+        for (int i = 0; i < rentals; i++) {
+            long id = random.nextInt(agreements);
+
+            if (map != null) {
+                map.put(id, checkout(random));
+            } else {
+                store.put(id, checkout(random));
+            }
+        }
+
+        long start = System.nanoTime();
+        System.gc();
+        double fullMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%-8s %10d %10.1f %10.1f %12.1f %8d %10d %10d %10.1f%n", mode, agreements,
+                heap / 1e6, directBytes() / 1e6, heap / (double) agreements, collections.get(), totalMillis.get(),
+                maxMillis.get(), fullMillis);
+
+        // Keep the store reachable until it is measured.
+        if ((map == null ? store.size() : map.size()) != agreements) {
+            throw new AssertionError("Lost agreements");
+        }
+    }
+
+    /**
+     * Records the duration of every collection that ends from now on.
+     *
+     * @param collections the number of collections
+     * @param totalMillis the total duration of the collections
+     * @param maxMillis   the longest collection
+     */
+    private static void listen(AtomicLong collections, AtomicLong totalMillis, AtomicLong maxMillis) {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                    return;
+                }
+
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+                // Concurrent cycles run alongside the application; only pauses are counted.
+                if (info.getGcName().contains("Cycles") || info.getGcCause().equals("System.gc()")) {
+                    return;
+                }
+
+                long millis = info.getGcInfo().getDuration();
+                collections.incrementAndGet();
+                totalMillis.addAndGet(millis);
+                maxMillis.accumulateAndGet(millis, Math::max);
+            }, null, null);
+        }
+    }
+
+    /**
+     * Collects all garbage and returns the heap still in use.
+     *
+     * @return the bytes of heap in use
+     */
+    private static long heapAfterFullGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Returns the direct memory in use.
+     *
+     * @return the bytes of direct buffers allocated
+     */
+    private static long directBytes() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+
+        return 0;
+    }
+
+    private static RentalAgreement checkout(Random random) {
+        return Checkout.checkoutTool(TOOL_CODES[random.nextInt(TOOL_CODES.length)], 1 + random.nextInt(30),
+                random.nextInt(101), (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/"
+                        + (10 + random.nextInt(90)));
+    }
+}
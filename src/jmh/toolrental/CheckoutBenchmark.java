@@ -0,0 +1,61 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Checkout#checkoutTool} end to end, the chargeable-day count, and extending a rental by a week
+ * with {@link Checkout#changeDueDate}, at several rental lengths.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckoutBenchmark {
+    private static final Tool TOOL = new Tool("CHNS", ToolType.CHAINSAW, "Stihl");
+
+    @Param({"1", "30", "365"})
+    private int rentalDays;
+
+    private LocalDate checkoutDate;
+    private LocalDate dueDate;
+    private RentalAgreement agreement;
+    private LocalDate extendedDueDate;
+
+    @Setup
+    public void setUp() {
+        checkoutDate = LocalDate.of(2015, 7, 2);
+        dueDate = checkoutDate.plusDays(rentalDays);
+        agreement = Checkout.checkoutTool("CHNS", rentalDays, 25, "7/2/15");
+        extendedDueDate = dueDate.plusWeeks(1);
+    }
+
+    @Benchmark
+    public RentalAgreement checkoutTool() {
+        return Checkout.checkoutTool("CHNS", rentalDays, 25, "7/2/15");
+    }
+
+    @Benchmark
+    public int calculateChargeableDays() {
+        return Checkout.calculateChargeableDays(checkoutDate, dueDate, TOOL);
+    }
+
+    @Benchmark
+    public RentalAgreement extendByWeek() {
+        return Checkout.changeDueDate(agreement, extendedDueDate, 25);
+    }
+}
@@ -0,0 +1,103 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks importing a file of a million checkout lines, about 2% of them invalid, with the streaming
+ * {@link CheckoutImport} at several worker counts and with the read-whole-file, split-each-line approach it replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutImportBenchmark {
+    private static final int LINES = 1_000_000;
+
+    @Param({"1", "4"})
+    private int workers;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        Random random = new Random(17);
+        file = Files.createTempFile("checkouts", ".csv");
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < LINES; i++) {
+                out.append(random.nextInt(50) == 0 ? "XXXX" : toolCodes[random.nextInt(toolCodes.length)])
+                        .append(',').append(Integer.toString(1 + random.nextInt(30)))
+                        .append(',').append(Integer.toString(random.nextInt(51)))
+                        .append(',').append(Integer.toString(1 + random.nextInt(12)))
+                        .append('/').append(Integer.toString(1 + random.nextInt(28)))
+                        .append("/2").append(Integer.toString(random.nextInt(10)))
+                        .append('\n');
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public CheckoutImport.Report streamingImport() throws IOException {
+        LongAdder charges = new LongAdder();
+
+        return CheckoutImport.importFile(file, new CheckoutImport.Sink() {
+            @Override
+            public void accepted(long lineNumber, RentalAgreement agreement) {
+                charges.add(agreement.chargeDays());
+            }
+
+            @Override
+            public void rejected(long lineNumber, String message) {
+            }
+        }, workers);
+    }
+
+    @Benchmark
+    public long readAllLinesAndSplit() throws IOException {
+        // The approach the streaming import replaces, kept as a baseline; single-threaded, so workers is ignored.
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        long charges = 0;
+
+        for (String line : lines) {
+            String[] fields = line.split(",");
+
+            try {
+                charges += Checkout.checkoutTool(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        fields[3]).chargeDays();
+            } catch (IllegalArgumentException e) {
+                charges--;
+            }
+        }
+
+        return charges;
+    }
+}
@@ -0,0 +1,131 @@
+package toolrental;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link CheckoutServer} with increasing numbers of concurrent clients and reports latency percentiles.
+ * <p>
+ * Each client sends checkout requests back to back for a fixed time. With no arguments an in-process server is
+ * started; pass a base URL such as {@code http://localhost:8080} to target a running server instead.
+ */
+public class CheckoutLoadGenerator {
+    private static final int[] CONCURRENCY_LEVELS = {1, 2, 4, 8, 16, 32, 64, 128};
+    private static final long WARMUP_SECONDS = 2;
+    private static final long MEASUREMENT_SECONDS = 5;
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKD", "JAKR"};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        CheckoutServer server = null;
+        String baseUrl;
+
+        if (args.length > 0) {
+            baseUrl = args[0];
+        } else {
+            // Match CheckoutServer.main; without TCP_NODELAY every keep-alive request waits out a delayed ACK.
+            System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+            server = CheckoutServer.start(new InetSocketAddress("localhost", 0), 1024);
+            baseUrl = "http://localhost:" + server.getPort();
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.printf("%8s %12s %10s %10s %10s %8s%n", "clients", "requests/s", "p50 us", "p99 us", "p999 us",
+                "errors");
+
+        for (int clients : CONCURRENCY_LEVELS) {
+            run(client, baseUrl, clients, WARMUP_SECONDS);
+            Result result = run(client, baseUrl, clients, MEASUREMENT_SECONDS);
+            long[] latencies = result.latencies();
+
+            System.out.printf("%8d %12.0f %10d %10d %10d %8d%n", clients,
+                    latencies.length / (double) MEASUREMENT_SECONDS, percentile(latencies, 0.50) / 1000,
+                    percentile(latencies, 0.99) / 1000, percentile(latencies, 0.999) / 1000, result.errors());
+        }
+
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Runs the given number of clients for a fixed time.
+     *
+     * @param client  the HTTP client
+     * @param baseUrl the server base URL
+     * @param clients the number of concurrent clients
+     * @param seconds how long to run
+     * @return the sorted request latencies in nanoseconds and the number of failed requests
+     */
+    private static Result run(HttpClient client, String baseUrl, int clients, long seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[][] latencies = new long[clients][];
+        long[] errors = new long[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            int clientIndex = c;
+            Thread thread = new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+
+                for (int i = 0; System.nanoTime() < deadline; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + CheckoutServer.CHECKOUT_PATH
+                            + "?toolCode=" + TOOL_CODES[i & 3] + "&rentalDays=" + (1 + i % 30)
+                            + "&discountPercent=" + i % 101 + "&checkoutDate=7/2/15")).build();
+                    long start = System.nanoTime();
+
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors[clientIndex]++;
+                            continue;
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        errors[clientIndex]++;
+                        continue;
+                    }
+
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+
+                latencies[clientIndex] = Arrays.copyOf(samples, count);
+                done.countDown();
+            });
+            thread.start();
+        }
+
+        done.await();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, Arrays.stream(errors).sum());
+    }
+
+    /**
+     * Returns a percentile of sorted samples.
+     *
+     * @param sorted   the sorted samples
+     * @param fraction the percentile as a fraction, e.g. 0.99
+     * @return the sample at the percentile, or 0 if there are no samples
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
@@ -0,0 +1,62 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cost of checkout metrics: {@link Checkout#checkoutTool} with metrics disabled, with the default
+ * sampling of one checkout in 1024, and with every checkout timed.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutMetricsBenchmark {
+    /**
+     * One checkout in how many is timed; 0 disables metrics.
+     */
+    @Param({"0", "1024", "1"})
+    private int sampleInterval;
+
+    @Setup
+    public void setUp() {
+        if (sampleInterval == 0) {
+            Checkout.disableMetrics();
+        } else {
+            Checkout.enableMetrics(sampleInterval);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Checkout.enableMetrics(1024);
+    }
+
+    @Benchmark
+    public RentalAgreement checkoutTool() {
+        return Checkout.checkoutTool("CHNS", 5, 25, "7/2/15");
+    }
+
+    @Benchmark
+    public RentalAgreement invalidToolCode() {
+        try {
+            return Checkout.checkoutTool("XXXX", 5, 25, "7/2/15");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
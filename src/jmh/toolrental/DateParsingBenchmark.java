@@ -0,0 +1,46 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing checkout dates in the {@code M/d/yy} format.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateParsingBenchmark {
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
+
+    private String checkoutDate = "7/02/15";
+    private String invalidCheckoutDate = "7/32/15";
+
+    @Benchmark
+    public LocalDate parseWithFormatter() {
+        return LocalDate.parse(checkoutDate, formatter);
+    }
+
+    @Benchmark
+    public long parseEpochDay() {
+        return CheckoutDateParser.parseEpochDay(checkoutDate);
+    }
+
+    @Benchmark
+    public long parseInvalidEpochDay() {
+        return CheckoutDateParser.parseEpochDay(invalidCheckoutDate);
+    }
+}
@@ -0,0 +1,111 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the overdue tracker with millions of open rentals due over the next year: tracking and cancelling a
+ * rental, rescheduling one, and a day's overdue run, against scanning every open agreement as the hourly job did.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class OverdueTrackerBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Param({"1000000", "5000000"})
+    private int openRentals;
+
+    private RentalAgreement[] agreements;
+    private OverdueTracker tracker;
+    private List<RentalAgreement> open;
+    private long[] handles;
+    private int next;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(20);
+        agreements = new RentalAgreement[365];
+
+        for (int day = 0; day < agreements.length; day++) {
+            agreements[day] = agreementDue(START.plusDays(day));
+        }
+
+        // Each overdue rental is replaced by one due a year later, keeping the open count steady.
+        tracker = new OverdueTracker(Clock.fixed(START.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC),
+                (agreement, day) -> tracker.track(agreementDue(day.plusDays(364))));
+        open = new ArrayList<>(openRentals);
+        handles = new long[openRentals];
+
+        for (int i = 0; i < openRentals; i++) {
+            RentalAgreement agreement = agreements[random.nextInt(agreements.length)];
+            open.add(agreement);
+            handles[i] = tracker.track(agreement);
+        }
+
+        today = START;
+    }
+
+    @Benchmark
+    public boolean trackAndCancel() {
+        return tracker.cancel(tracker.track(agreements[next++ % agreements.length]));
+    }
+
+    @Benchmark
+    public boolean reschedule() {
+        int i = next++ % handles.length;
+
+        return tracker.reschedule(handles[i], agreements[(i + next) % agreements.length]);
+    }
+
+    @Benchmark
+    public int scanForOverdue() {
+        // The hourly job the tracker replaces, kept as a baseline.
+        LocalDate day = START.plusDays(next++ % 365);
+        int overdue = 0;
+
+        for (RentalAgreement agreement : open) {
+            if (agreement.dueDate().isBefore(day)) {
+                overdue++;
+            }
+        }
+
+        return overdue;
+    }
+
+    @Benchmark
+    public int advanceOneDay() {
+        today = today.plusDays(1);
+
+        return tracker.advanceTo(today);
+    }
+
+    private static RentalAgreement agreementDue(LocalDate dueDate) {
+        return new RentalAgreement(ToolCatalog.getDefault().get("LADW"), 1, dueDate.minusDays(1), dueDate,
+                ToolType.LADDER.getDailyCharge(), 1, ToolType.LADDER.getDailyCharge(), 0, BigDecimal.ZERO.setScale(2),
+                ToolType.LADDER.getDailyCharge());
+    }
+}
@@ -0,0 +1,78 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the charge and discount math performed for every checkout, and pricing a week's rental under the standard
+ * rules and under rules using every kind of adjustment.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingBenchmark {
+    private final Tool tool = new Tool("JAKR", ToolType.JACKHAMMER, "Ridgid");
+    private int chargeDays = 5;
+    private int discountPercent = 25;
+    private final long checkoutEpochDay = LocalDate.of(2015, 7, 2).toEpochDay();
+    private final HolidayCalendar calendar = HolidayCalendar.standard();
+    private final PricingRules standardRules = PricingRules.standard();
+    private final PricingRules customRules = new PricingRules(List.of(
+            new PricingRule.ChargeDays(ToolType.LADDER, PricingRule.DayClass.WEEKDAY, false),
+            new PricingRule.SeasonalRate(ToolType.CHAINSAW, Month.NOVEMBER, Month.FEBRUARY, 99),
+            new PricingRule.Surcharge(null, PricingRule.DayClass.HOLIDAY, 50),
+            new PricingRule.MinimumChargeDays(ToolType.JACKHAMMER, 3),
+            new PricingRule.TieredDiscount(null, 7, 10),
+            new PricingRule.TieredDiscount(null, 30, 20)));
+
+    @Benchmark
+    public long calculateCharges() {
+        long preDiscountCharge = Checkout.calculatePreDiscountCharge(chargeDays, tool);
+        long discountAmount = Checkout.calculateDiscountAmount(preDiscountCharge, discountPercent);
+
+        return Checkout.calculateFinalCharge(preDiscountCharge, discountAmount);
+    }
+
+    @Benchmark
+    public BigDecimal calculateChargesAsBigDecimal() {
+        // The pre-cents arithmetic, kept as a baseline.
+        BigDecimal preDiscountCharge = tool.toolType().getDailyCharge().multiply(BigDecimal.valueOf(chargeDays))
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal discount = BigDecimal.valueOf(discountPercent).divide(BigDecimal.valueOf(100));
+        BigDecimal discountAmount = preDiscountCharge.multiply(discount).setScale(2, RoundingMode.HALF_UP);
+
+        return preDiscountCharge.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Quote priceWithStandardRules() {
+        return standardRules.price(calendar, ToolType.JACKHAMMER, checkoutEpochDay, 7, discountPercent);
+    }
+
+    @Benchmark
+    public Quote priceWithCustomRules() {
+        return customRules.price(calendar, ToolType.JACKHAMMER, checkoutEpochDay, 7, discountPercent);
+    }
+
+    @Benchmark
+    public Quote priceWithSeasonalRates() {
+        return customRules.price(calendar, ToolType.CHAINSAW, checkoutEpochDay, 7, discountPercent);
+    }
+}
@@ -0,0 +1,42 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering a rental agreement as text.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RentalAgreementBenchmark {
+    private final RentalAgreement agreement = Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+
+    @Benchmark
+    public String toStringAgreement() {
+        return agreement.toString();
+    }
+
+    @Benchmark
+    public ByteBuffer renderToByteBuffer() {
+        buffer.clear();
+        RentalAgreementRenderer.render(agreement, buffer);
+
+        return buffer;
+    }
+}
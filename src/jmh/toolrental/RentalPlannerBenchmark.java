@@ -0,0 +1,84 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks finding the cheapest start date for a chainsaw rental over the next 180 days, with a {@link RentalPlanner}
+ * and by checking out every start date, and building the planner itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RentalPlannerBenchmark {
+    private static final DateTimeFormatter CHECKOUT_DATE = DateTimeFormatter.ofPattern("M/d/yy");
+    private static final LocalDate EARLIEST = LocalDate.of(2021, 6, 1);
+    private static final LocalDate LATEST = EARLIEST.plusDays(179);
+
+    @Param({"10", "90"})
+    private int rentalDays;
+
+    private RentalPlanner planner;
+    private String[] checkoutDates;
+
+    @Setup
+    public void setUp() {
+        planner = newPlanner();
+        checkoutDates = new String[180];
+
+        for (int i = 0; i < checkoutDates.length; i++) {
+            checkoutDates[i] = EARLIEST.plusDays(i).format(CHECKOUT_DATE);
+        }
+    }
+
+    @Benchmark
+    public RentalPlanner newPlanner() {
+        return Checkout.newRentalPlanner(EARLIEST, LATEST.plusDays(365));
+    }
+
+    @Benchmark
+    public List<LocalDate> cheapestStartDates() {
+        return planner.cheapestStartDates(ToolType.CHAINSAW, rentalDays, 0, EARLIEST, LATEST);
+    }
+
+    @Benchmark
+    public List<RentalPlanner.Option> cheapestFiveStarts() {
+        return planner.cheapestStarts(ToolType.CHAINSAW, rentalDays, 0, EARLIEST, LATEST, 5);
+    }
+
+    @Benchmark
+    public String checkoutEveryStartDate() {
+        // The approach the planner replaces, kept as a baseline.
+        String cheapestDate = null;
+        BigDecimal cheapest = null;
+
+        for (String checkoutDate : checkoutDates) {
+            BigDecimal finalCharge = Checkout.checkoutTool("CHNS", rentalDays, 0, checkoutDate).finalCharge();
+
+            if (cheapest == null || finalCharge.compareTo(cheapest) < 0) {
+                cheapest = finalCharge;
+                cheapestDate = checkoutDate;
+            }
+        }
+
+        return cheapestDate;
+    }
+}
@@ -0,0 +1,74 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks month-end reports over the columnar revenue store. Rows are checked out over five years, and each report
+ * covers one year. The 50M-row store needs a heap of about 2 GB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class RevenueAnalyticsBenchmark {
+    private static final String[] BRANDS = {"Werner", "Stihl", "DeWalt", "Ridgid", "Makita", "Bosch"};
+
+    private static final LocalDate FROM = LocalDate.of(2016, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2016, 12, 31);
+
+    @Param({"1000000", "50000000"})
+    private int rows;
+
+    private RevenueAnalytics analytics;
+
+    @Setup
+    public void setUp() {
+        ToolType[] toolTypes = ToolType.values();
+        Random random = new Random(13);
+        int firstDay = (int) LocalDate.of(2014, 1, 1).toEpochDay();
+        analytics = new RevenueAnalytics(rows);
+
+        for (int i = 0; i < rows; i++) {
+            long preDiscount = 100 + random.nextInt(10_000);
+            long discount = Cents.percentOf(preDiscount, random.nextInt(101));
+
+            analytics.add(firstDay + random.nextInt(5 * 365), toolTypes[random.nextInt(toolTypes.length)],
+                    BRANDS[random.nextInt(BRANDS.length)], 1 + random.nextInt(30), discount, preDiscount - discount);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalRevenue() {
+        return analytics.totalRevenue(FROM, TO);
+    }
+
+    @Benchmark
+    public SortedMap<YearMonth, Map<ToolType, BigDecimal>> revenueByMonthAndToolType() {
+        return analytics.revenueByMonthAndToolType(FROM, TO);
+    }
+
+    @Benchmark
+    public SortedMap<String, BigDecimal> discountsByBrand() {
+        return analytics.discountsByBrand(FROM, TO);
+    }
+}
@@ -0,0 +1,60 @@
+package toolrental;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks tool lookups in catalogs of increasing size.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ToolCatalogBenchmark {
+    private static final String[] BRANDS = {"Werner", "Stihl", "DeWalt", "Ridgid", "Makita", "Bosch"};
+
+    @Param({"4", "100000"})
+    private int size;
+
+    private ToolCatalog catalog;
+    private String[] toolCodes;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder();
+        ToolType[] toolTypes = ToolType.values();
+        toolCodes = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            toolCodes[i] = "T" + i;
+            text.append(toolCodes[i]).append(',').append(toolTypes[i % toolTypes.length]).append(',')
+                    .append(BRANDS[i % BRANDS.length]).append('\n');
+        }
+
+        catalog = ToolCatalog.read(new StringReader(text.toString()));
+    }
+
+    @Benchmark
+    public Tool get() {
+        String toolCode = toolCodes[next];
+        next = next + 1 == toolCodes.length ? 0 : next + 1;
+
+        return catalog.get(toolCode);
+    }
+}
@@ -0,0 +1,268 @@
+package toolrental;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fixed-layout binary codec for tool types, tools and rental agreements.
+ * <p>
+ * Tool types are stored as their ordinal in one byte. Tools are stored as a two-byte id: their position in the tool
+ * catalog the codec was created from, ordered by tool code, so both ends must use codecs created from the same catalog.
+ * Dates are stored as epoch days and amounts as cents, so every rental agreement takes exactly
+ * {@value #AGREEMENT_SIZE} bytes:
+ * <pre>
+ * tool id             unsigned short
+ * rental days         int
+ * checkout epoch day  int
+ * due epoch day       int
+ * daily charge cents  long
+ * charge days         int
+ * pre-discount cents  long
+ * discount percent    byte
+ * discount cents      long
+ * final charge cents  long
+ * </pre>
+ * Values are read and written at the buffer's position, in its byte order. Encoding checks the whole value before
+ * writing anything, so a value that cannot be encoded leaves the buffer unchanged.
+ */
+public final class AgreementCodec {
+    /**
+     * The encoded size of a tool type.
+     */
+    public static final int TOOL_TYPE_SIZE = 1;
+
+    /**
+     * The encoded size of a tool.
+     */
+    public static final int TOOL_SIZE = 2;
+
+    /**
+     * The encoded size of a rental agreement.
+     */
+    public static final int AGREEMENT_SIZE = TOOL_SIZE + 4 * Integer.BYTES + 4 * Long.BYTES + 1;
+
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+
+    private final Tool[] tools;
+    private final Map<String, Integer> toolIds;
+
+    /**
+     * Constructs an AgreementCodec for the tools currently in a catalog. Later reloads of the catalog do not affect the
+     * codec.
+     *
+     * @param catalog the tool catalog
+     * @throws IllegalArgumentException if the catalog holds more than 65536 tools
+     */
+    public AgreementCodec(ToolCatalog catalog) {
+        Tool[] sorted = catalog.tools().toArray(new Tool[0]);
+
+        if (sorted.length > 0x10000) {
+            throw new IllegalArgumentException("Cannot assign ids to " + sorted.length + " tools.");
+        }
+
+        Arrays.sort(sorted, Comparator.comparing(Tool::toolCode));
+        this.tools = sorted;
+        this.toolIds = new HashMap<>();
+
+        for (int id = 0; id < sorted.length; id++) {
+            toolIds.put(sorted[id].toolCode(), id);
+        }
+    }
+
+    /**
+     * Writes a tool type.
+     *
+     * @param toolType the tool type
+     * @param out      where to write the tool type
+     * @throws BufferOverflowException if there is no room for the tool type
+     */
+    public void putToolType(ToolType toolType, ByteBuffer out) {
+        out.put((byte) toolType.ordinal());
+    }
+
+    /**
+     * Reads a tool type.
+     *
+     * @param in where to read the tool type
+     * @return the tool type
+     * @throws BufferUnderflowException if the buffer ends before the tool type
+     * @throws IllegalArgumentException if the bytes are not a tool type
+     */
+    public ToolType getToolType(ByteBuffer in) {
+        int ordinal = Byte.toUnsignedInt(in.get());
+
+        if (ordinal >= TOOL_TYPES.length) {
+            throw new IllegalArgumentException("Invalid tool type ordinal: " + ordinal);
+        }
+
+        return TOOL_TYPES[ordinal];
+    }
+
+    /**
+     * Writes a tool.
+     *
+     * @param tool the tool
+     * @param out  where to write the tool
+     * @throws BufferOverflowException  if there is no room for the tool
+     * @throws IllegalArgumentException if the tool is not in the codec's catalog
+     */
+    public void putTool(Tool tool, ByteBuffer out) {
+        int id = toolId(tool);
+
+        if (out.remaining() < TOOL_SIZE) {
+            throw new BufferOverflowException();
+        }
+
+        out.putShort((short) id);
+    }
+
+    /**
+     * Reads a tool. The tool returned is the catalog's instance.
+     *
+     * @param in where to read the tool
+     * @return the tool
+     * @throws BufferUnderflowException if the buffer ends before the tool
+     * @throws IllegalArgumentException if the bytes are not a tool id
+     */
+    public Tool getTool(ByteBuffer in) {
+        int id = Short.toUnsignedInt(in.getShort());
+
+        if (id >= tools.length) {
+            throw new IllegalArgumentException("Invalid tool id: " + id);
+        }
+
+        return tools[id];
+    }
+
+    /**
+     * Writes a rental agreement in {@value #AGREEMENT_SIZE} bytes.
+     *
+     * @param agreement the rental agreement
+     * @param out       where to write the agreement
+     * @throws BufferOverflowException  if there is no room for the agreement
+     * @throws IllegalArgumentException if the tool is not in the codec's catalog, a date is out of range, an amount has
+     *                                  fractions of a cent or the discount percent is not between 0 and 100
+     */
+    public void putAgreement(RentalAgreement agreement, ByteBuffer out) {
+        int toolId = toolId(agreement.tool());
+        int checkoutEpochDay = toEpochDay(agreement.checkoutDate());
+        int dueEpochDay = toEpochDay(agreement.dueDate());
+        long dailyRentalCharge = toCents(agreement.dailyRentalCharge());
+        long preDiscountCharge = toCents(agreement.preDiscountCharge());
+        long discountAmount = toCents(agreement.discountAmount());
+        long finalCharge = toCents(agreement.finalCharge());
+
+        if (agreement.discountPercent() < 0 || agreement.discountPercent() > 100) {
+            throw new IllegalArgumentException("Cannot encode discount percent " + agreement.discountPercent());
+        }
+
+        if (out.remaining() < AGREEMENT_SIZE) {
+            throw new BufferOverflowException();
+        }
+
+        out.putShort((short) toolId);
+        out.putInt(agreement.rentalDays());
+        out.putInt(checkoutEpochDay);
+        out.putInt(dueEpochDay);
+        out.putLong(dailyRentalCharge);
+        out.putInt(agreement.chargeDays());
+        out.putLong(preDiscountCharge);
+        out.put((byte) agreement.discountPercent());
+        out.putLong(discountAmount);
+        out.putLong(finalCharge);
+    }
+
+    /**
+     * Reads a rental agreement.
+     *
+     * @param in where to read the agreement
+     * @return the rental agreement
+     * @throws BufferUnderflowException if the buffer ends before the agreement
+     * @throws IllegalArgumentException if the bytes are not a rental agreement
+     */
+    public RentalAgreement getAgreement(ByteBuffer in) {
+        if (in.remaining() < AGREEMENT_SIZE) {
+            throw new BufferUnderflowException();
+        }
+
+        Tool tool = getTool(in);
+        int rentalDays = in.getInt();
+        LocalDate checkoutDate = LocalDate.ofEpochDay(in.getInt());
+        LocalDate dueDate = LocalDate.ofEpochDay(in.getInt());
+        long dailyRentalCharge = in.getLong();
+        int chargeDays = in.getInt();
+        long preDiscountCharge = in.getLong();
+        int discountPercent = in.get();
+        long discountAmount = in.getLong();
+        long finalCharge = in.getLong();
+
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException("Invalid discount percent: " + discountPercent);
+        }
+
+        ToolType toolType = tool.toolType();
+        BigDecimal dailyCharge = dailyRentalCharge == toolType.getDailyChargeCents()
+                ? toolType.getDailyCharge()
+                : Cents.toBigDecimal(dailyRentalCharge);
+
+        return new RentalAgreement(tool, rentalDays, checkoutDate, dueDate, dailyCharge, chargeDays,
+                Cents.toBigDecimal(preDiscountCharge), discountPercent, Cents.toBigDecimal(discountAmount),
+                Cents.toBigDecimal(finalCharge));
+    }
+
+    /**
+     * Returns the id of a tool.
+     *
+     * @param tool the tool
+     * @return the id
+     * @throws IllegalArgumentException if the tool is not in the codec's catalog
+     */
+    private int toolId(Tool tool) {
+        Integer id = toolIds.get(tool.toolCode());
+
+        if (id == null || !tools[id].equals(tool)) {
+            throw new IllegalArgumentException("Tool not in catalog: " + tool);
+        }
+
+        return id;
+    }
+
+    /**
+     * Converts a date to an epoch day.
+     *
+     * @param date the date
+     * @return the epoch day
+     * @throws IllegalArgumentException if the epoch day does not fit in an int
+     */
+    private static int toEpochDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+
+        if (epochDay != (int) epochDay) {
+            throw new IllegalArgumentException("Cannot encode date " + date);
+        }
+
+        return (int) epochDay;
+    }
+
+    /**
+     * Converts an amount to cents.
+     *
+     * @param amount the amount
+     * @return the amount in cents
+     * @throws IllegalArgumentException if the amount has fractions of a cent
+     */
+    private static long toCents(BigDecimal amount) {
+        try {
+            return Cents.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Cannot encode amount " + amount + ": " + e.getMessage());
+        }
+    }
+}
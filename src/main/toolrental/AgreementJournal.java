@@ -0,0 +1,454 @@
+package toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable, append-only journal of rental agreements.
+ * <p>
+ * Each agreement is stored as one binary record: a 4-byte payload length, a 4-byte CRC-32C of the payload, and the
+ * payload itself. Appends are staged in memory and written to the file together; {@link #commit} forces everything
+ * appended so far to disk, and concurrent committers share a single force (group commit). Opening a journal replays
+ * its records in order and truncates a torn final record left by a crash. A damaged record with more data after it is
+ * corruption rather than a torn write, and fails the open instead, so committed agreements are never discarded.
+ * <p>
+ * A failed write or force leaves the journal unusable: it is no longer known which records reached the disk, so every
+ * later append and commit fails too.
+ * <p>
+ * Payload layout, big-endian: tool code (unsigned-short length, UTF-8 bytes), tool type ordinal (byte), brand
+ * (unsigned-short length, UTF-8 bytes), rental days (int), checkout epoch day (int), due epoch day (int), daily charge
+ * cents (long), charge days (int), pre-discount cents (long), discount percent (int), discount cents (long), final
+ * charge cents (long).
+ */
+public final class AgreementJournal implements AutoCloseable {
+    /**
+     * The size of the length and checksum header of each record.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * The largest payload a record may have: two maximal strings plus the fixed-width fields. Anything larger is
+     * treated as corruption.
+     */
+    private static final int MAX_PAYLOAD_SIZE = 2 * (2 + 0xFFFF) + 1 + 5 * Integer.BYTES + 4 * Long.BYTES;
+
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+
+    /**
+     * The size of the buffers used to stage appends and to read during replay.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final Object appendLock = new Object();
+    private final Object commitLock = new Object();
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private long appendedPosition;
+    private long writtenPosition;
+    private volatile long durablePosition;
+    private volatile IOException failure;
+
+    /**
+     * Constructs an AgreementJournal appending to a channel.
+     *
+     * @param channel  the journal file, open for reading and writing
+     * @param position the end of the last valid record
+     */
+    private AgreementJournal(FileChannel channel, long position) {
+        this.channel = channel;
+        this.appendedPosition = position;
+        this.writtenPosition = position;
+        this.durablePosition = position;
+    }
+
+    /**
+     * Opens a journal, creating the file if it does not exist, and replays the agreements already in it. A torn final
+     * record is truncated away: a header or payload cut short by the end of the file, a last record whose checksum does
+     * not match, or a tail of zeros.
+     *
+     * @param file     the journal file
+     * @param replayer receives each journaled agreement, in the order appended
+     * @return the open journal, positioned to append after the last valid record
+     * @throws IOException              if the file cannot be read or written, or a record before the last is corrupt
+     * @throws IllegalArgumentException if an intact record holds a tool type this version does not know
+     */
+    public static AgreementJournal open(Path file, Consumer<RentalAgreement> replayer) throws IOException {
+        return open(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE), replayer);
+    }
+
+    /**
+     * Opens a journal on a channel, as {@link #open(Path, Consumer)} does. The channel is closed if opening fails.
+     *
+     * @param channel  the journal file, open for reading and writing
+     * @param replayer receives each journaled agreement, in the order appended
+     * @return the open journal, positioned to append after the last valid record
+     * @throws IOException              if the file cannot be read or written, or a record before the last is corrupt
+     * @throws IllegalArgumentException if an intact record holds a tool type this version does not know
+     */
+    static AgreementJournal open(FileChannel channel, Consumer<RentalAgreement> replayer) throws IOException {
+        try {
+            long validEnd = replay(channel, replayer);
+
+            if (validEnd < channel.size()) {
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+
+            channel.position(validEnd);
+            return new AgreementJournal(channel, validEnd);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends an agreement to the journal. The agreement is durable once {@link #commit(long)} has been called with
+     * the returned position or a later one.
+     *
+     * @param agreement the rental agreement
+     * @return the position in the journal just past the appended record
+     * @throws IOException              if staged records had to be written out and the write failed, or an earlier write
+     *                                  or force failed
+     * @throws IllegalArgumentException if an amount has fractions of a cent or a string is too long to journal
+     */
+    public long append(RentalAgreement agreement) throws IOException {
+        synchronized (appendLock) {
+            checkNotFailed();
+
+            if (pending.remaining() < HEADER_SIZE + MAX_PAYLOAD_SIZE) {
+                writePending();
+            }
+
+            int start = pending.position();
+            pending.position(start + HEADER_SIZE);
+
+            try {
+                encode(agreement, pending);
+            } catch (RuntimeException e) {
+                pending.position(start);
+                throw e;
+            }
+
+            int payloadSize = pending.position() - start - HEADER_SIZE;
+            crc.reset();
+            crc.update(pending.slice(start + HEADER_SIZE, payloadSize));
+            pending.putInt(start, payloadSize).putInt(start + 4, (int) crc.getValue());
+
+            appendedPosition += HEADER_SIZE + payloadSize;
+            return appendedPosition;
+        }
+    }
+
+    /**
+     * Makes every agreement appended so far durable.
+     *
+     * @throws IOException if the journal cannot be written or forced to disk, now or earlier
+     */
+    public void commit() throws IOException {
+        long position;
+
+        synchronized (appendLock) {
+            position = appendedPosition;
+        }
+
+        commit(position);
+    }
+
+    /**
+     * Makes the agreements up to a position durable. Threads committing at the same time share one force to disk:
+     * whichever gets there first writes and forces everything appended so far, and the rest return once it covers
+     * their position.
+     *
+     * @param position a position returned by {@link #append}
+     * @throws IOException if the journal cannot be written or forced to disk, now or earlier
+     */
+    public void commit(long position) throws IOException {
+        if (durablePosition >= position) {
+            return;
+        }
+
+        synchronized (commitLock) {
+            if (durablePosition >= position) {
+                return;
+            }
+
+            long written;
+            synchronized (appendLock) {
+                checkNotFailed();
+                writePending();
+                written = writtenPosition;
+            }
+
+            // Appenders keep staging records while this thread waits on the disk.
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                // A failed force may have dropped written pages, so forcing again would not prove anything.
+                failure = e;
+                throw e;
+            }
+
+            durablePosition = written;
+        }
+    }
+
+    /**
+     * Commits all appended agreements and closes the journal.
+     *
+     * @throws IOException if the journal cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the staged records to the file. Must be called holding the append lock. A failed write fails the journal,
+     * since part of the staged records may already be in the file.
+     *
+     * @throws IOException if the write fails
+     */
+    private void writePending() throws IOException {
+        pending.flip();
+
+        try {
+            while (pending.hasRemaining()) {
+                writtenPosition += channel.write(pending);
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+
+        pending.clear();
+    }
+
+    /**
+     * Checks that no write or force has failed.
+     *
+     * @throws IOException if one has, with the original failure as its cause
+     */
+    private void checkNotFailed() throws IOException {
+        IOException cause = failure;
+
+        if (cause != null) {
+            throw new IOException("Journal failed after an earlier write error.", cause);
+        }
+    }
+
+    /**
+     * Replays the valid records of a journal from the start, stopping at a torn final record.
+     *
+     * @param channel  the journal file
+     * @param replayer receives each agreement
+     * @return the position just past the last valid record
+     * @throws IOException if the file cannot be read or a record before the last is corrupt
+     */
+    private static long replay(FileChannel channel, Consumer<RentalAgreement> replayer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        CRC32C crc = new CRC32C();
+        long fileSize = channel.size();
+        long validEnd = 0;
+        long readPosition = 0;
+        boolean endOfFile = false;
+
+        buffer.flip();
+
+        while (true) {
+            if (buffer.remaining() < HEADER_SIZE + MAX_PAYLOAD_SIZE && !endOfFile) {
+                buffer.compact();
+                int read;
+                while (buffer.hasRemaining() && (read = channel.read(buffer, readPosition)) > 0) {
+                    readPosition += read;
+                }
+                endOfFile = buffer.hasRemaining();
+                buffer.flip();
+            }
+
+            // The buffer is refilled while it holds less than a whole record, so running short means end of file.
+            if (buffer.remaining() < HEADER_SIZE) {
+                return validEnd;
+            }
+
+            int start = buffer.position();
+            int payloadSize = buffer.getInt(start);
+            if (payloadSize <= 0 || payloadSize > MAX_PAYLOAD_SIZE) {
+                // Without a length the record's end is unknown; only zeros to the end of the file are a torn tail.
+                if (isZeroFrom(channel, validEnd, fileSize)) {
+                    return validEnd;
+                }
+                throw new IOException("Corrupt record at offset " + validEnd + ": invalid length " + payloadSize);
+            }
+
+            if (buffer.remaining() < HEADER_SIZE + payloadSize) {
+                return validEnd;
+            }
+
+            ByteBuffer payload = buffer.slice(start + HEADER_SIZE, payloadSize);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+                if (validEnd + HEADER_SIZE + payloadSize == fileSize) {
+                    return validEnd;
+                }
+                throw new IOException("Corrupt record at offset " + validEnd + ": checksum mismatch");
+            }
+
+            replayer.accept(decode(payload.rewind()));
+            buffer.position(start + HEADER_SIZE + payloadSize);
+            validEnd += HEADER_SIZE + payloadSize;
+        }
+    }
+
+    /**
+     * Checks whether a file holds only zero bytes from a position to its end.
+     *
+     * @param channel  the file
+     * @param position the position to check from
+     * @param size     the size of the file
+     * @return {@code true} if every byte from position on is zero
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean isZeroFrom(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+
+            if (read < 0) {
+                break;
+            }
+
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) != 0) {
+                    return false;
+                }
+            }
+
+            position += read;
+        }
+
+        return true;
+    }
+
+    /**
+     * Encodes the payload of an agreement record.
+     *
+     * @param agreement the rental agreement
+     * @param out       where to write the payload
+     */
+    private static void encode(RentalAgreement agreement, ByteBuffer out) {
+        Tool tool = agreement.tool();
+
+        putString(tool.toolCode(), out);
+        out.put((byte) tool.toolType().ordinal());
+        putString(tool.brand(), out);
+        out.putInt(agreement.rentalDays());
+        out.putInt(Math.toIntExact(agreement.checkoutDate().toEpochDay()));
+        out.putInt(Math.toIntExact(agreement.dueDate().toEpochDay()));
+        out.putLong(toCents(agreement.dailyRentalCharge()));
+        out.putInt(agreement.chargeDays());
+        out.putLong(toCents(agreement.preDiscountCharge()));
+        out.putInt(agreement.discountPercent());
+        out.putLong(toCents(agreement.discountAmount()));
+        out.putLong(toCents(agreement.finalCharge()));
+    }
+
+    /**
+     * Decodes the payload of an agreement record. Tools matching the default catalog are shared with it.
+     *
+     * @param in the payload
+     * @return the rental agreement
+     * @throws IllegalArgumentException if the tool type is not one this version knows
+     */
+    private static RentalAgreement decode(ByteBuffer in) {
+        String toolCode = getString(in);
+        int toolTypeOrdinal = Byte.toUnsignedInt(in.get());
+
+        if (toolTypeOrdinal >= TOOL_TYPES.length) {
+            throw new IllegalArgumentException("Invalid tool type ordinal: " + toolTypeOrdinal);
+        }
+
+        ToolType toolType = TOOL_TYPES[toolTypeOrdinal];
+        String brand = getString(in);
+        Tool tool = ToolCatalog.getDefault().get(toolCode);
+
+        if (tool == null || tool.toolType() != toolType || !tool.brand().equals(brand)) {
+            tool = new Tool(toolCode, toolType, brand);
+        }
+
+        int rentalDays = in.getInt();
+        LocalDate checkoutDate = LocalDate.ofEpochDay(in.getInt());
+        LocalDate dueDate = LocalDate.ofEpochDay(in.getInt());
+        BigDecimal dailyRentalCharge = Cents.toBigDecimal(in.getLong());
+        int chargeDays = in.getInt();
+        BigDecimal preDiscountCharge = Cents.toBigDecimal(in.getLong());
+        int discountPercent = in.getInt();
+        BigDecimal discountAmount = Cents.toBigDecimal(in.getLong());
+        BigDecimal finalCharge = Cents.toBigDecimal(in.getLong());
+
+        return new RentalAgreement(tool, rentalDays, checkoutDate, dueDate, dailyRentalCharge, chargeDays,
+                preDiscountCharge, discountPercent, discountAmount, finalCharge);
+    }
+
+    /**
+     * Converts an amount to cents.
+     *
+     * @param amount the amount
+     * @return the amount in cents
+     * @throws IllegalArgumentException if the amount has fractions of a cent
+     */
+    private static long toCents(BigDecimal amount) {
+        try {
+            return Cents.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Cannot journal amount " + amount + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a string as an unsigned-short length followed by its UTF-8 bytes.
+     *
+     * @param value the string
+     * @param out   where to write the string
+     * @throws IllegalArgumentException if the string is longer than 65535 bytes in UTF-8
+     */
+    private static void putString(String value, ByteBuffer out) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Cannot journal a string of " + bytes.length + " bytes.");
+        }
+
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #putString}.
+     *
+     * @param in where to read the string
+     * @return the string
+     */
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,96 @@
+package toolrental;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Writes rental agreements as JSON objects.
+ * <p>
+ * Dates are written as ISO-8601 strings and amounts as JSON numbers with two decimal places.
+ */
+final class AgreementJson {
+    private AgreementJson() {
+    }
+
+    /**
+     * Writes a rental agreement as a JSON object.
+     *
+     * @param agreement The rental agreement.
+     * @param out       Where to write the JSON.
+     * @throws IOException if {@code out} fails.
+     */
+    static void write(RentalAgreement agreement, Appendable out) throws IOException {
+        Tool tool = agreement.tool();
+
+        out.append("{\"toolCode\":");
+        writeString(tool.toolCode(), out);
+        out.append(",\"toolType\":");
+        writeString(tool.toolType().getName(), out);
+        out.append(",\"toolBrand\":");
+        writeString(tool.brand(), out);
+        out.append(",\"rentalDays\":").append(Integer.toString(agreement.rentalDays()));
+        out.append(",\"checkoutDate\":");
+        writeDate(agreement.checkoutDate(), out);
+        out.append(",\"dueDate\":");
+        writeDate(agreement.dueDate(), out);
+        out.append(",\"dailyRentalCharge\":");
+        writeAmount(agreement.dailyRentalCharge(), out);
+        out.append(",\"chargeDays\":").append(Integer.toString(agreement.chargeDays()));
+        out.append(",\"preDiscountCharge\":");
+        writeAmount(agreement.preDiscountCharge(), out);
+        out.append(",\"discountPercent\":").append(Integer.toString(agreement.discountPercent()));
+        out.append(",\"discountAmount\":");
+        writeAmount(agreement.discountAmount(), out);
+        out.append(",\"finalCharge\":");
+        writeAmount(agreement.finalCharge(), out);
+        out.append('}');
+    }
+
+    /**
+     * Writes a JSON string literal, escaping quotes, backslashes and control characters.
+     *
+     * @param value The string.
+     * @param out   Where to write the literal.
+     * @throws IOException if {@code out} fails.
+     */
+    static void writeString(String value, Appendable out) throws IOException {
+        out.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+
+        out.append('"');
+    }
+
+    /**
+     * Writes a date as an ISO-8601 string literal.
+     *
+     * @param date The date.
+     * @param out  Where to write the literal.
+     * @throws IOException if {@code out} fails.
+     */
+    private static void writeDate(LocalDate date, Appendable out) throws IOException {
+        out.append('"').append(date.toString()).append('"');
+    }
+
+    /**
+     * Writes an amount as a JSON number.
+     *
+     * @param amount The amount.
+     * @param out    Where to write the number.
+     * @throws IOException if {@code out} fails.
+     */
+    private static void writeAmount(BigDecimal amount, Appendable out) throws IOException {
+        out.append(amount.toPlainString());
+    }
+}
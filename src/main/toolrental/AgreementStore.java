@@ -0,0 +1,388 @@
+package toolrental;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A store of open rental agreements, keyed by agreement id, that keeps the agreements outside the Java heap.
+ * <p>
+ * Each agreement is encoded by an {@link AgreementCodec} into a fixed {@value #SLOT_SIZE}-byte slot of a direct
+ * buffer. Slots are allocated from slabs of {@value #SLAB_SLOTS} that are added as the store grows and never moved,
+ * and the slots of removed agreements are reused. Agreements are found through a {@link LongIntMap} from id to slot,
+ * held in two primitive arrays, so the store costs the garbage collector a handful of objects however many agreements
+ * it holds, against about 300 bytes of objects per agreement in a map of {@link RentalAgreement} records. Slabs are
+ * direct memory, limited by {@code -XX:MaxDirectMemorySize}, and are released when the store is garbage collected.
+ * <p>
+ * The store can be read from any number of threads while it is written to. Writes are serialized. Reads are optimistic:
+ * they copy the agreement's slot without locking and only take the read lock, and retry, if a write ran meanwhile.
+ * Nothing is allocated by a read into a {@link View}; a {@link RentalAgreement} is created only when one is asked for.
+ */
+public final class AgreementStore {
+    /**
+     * The bytes taken by each agreement.
+     */
+    public static final int SLOT_SIZE = AgreementCodec.AGREEMENT_SIZE;
+
+    private static final int SLAB_BITS = 16;
+
+    /**
+     * The number of slots in each slab.
+     */
+    static final int SLAB_SLOTS = 1 << SLAB_BITS;
+
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    private final AgreementCodec codec;
+    private final StampedLock lock = new StampedLock();
+    private final LongIntMap index;
+
+    /**
+     * The slabs the readers see. Replaced, never modified, when a slab is added.
+     */
+    private ByteBuffer[] slabs = new ByteBuffer[0];
+
+    /**
+     * The writer's own views of the slabs, whose positions it moves to encode into slots.
+     */
+    private ByteBuffer[] writerSlabs = new ByteBuffer[0];
+
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int usedSlots;
+
+    /**
+     * A reusable view of one stored agreement. The view holds a copy of the agreement's slot, so it stays consistent
+     * after the agreement is replaced or removed, and reads its fields from the copy without creating any objects
+     * other than those returned. A view may be used by one thread at a time.
+     */
+    public static final class View {
+        // Field offsets in the AgreementCodec layout.
+        private static final int RENTAL_DAYS = AgreementCodec.TOOL_SIZE;
+        private static final int CHECKOUT_EPOCH_DAY = RENTAL_DAYS + Integer.BYTES;
+        private static final int DUE_EPOCH_DAY = CHECKOUT_EPOCH_DAY + Integer.BYTES;
+        private static final int CHARGE_DAYS = DUE_EPOCH_DAY + Integer.BYTES + Long.BYTES;
+        private static final int DISCOUNT_PERCENT = CHARGE_DAYS + Integer.BYTES + Long.BYTES;
+        private static final int FINAL_CHARGE = DISCOUNT_PERCENT + 1 + Long.BYTES;
+
+        private final ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE).order(ORDER);
+        private AgreementCodec codec;
+        private long id;
+
+        /**
+         * Returns the id of the agreement.
+         *
+         * @return the agreement id
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Returns the tool rented.
+         *
+         * @return the tool
+         */
+        public Tool getTool() {
+            return codec.getTool(slot.position(0));
+        }
+
+        /**
+         * Returns the number of days rented.
+         *
+         * @return the rental days
+         */
+        public int getRentalDays() {
+            return slot.getInt(RENTAL_DAYS);
+        }
+
+        /**
+         * Returns the checkout date.
+         *
+         * @return the checkout date, as an epoch day
+         */
+        public long getCheckoutEpochDay() {
+            return slot.getInt(CHECKOUT_EPOCH_DAY);
+        }
+
+        /**
+         * Returns the due date.
+         *
+         * @return the due date, as an epoch day
+         */
+        public long getDueEpochDay() {
+            return slot.getInt(DUE_EPOCH_DAY);
+        }
+
+        /**
+         * Returns the number of days charged.
+         *
+         * @return the charge days
+         */
+        public int getChargeDays() {
+            return slot.getInt(CHARGE_DAYS);
+        }
+
+        /**
+         * Returns the discount percentage.
+         *
+         * @return the discount percent
+         */
+        public int getDiscountPercent() {
+            return slot.get(DISCOUNT_PERCENT);
+        }
+
+        /**
+         * Returns the charge after the discount.
+         *
+         * @return the final charge in cents
+         */
+        public long getFinalChargeCents() {
+            return slot.getLong(FINAL_CHARGE);
+        }
+
+        /**
+         * Creates the rental agreement the view shows.
+         *
+         * @return the rental agreement
+         */
+        public RentalAgreement toRentalAgreement() {
+            return codec.getAgreement(slot.position(0));
+        }
+    }
+
+    /**
+     * Constructs an empty AgreementStore for agreements renting tools from a catalog.
+     *
+     * @param catalog      the catalog of the tools rented
+     * @param expectedSize the number of agreements expected, so the index does not have to grow to hold them
+     * @throws IllegalArgumentException if expectedSize is negative or too large, or the catalog holds more than 65536
+     *                                  tools
+     */
+    public AgreementStore(ToolCatalog catalog, int expectedSize) {
+        this.codec = new AgreementCodec(catalog);
+        this.index = new LongIntMap(expectedSize);
+    }
+
+    /**
+     * Stores an agreement, replacing any agreement stored with the same id.
+     *
+     * @param id        the agreement id
+     * @param agreement the agreement
+     * @return {@code true} if an agreement was replaced, {@code false} if the id is new
+     * @throws IllegalArgumentException if the agreement cannot be encoded, in which case the store is unchanged
+     * @throws IllegalStateException    if the id is new and the store cannot hold more agreements, in which case the
+     *                                  store is unchanged
+     */
+    public boolean put(long id, RentalAgreement agreement) {
+        long stamp = lock.writeLock();
+
+        try {
+            int slot = index.get(id);
+            boolean replaced = slot != LongIntMap.MISSING;
+
+            if (!replaced) {
+                slot = allocate();
+            }
+
+            ByteBuffer slab = writerSlabs[slot >>> SLAB_BITS];
+
+            try {
+                codec.putAgreement(agreement, slab.position((slot & (SLAB_SLOTS - 1)) * SLOT_SIZE));
+
+                if (!replaced) {
+                    index.put(id, slot);
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                if (!replaced) {
+                    release(slot);
+                }
+                throw e;
+            }
+
+            return replaced;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes an agreement.
+     *
+     * @param id the agreement id
+     * @return {@code true} if the agreement was stored, {@code false} otherwise
+     */
+    public boolean remove(long id) {
+        long stamp = lock.writeLock();
+
+        try {
+            int slot = index.remove(id);
+
+            if (slot == LongIntMap.MISSING) {
+                return false;
+            }
+
+            release(slot);
+
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Reads an agreement into a view.
+     *
+     * @param id   the agreement id
+     * @param view the view to read into
+     * @return {@code true} if the agreement was found, {@code false} if the view is unchanged
+     */
+    public boolean read(long id, View view) {
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            boolean found = copy(id, view);
+
+            if (lock.validate(stamp)) {
+                return found;
+            }
+        }
+
+        stamp = lock.readLock();
+
+        try {
+            return copy(id, view);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns an agreement.
+     *
+     * @param id the agreement id
+     * @return the agreement, or {@code null} if no agreement has that id
+     */
+    public RentalAgreement get(long id) {
+        View view = new View();
+
+        return read(id, view) ? view.toRentalAgreement() : null;
+    }
+
+    /**
+     * Checks if an agreement is stored.
+     *
+     * @param id the agreement id
+     * @return {@code true} if an agreement has that id
+     */
+    public boolean contains(long id) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = index.get(id) != LongIntMap.MISSING;
+
+        if (lock.validate(stamp)) {
+            return found;
+        }
+
+        stamp = lock.readLock();
+
+        try {
+            return index.get(id) != LongIntMap.MISSING;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of agreements stored.
+     *
+     * @return the number of agreements
+     */
+    public int size() {
+        long stamp = lock.readLock();
+
+        try {
+            return index.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the direct memory taken by the slabs.
+     *
+     * @return the bytes allocated outside the heap
+     */
+    public long offHeapBytes() {
+        long stamp = lock.readLock();
+
+        try {
+            return (long) writerSlabs.length * SLAB_SLOTS * SLOT_SIZE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies an agreement's slot into a view. Run under an optimistic read, the copy may be torn by a concurrent write,
+     * so every index is checked before use rather than trusted.
+     *
+     * @param id   the agreement id
+     * @param view the view to copy into
+     * @return {@code true} if the agreement was found
+     */
+    private boolean copy(long id, View view) {
+        int slot = index.get(id);
+        ByteBuffer[] slabs = this.slabs;
+
+        if (slot == LongIntMap.MISSING || slot >>> SLAB_BITS >= slabs.length) {
+            return false;
+        }
+
+        slabs[slot >>> SLAB_BITS].get((slot & (SLAB_SLOTS - 1)) * SLOT_SIZE, view.slot.array(), 0, SLOT_SIZE);
+        view.codec = codec;
+        view.id = id;
+
+        return true;
+    }
+
+    /**
+     * Takes a free slot, adding a slab if none is free.
+     *
+     * @return the slot
+     * @throws IllegalStateException if the store cannot hold more agreements
+     */
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+
+        if (usedSlots == writerSlabs.length * SLAB_SLOTS) {
+            if (writerSlabs.length == 1 << (Integer.SIZE - 1 - SLAB_BITS)) {
+                throw new IllegalStateException("AgreementStore cannot hold more than " + usedSlots + " agreements.");
+            }
+
+            ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_SLOTS * SLOT_SIZE).order(ORDER);
+            ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+            grown[slabs.length] = slab;
+            writerSlabs = Arrays.copyOf(writerSlabs, writerSlabs.length + 1);
+            writerSlabs[writerSlabs.length - 1] = slab.duplicate().order(ORDER);
+            slabs = grown;
+        }
+
+        return usedSlots++;
+    }
+
+    /**
+     * Returns a slot to the free list.
+     *
+     * @param slot the slot
+     */
+    private void release(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, 2 * freeCount);
+        }
+
+        freeSlots[freeCount++] = slot;
+    }
+}
@@ -0,0 +1,61 @@
+package toolrental;
+
+import java.math.BigDecimal;
+
+/**
+ * Money arithmetic on amounts held as a {@code long} number of cents.
+ * <p>
+ * The operations round exactly like the equivalent {@link BigDecimal} arithmetic at a scale of 2 with
+ * {@link java.math.RoundingMode#HALF_UP}, but allocate nothing.
+ */
+final class Cents {
+    private Cents() {
+    }
+
+    /**
+     * Multiplies an amount by a quantity.
+     *
+     * @param cents    The amount in cents.
+     * @param quantity The quantity.
+     * @return The product in cents.
+     * @throws ArithmeticException if the result overflows a long.
+     */
+    static long multiply(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * Takes a percentage of an amount, rounding half a cent away from zero.
+     *
+     * @param cents   The amount in cents.
+     * @param percent The percentage.
+     * @return The percentage of the amount in cents.
+     * @throws ArithmeticException if the result overflows a long.
+     */
+    static long percentOf(long cents, int percent) {
+        long hundredths = Math.multiplyExact(cents, percent);
+
+        return hundredths >= 0 ? (hundredths + 50) / 100 : -((-hundredths + 50) / 100);
+    }
+
+    /**
+     * Converts a number of cents from a BigDecimal with at most two decimal places.
+     *
+     * @param amount The amount.
+     * @return The amount in cents.
+     * @throws ArithmeticException if the amount has fractions of a cent or overflows a long.
+     */
+    static long of(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Converts a number of cents to a BigDecimal with a scale of 2.
+     *
+     * @param cents The amount in cents.
+     * @return The amount as a BigDecimal.
+     */
+    static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
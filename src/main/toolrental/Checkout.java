@@ -0,0 +1,510 @@
+package toolrental;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class Checkout {
+    /**
+     * One checkout in how many is timed by default.
+     */
+    private static final int DEFAULT_METRICS_SAMPLE_INTERVAL = 1024;
+
+    /**
+     * Calendar of the holidays observed when counting chargeable days.
+     */
+    private static volatile HolidayCalendar holidayCalendar = HolidayCalendar.standard();
+
+    /**
+     * Rules rentals are priced by.
+     */
+    private static volatile PricingRules pricingRules = PricingRules.standard();
+
+    /**
+     * Cache of recently priced quotes, or {@code null} when quote caching is disabled.
+     */
+    private static volatile QuoteCache quoteCache;
+
+    /**
+     * Metrics recorded for every checkout, or {@code null} when metrics are disabled.
+     */
+    private static volatile CheckoutMetrics checkoutMetrics = new CheckoutMetrics(DEFAULT_METRICS_SAMPLE_INTERVAL);
+
+    /**
+     * Catalog of the tools available for rent, or {@code null} for the default catalog, which is then loaded on first
+     * use rather than when the class is.
+     */
+    private static volatile ToolCatalog toolCatalog;
+
+    /**
+     * Checks out a tool and generates a rental agreement.
+     *
+     * @param toolCode      The code of the tool to be rented.
+     * @param rentalDays    The number of days for which the tool is rented.
+     * @param discountPercent  The discount percentage to be applied.
+     * @param checkoutDate  The date the tool is checked out.
+     * @return The rental agreement for the checked-out tool.
+     * @throws IllegalArgumentException if rentalDays is less than 1, discountPercent is not between 0 and 100, the
+     *                                  tool code is missing or invalid or the checkout date is missing or not in the
+     *                                  M/d/yy format.
+     */
+    public static RentalAgreement checkoutTool(String toolCode, int rentalDays, int discountPercent, String checkoutDate) {
+        return checkoutTool(toolCode, rentalDays, discountPercent, (CharSequence) checkoutDate);
+    }
+
+    /**
+     * Checks out a tool like {@link #checkoutTool(String, int, int, String)}, reading the checkout date from any
+     * character sequence so bulk callers can parse it in place.
+     *
+     * @param toolCode        The code of the tool to be rented.
+     * @param rentalDays      The number of days for which the tool is rented.
+     * @param discountPercent The discount percentage to be applied.
+     * @param checkoutDate    The date the tool is checked out.
+     * @return The rental agreement for the checked-out tool.
+     * @throws IllegalArgumentException if the request is invalid.
+     */
+    static RentalAgreement checkoutTool(String toolCode, int rentalDays, int discountPercent,
+                                        CharSequence checkoutDate) {
+        CheckoutMetrics metrics = checkoutMetrics;
+
+        if (metrics != null && metrics.startCheckout()) {
+            return timedCheckoutTool(metrics, toolCode, rentalDays, discountPercent, checkoutDate);
+        }
+
+        validate(metrics, rentalDays, discountPercent);
+        Tool tool = lookUpTool(metrics, toolCode);
+        LocalDate parsedCheckoutDate = parseCheckoutDate(metrics, checkoutDate);
+        Quote quote = quote(tool, parsedCheckoutDate.toEpochDay(), rentalDays, discountPercent);
+
+        return toRentalAgreement(tool, rentalDays, parsedCheckoutDate, parsedCheckoutDate.plusDays(rentalDays), quote);
+    }
+
+    /**
+     * Checks out a tool like {@link #checkoutTool(String, int, int, CharSequence)}, recording the time taken by each
+     * stage. Kept apart from the untimed path so that the checkouts not sampled carry none of its code.
+     *
+     * @param metrics         The metrics to record the stages in.
+     * @param toolCode        The code of the tool to be rented.
+     * @param rentalDays      The number of days for which the tool is rented.
+     * @param discountPercent The discount percentage to be applied.
+     * @param checkoutDate    The date the tool is checked out.
+     * @return The rental agreement for the checked-out tool.
+     * @throws IllegalArgumentException if the request is invalid.
+     */
+    private static RentalAgreement timedCheckoutTool(CheckoutMetrics metrics, String toolCode, int rentalDays,
+                                                     int discountPercent, CharSequence checkoutDate) {
+        long start = System.nanoTime();
+
+        validate(metrics, rentalDays, discountPercent);
+        long mark = metrics.recordStage(CheckoutMetrics.Stage.VALIDATION, start);
+        Tool tool = lookUpTool(metrics, toolCode);
+        mark = metrics.recordStage(CheckoutMetrics.Stage.TOOL_LOOKUP, mark);
+        LocalDate parsedCheckoutDate = parseCheckoutDate(metrics, checkoutDate);
+        mark = metrics.recordStage(CheckoutMetrics.Stage.DATE_PARSE, mark);
+        Quote quote = timedQuote(metrics, mark, tool, parsedCheckoutDate.toEpochDay(), rentalDays, discountPercent);
+        mark = System.nanoTime();
+        RentalAgreement agreement = toRentalAgreement(tool, rentalDays, parsedCheckoutDate,
+                parsedCheckoutDate.plusDays(rentalDays), quote);
+        metrics.recordStage(CheckoutMetrics.Stage.AGREEMENT, mark);
+        metrics.recordTotal(start);
+
+        return agreement;
+    }
+
+    /**
+     * Checks the rental days and discount percent of a checkout.
+     *
+     * @param metrics         The metrics to count a failure in, or {@code null} when metrics are disabled.
+     * @param rentalDays      The number of days for which the tool is rented.
+     * @param discountPercent The discount percentage to be applied.
+     * @throws IllegalArgumentException if rentalDays is less than 1 or discountPercent is not between 0 and 100.
+     */
+    private static void validate(CheckoutMetrics metrics, int rentalDays, int discountPercent) {
+        if (rentalDays < 1) {
+            throw failure(metrics, CheckoutMetrics.Failure.RENTAL_DAYS, "Rental day count must be 1 or greater.");
+        }
+
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw failure(metrics, CheckoutMetrics.Failure.DISCOUNT_PERCENT,
+                    "Discount percent must be between 0 and 100.");
+        }
+    }
+
+    /**
+     * Looks up the tool of a checkout in the catalog.
+     *
+     * @param metrics  The metrics to count a failure in, or {@code null} when metrics are disabled.
+     * @param toolCode The code of the tool to be rented.
+     * @return The tool.
+     * @throws IllegalArgumentException if the tool code is missing or not in the catalog.
+     */
+    private static Tool lookUpTool(CheckoutMetrics metrics, String toolCode) {
+        ToolCatalog catalog = toolCatalog;
+        Tool tool = toolCode == null ? null : (catalog != null ? catalog : ToolCatalog.getDefault()).get(toolCode);
+
+        if (tool == null) {
+            throw failure(metrics, CheckoutMetrics.Failure.TOOL_CODE, "Invalid tool code: " + toolCode);
+        }
+
+        return tool;
+    }
+
+    /**
+     * Parses the checkout date of a checkout.
+     *
+     * @param metrics      The metrics to count a failure in, or {@code null} when metrics are disabled.
+     * @param checkoutDate The date the tool is checked out.
+     * @return The checkout date.
+     * @throws IllegalArgumentException if the checkout date is missing or not in the M/d/yy format.
+     */
+    private static LocalDate parseCheckoutDate(CheckoutMetrics metrics, CharSequence checkoutDate) {
+        LocalDate parsedCheckoutDate = checkoutDate == null ? null : CheckoutDateParser.parse(checkoutDate);
+
+        if (parsedCheckoutDate == null) {
+            throw failure(metrics, CheckoutMetrics.Failure.CHECKOUT_DATE, "Invalid checkout date: " + checkoutDate);
+        }
+
+        return parsedCheckoutDate;
+    }
+
+    /**
+     * Reprices a rental agreement for a new due date, for a rental that is extended or returned early.
+     * <p>
+     * Only the days added or removed are counted, and their charge days are added to or taken from those already in
+     * the agreement, so repricing costs the same however long the rental has run. The discount is then recomputed on
+     * the new pre-discount total, which rounds exactly as checking the tool out for the new period would. Days already
+     * in the agreement keep the charge they were priced with. A rental charged for its minimum charge days is priced
+     * again in full.
+     * <p>
+     * The agreement records the discount applied, which may be a tiered discount its rental period reached rather than
+     * the one requested at checkout, so the requested discount is passed again. The tiered discount is then chosen for
+     * the new period, and one the new period no longer reaches is dropped.
+     *
+     * @param agreement       The rental agreement to reprice.
+     * @param newDueDate      The new due date.
+     * @param discountPercent The discount percentage requested when the tool was checked out.
+     * @return The rental agreement for the new period.
+     * @throws IllegalArgumentException if the new due date is not after the checkout date, discountPercent is not
+     *                                  between 0 and 100, or an amount in the agreement has fractions of a cent.
+     */
+    public static RentalAgreement changeDueDate(RentalAgreement agreement, LocalDate newDueDate, int discountPercent) {
+        long checkoutEpochDay = agreement.checkoutDate().toEpochDay();
+        long newDueEpochDay = newDueDate.toEpochDay();
+
+        if (newDueEpochDay <= checkoutEpochDay || newDueEpochDay - checkoutEpochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Rental day count must be 1 or greater.");
+        }
+
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException("Discount percent must be between 0 and 100.");
+        }
+
+        long preDiscountCharge;
+
+        try {
+            preDiscountCharge = Cents.of(agreement.preDiscountCharge());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Cannot reprice agreement: " + e.getMessage());
+        }
+
+        Quote quote = pricingRules.reprice(holidayCalendar, agreement.tool().toolType(), checkoutEpochDay,
+                agreement.dueDate().toEpochDay(), agreement.chargeDays(), preDiscountCharge,
+                discountPercent, newDueEpochDay);
+
+        return toRentalAgreement(agreement.tool(), (int) (newDueEpochDay - checkoutEpochDay), agreement.checkoutDate(),
+                newDueDate, quote);
+    }
+
+    /**
+     * Builds a rental agreement from a quote. Amounts stay in cents until this point.
+     *
+     * @param tool         The rented tool.
+     * @param rentalDays   The number of days for which the tool is rented.
+     * @param checkoutDate The date the tool is checked out.
+     * @param dueDate      The date the tool is due back.
+     * @param quote        The price of the rental.
+     * @return The rental agreement.
+     */
+    private static RentalAgreement toRentalAgreement(Tool tool, int rentalDays, LocalDate checkoutDate,
+                                                     LocalDate dueDate, Quote quote) {
+        ToolType toolType = tool.toolType();
+        BigDecimal dailyCharge = quote.dailyCharge() == toolType.getDailyChargeCents()
+                ? toolType.getDailyCharge()
+                : Cents.toBigDecimal(quote.dailyCharge());
+
+        return new RentalAgreement(tool, rentalDays, checkoutDate, dueDate, dailyCharge, quote.chargeDays(),
+                Cents.toBigDecimal(quote.preDiscountCharge()), quote.discountPercent(),
+                Cents.toBigDecimal(quote.discountAmount()), Cents.toBigDecimal(quote.finalCharge()));
+    }
+
+    /**
+     * Enables caching of quotes, replacing any existing cache.
+     * <p>
+     * Rentals of tools of the same type, starting on the same date, for the same number of days and with the same
+     * discount share a cached quote.
+     *
+     * @param capacity The maximum number of quotes to keep.
+     * @return The new quote cache, for reading its statistics.
+     */
+    public static QuoteCache enableQuoteCache(int capacity) {
+        QuoteCache cache = new QuoteCache(capacity);
+        quoteCache = cache;
+
+        return cache;
+    }
+
+    /**
+     * Disables caching of quotes.
+     */
+    public static void disableQuoteCache() {
+        quoteCache = null;
+    }
+
+    /**
+     * Starts recording checkout metrics into new, empty metrics. Metrics are enabled by default, sampling one checkout
+     * in 1024.
+     *
+     * @param sampleInterval One checkout in how many to time; a power of two.
+     * @return The new metrics.
+     * @throws IllegalArgumentException if sampleInterval is not a positive power of two.
+     */
+    public static CheckoutMetrics enableMetrics(int sampleInterval) {
+        CheckoutMetrics metrics = new CheckoutMetrics(sampleInterval);
+        checkoutMetrics = metrics;
+
+        return metrics;
+    }
+
+    /**
+     * Stops recording checkout metrics.
+     */
+    public static void disableMetrics() {
+        checkoutMetrics = null;
+    }
+
+    /**
+     * Returns the checkout metrics being recorded.
+     *
+     * @return The metrics, or {@code null} when metrics are disabled.
+     */
+    public static CheckoutMetrics getMetrics() {
+        return checkoutMetrics;
+    }
+
+    /**
+     * Sets the calendar of holidays observed when counting chargeable days. Cached quotes priced against the previous
+     * calendar are discarded.
+     *
+     * @param calendar The holiday calendar.
+     */
+    public static void setHolidayCalendar(HolidayCalendar calendar) {
+        holidayCalendar = calendar;
+
+        QuoteCache cache = quoteCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Sets the catalog tools are looked up in. Quotes depend only on the tool type, so cached quotes are kept.
+     *
+     * @param catalog The tool catalog, or {@code null} for the default catalog.
+     */
+    public static void setToolCatalog(ToolCatalog catalog) {
+        toolCatalog = catalog;
+    }
+
+    /**
+     * Sets the rules rentals are priced by. Cached quotes priced by the previous rules are discarded.
+     *
+     * @param rules The pricing rules.
+     */
+    public static void setPricingRules(PricingRules rules) {
+        pricingRules = rules;
+
+        QuoteCache cache = quoteCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Prices a rental, using the quote cache when it is enabled.
+     *
+     * @param tool             The tool being rented.
+     * @param checkoutEpochDay The checkout date, as an epoch day.
+     * @param rentalDays       The number of days for which the tool is rented.
+     * @param discountPercent  The discount percentage to be applied.
+     * @return The quote for the rental.
+     */
+    private static Quote quote(Tool tool, long checkoutEpochDay, int rentalDays, int discountPercent) {
+        HolidayCalendar calendar = holidayCalendar;
+        PricingRules rules = pricingRules;
+        QuoteCache cache = quoteCache;
+
+        if (cache == null) {
+            return rules.price(calendar, tool.toolType(), checkoutEpochDay, rentalDays, discountPercent);
+        }
+
+        // The calendar and rules are part of the key so a quote priced by replaced ones is never returned.
+        return cache.get(new QuoteCache.Key(calendar, rules, tool.toolType(), checkoutEpochDay, rentalDays,
+                        discountPercent),
+                key -> rules.price(calendar, tool.toolType(), checkoutEpochDay, rentalDays, discountPercent));
+    }
+
+    /**
+     * Creates a planner pricing rentals within a horizon with the current holiday calendar and pricing rules. Later
+     * changes to the calendar or rules do not affect the planner.
+     *
+     * @param firstDay The first day of the horizon.
+     * @param lastDay  The last day of the horizon.
+     * @return The planner.
+     * @throws IllegalArgumentException if lastDay is before firstDay or the horizon is longer than about 100 years.
+     */
+    public static RentalPlanner newRentalPlanner(LocalDate firstDay, LocalDate lastDay) {
+        return new RentalPlanner(holidayCalendar, pricingRules, firstDay, lastDay);
+    }
+
+    /**
+     * Prices a rental like {@link #quote}, recording the time taken by each pricing stage.
+     *
+     * @param metrics          The metrics to record the stages in.
+     * @param since            When pricing started, from {@link System#nanoTime()}.
+     * @param tool             The tool being rented.
+     * @param checkoutEpochDay The checkout date, as an epoch day.
+     * @param rentalDays       The number of days for which the tool is rented.
+     * @param discountPercent  The discount percentage to be applied.
+     * @return The quote for the rental.
+     */
+    private static Quote timedQuote(CheckoutMetrics metrics, long since, Tool tool, long checkoutEpochDay,
+                                    int rentalDays, int discountPercent) {
+        if (quoteCache != null) {
+            Quote quote = quote(tool, checkoutEpochDay, rentalDays, discountPercent);
+            metrics.recordStage(CheckoutMetrics.Stage.QUOTE_CACHE, since);
+
+            return quote;
+        }
+
+        PricingRules rules = pricingRules;
+        PricingRules.Charge charge = rules.chargeRental(holidayCalendar, tool.toolType(), checkoutEpochDay, rentalDays);
+        long mark = metrics.recordStage(CheckoutMetrics.Stage.CHARGE_DAYS, since);
+        Quote quote = rules.quote(tool.toolType(), checkoutEpochDay, rentalDays, charge, discountPercent);
+        metrics.recordStage(CheckoutMetrics.Stage.MONEY_MATH, mark);
+
+        return quote;
+    }
+
+    /**
+     * Counts a validation failure and creates the exception to throw for it.
+     *
+     * @param metrics The metrics to count the failure in, or {@code null} when metrics are disabled.
+     * @param failure The reason the checkout failed.
+     * @param message The exception message.
+     * @return The exception to throw.
+     */
+    private static IllegalArgumentException failure(CheckoutMetrics metrics, CheckoutMetrics.Failure failure,
+                                                    String message) {
+        if (metrics != null) {
+            metrics.recordFailure(failure);
+        }
+
+        return new IllegalArgumentException(message);
+    }
+
+    /**
+     * Checks out a batch of tools, pricing the requests in parallel across the available cores.
+     * <p>
+     * A request that fails validation does not fail the batch; its result carries the error instead.
+     *
+     * @param requests The checkout requests.
+     * @return The result of each request, in the same order as the requests.
+     */
+    public static List<CheckoutResult> checkoutTools(List<CheckoutRequest> requests) {
+        return checkoutTools(requests.stream());
+    }
+
+    /**
+     * Checks out a stream of tools, pricing the requests in parallel across the available cores.
+     * <p>
+     * A request that fails validation does not fail the batch; its result carries the error instead.
+     *
+     * @param requests The checkout requests.
+     * @return The result of each request, in the encounter order of the stream.
+     */
+    public static List<CheckoutResult> checkoutTools(Stream<CheckoutRequest> requests) {
+        return requests.parallel().map(Checkout::tryCheckoutTool).toList();
+    }
+
+    /**
+     * Checks out a tool, capturing a validation failure in the result instead of throwing it.
+     *
+     * @param request The checkout request.
+     * @return The result of the checkout.
+     */
+    private static CheckoutResult tryCheckoutTool(CheckoutRequest request) {
+        if (request == null) {
+            return new CheckoutResult(null, new IllegalArgumentException("Checkout request is missing."));
+        }
+
+        try {
+            return new CheckoutResult(checkoutTool(request.toolCode(), request.rentalDays(),
+                    request.discountPercent(), request.checkoutDate()), null);
+        } catch (IllegalArgumentException e) {
+            return new CheckoutResult(null, e);
+        }
+    }
+
+    /**
+     * Calculates the number of chargeable days for a tool rental.
+     * <p>
+     * The days from the day after {@code startDate} through {@code endDate} are counted arithmetically: weekend days
+     * come from whole weeks plus the remainder, and the holidays falling in the range come from the holiday calendar.
+     * The cost therefore does not grow with the length of the rental.
+     *
+     * @param startDate The start date of the rental.
+     * @param endDate   The end date of the rental.
+     * @param tool      The tool being rented.
+     * @return The number of chargeable days.
+     */
+    static int calculateChargeableDays(LocalDate startDate, LocalDate endDate, Tool tool) {
+        // Start from the day after the checkout date
+        return pricingRules.countChargeDays(holidayCalendar, tool.toolType(), startDate.toEpochDay() + 1,
+                endDate.toEpochDay());
+    }
+
+    /**
+     * Calculates the pre-discount charge for the rental.
+     *
+     * @param chargeDays The number of chargeable days.
+     * @param tool       The rented tool.
+     * @return The pre-discount charge amount, in cents.
+     */
+    static long calculatePreDiscountCharge(int chargeDays, Tool tool) {
+        return Cents.multiply(tool.toolType().getDailyChargeCents(), chargeDays);
+    }
+
+    /**
+     * Calculates the discount amount based on the pre-discount charge and discount percentage, rounding half a cent
+     * up.
+     *
+     * @param preDiscountCharge The pre-discount charge amount, in cents.
+     * @param discountPercent   The discount percentage.
+     * @return The discount amount, in cents.
+     */
+    static long calculateDiscountAmount(long preDiscountCharge, int discountPercent) {
+        return Cents.percentOf(preDiscountCharge, discountPercent);
+    }
+
+    /**
+     * Calculates the final charge after applying the discount.
+     *
+     * @param preDiscountCharge The pre-discount charge amount, in cents.
+     * @param discountAmount    The discount amount, in cents.
+     * @return The final charge amount, in cents.
+     */
+    static long calculateFinalCharge(long preDiscountCharge, long discountAmount) {
+        return preDiscountCharge - discountAmount;
+    }
+}
@@ -0,0 +1,114 @@
+package toolrental;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A command-line checkout that prints one rental agreement, tuned to start quickly.
+ * <p>
+ * Given a snapshot written by {@code --write-snapshot}, the tool catalog and holidays are read from it instead of being
+ * parsed and computed, and the process does no other work before calling {@link Checkout#checkoutTool}. Run with a
+ * class-data-sharing archive (see {@code scripts/checkout-cds.sh}) the JVM also skips loading and verifying the
+ * classes involved, which brings the time to the first agreement down to a few tens of milliseconds.
+ * <pre>
+ * CheckoutCli [--snapshot FILE] TOOL_CODE RENTAL_DAYS DISCOUNT_PERCENT CHECKOUT_DATE
+ * CheckoutCli --write-snapshot FILE [FIRST_YEAR LAST_YEAR]
+ * </pre>
+ */
+public final class CheckoutCli {
+    private static final String USAGE = """
+            Usage: toolrental.CheckoutCli [--snapshot FILE] TOOL_CODE RENTAL_DAYS DISCOUNT_PERCENT CHECKOUT_DATE
+                   toolrental.CheckoutCli --write-snapshot FILE [FIRST_YEAR LAST_YEAR]""";
+
+    private CheckoutCli() {
+    }
+
+    /**
+     * Checks out a tool and prints the rental agreement, or writes a snapshot of the default catalog and standard
+     * holidays. Exits with status 1 if the checkout is invalid and 2 if the arguments are.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if the snapshot cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--write-snapshot")) {
+            writeSnapshot(args);
+            return;
+        }
+
+        int first = 0;
+
+        if (args.length > 0 && args[0].equals("--snapshot")) {
+            if (args.length < 2) {
+                usage();
+            }
+
+            CheckoutSnapshot.read(Path.of(args[1])).install();
+            first = 2;
+        }
+
+        if (args.length - first != 4) {
+            usage();
+        }
+
+        int rentalDays = parseInt(args[first + 1]);
+        int discountPercent = parseInt(args[first + 2]);
+        RentalAgreement agreement;
+
+        try {
+            agreement = Checkout.checkoutTool(args[first], rentalDays, discountPercent, args[first + 3]);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        agreement.printRentalAgreement();
+    }
+
+    /**
+     * Writes a snapshot of the default catalog and the standard holidays.
+     *
+     * @param args the command-line arguments, starting with {@code --write-snapshot}
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void writeSnapshot(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 4) {
+            usage();
+        }
+
+        int firstYear = args.length == 4 ? parseInt(args[2]) : CheckoutSnapshot.DEFAULT_FIRST_YEAR;
+        int lastYear = args.length == 4 ? parseInt(args[3]) : CheckoutSnapshot.DEFAULT_LAST_YEAR;
+
+        try {
+            CheckoutSnapshot.write(Path.of(args[1]), ToolCatalog.getDefault(), HolidayCalendar.standard(), firstYear,
+                    lastYear);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Parses a numeric argument, exiting with the usage message if it is not a number.
+     *
+     * @param arg the argument
+     * @return the number
+     */
+    private static int parseInt(String arg) {
+        try {
+            return Integer.parseInt(arg);
+        } catch (NumberFormatException e) {
+            usage();
+            return 0;
+        }
+    }
+
+    /**
+     * Prints the usage message and exits with status 2.
+     */
+    private static void usage() {
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,100 @@
+package toolrental;
+
+import java.time.LocalDate;
+
+/**
+ * A hand-written parser for checkout dates in the {@code M/d/yy} format.
+ * <p>
+ * The parser accepts exactly the inputs that {@code LocalDate.parse(text, DateTimeFormatter.ofPattern("M/d/yy"))}
+ * accepts and resolves them the same way: the month and day take one or more digits (up to 19, so leading zeros are
+ * allowed), the year takes exactly two digits in the range 2000 to 2099, and a day past the end of the month but no
+ * greater than 31 is clamped to the last day of the month. Malformed input is reported by a sentinel value rather
+ * than an exception.
+ */
+final class CheckoutDateParser {
+    /**
+     * Returned by {@link #parseEpochDay} when the text is not a valid checkout date.
+     */
+    static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * The most digits the formatter reads for the month or day.
+     */
+    private static final int MAX_FIELD_DIGITS = 19;
+
+    /**
+     * A field value standing in for any number too large to be a month or day.
+     */
+    private static final int OUT_OF_RANGE = 100;
+
+    private CheckoutDateParser() {
+    }
+
+    /**
+     * Parses a checkout date into a LocalDate.
+     *
+     * @param text The text to parse.
+     * @return The parsed date, or {@code null} if the text is not a valid checkout date.
+     */
+    static LocalDate parse(CharSequence text) {
+        long epochDay = parseEpochDay(text);
+
+        return epochDay == INVALID ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Parses a checkout date into an epoch day.
+     *
+     * @param text The text to parse.
+     * @return The epoch day of the parsed date, or {@link #INVALID} if the text is not a valid checkout date.
+     */
+    static long parseEpochDay(CharSequence text) {
+        int length = text.length();
+        int position = 0;
+
+        // Month: digits up to the first slash.
+        int month = 0;
+        int digits = 0;
+        for (char c; position < length && (c = text.charAt(position)) != '/'; position++, digits++) {
+            if (c < '0' || c > '9' || digits == MAX_FIELD_DIGITS) {
+                return INVALID;
+            }
+            month = Math.min(month * 10 + (c - '0'), OUT_OF_RANGE);
+        }
+
+        if (digits == 0 || position == length || month < 1 || month > 12) {
+            return INVALID;
+        }
+        position++;
+
+        // Day of month: digits up to the second slash.
+        int day = 0;
+        digits = 0;
+        for (char c; position < length && (c = text.charAt(position)) != '/'; position++, digits++) {
+            if (c < '0' || c > '9' || digits == MAX_FIELD_DIGITS) {
+                return INVALID;
+            }
+            day = Math.min(day * 10 + (c - '0'), OUT_OF_RANGE);
+        }
+
+        if (digits == 0 || position == length || day < 1 || day > 31) {
+            return INVALID;
+        }
+        position++;
+
+        // Year: exactly two digits, in the century starting 2000.
+        if (length - position != 2) {
+            return INVALID;
+        }
+
+        char tens = text.charAt(position);
+        char ones = text.charAt(position + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return INVALID;
+        }
+
+        int year = 2000 + (tens - '0') * 10 + (ones - '0');
+
+        return EpochDays.of(year, month, Math.min(day, EpochDays.lengthOfMonth(year, month)));
+    }
+}
@@ -0,0 +1,851 @@
+package toolrental;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A streaming bulk import of checkout lines from a file.
+ * <p>
+ * The file holds one checkout per line in the form {@code toolCode,rentalDays,discountPercent,checkoutDate}, with the
+ * date in the {@code M/d/yy} format. Spaces around fields, a trailing carriage return, blank lines and lines starting
+ * with {@code #} are ignored.
+ * <p>
+ * The calling thread reads the file through a {@link FileChannel} straight into a fixed pool of batch buffers and
+ * splits them at line boundaries; worker threads parse the lines in place, without splitting them into strings, check
+ * them out, and hand the results to a {@link Sink}. Memory use depends on the buffer size and worker count, not on the
+ * size of the file. A line longer than a buffer is rejected.
+ */
+public final class CheckoutImport {
+    /**
+     * The size of each batch buffer, and so the longest line accepted.
+     */
+    static final int BATCH_SIZE = 64 * 1024;
+
+    /**
+     * The most tool codes each worker keeps decoded.
+     */
+    private static final int MAX_CACHED_TOOL_CODES = 1024;
+
+    /**
+     * The rejection message for a line without exactly four fields.
+     */
+    private static final String FIELDS_MESSAGE = "Expected 4 fields: toolCode,rentalDays,discountPercent,checkoutDate";
+
+    /**
+     * Receives the outcome of each checkout line.
+     * <p>
+     * The sink is called from the worker threads, but never by two at once. The lines of a batch arrive in file order;
+     * batches may arrive out of order.
+     */
+    public interface Sink {
+        /**
+         * Receives the agreement for a line that was checked out.
+         *
+         * @param lineNumber the line number, from 1
+         * @param agreement  the rental agreement
+         * @throws IOException if the agreement cannot be written
+         */
+        void accepted(long lineNumber, RentalAgreement agreement) throws IOException;
+
+        /**
+         * Receives the reason a line was rejected.
+         *
+         * @param lineNumber the line number, from 1
+         * @param message    why the line was rejected
+         * @throws IOException if the rejection cannot be written
+         */
+        void rejected(long lineNumber, String message) throws IOException;
+    }
+
+    /**
+     * The totals of an import.
+     *
+     * @param accepted     the number of lines checked out
+     * @param rejected     the number of lines rejected
+     * @param elapsedNanos how long the import took, in nanoseconds
+     */
+    public record Report(long accepted, long rejected, long elapsedNanos) {
+        /**
+         * Returns the number of checkout lines read, accepted or rejected.
+         *
+         * @return the record count
+         */
+        public long records() {
+            return accepted + rejected;
+        }
+
+        /**
+         * Returns the import throughput.
+         *
+         * @return the records read per second
+         */
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : records() * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * Marks the end of the batches, one per worker.
+     */
+    private static final Batch END = new Batch(0);
+
+    private final int workers;
+    private final BlockingQueue<Batch> free;
+    private final BlockingQueue<Batch> full;
+    private final Sink sink;
+    private final Object sinkLock = new Object();
+    private volatile Throwable failure;
+
+    /**
+     * Constructs a CheckoutImport with two batch buffers per worker.
+     *
+     * @param workers the number of worker threads
+     * @param sink    where to send the results
+     */
+    private CheckoutImport(int workers, Sink sink) {
+        this.workers = workers;
+        this.free = new ArrayBlockingQueue<>(2 * workers);
+        this.full = new ArrayBlockingQueue<>(2 * workers + workers);
+        this.sink = sink;
+
+        for (int i = 0; i < 2 * workers; i++) {
+            free.add(new Batch(BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Imports a file of checkout lines using one worker per available processor.
+     *
+     * @param file the file to import
+     * @param sink where to send the results
+     * @return the totals of the import
+     * @throws IOException if the file cannot be read or the sink fails
+     */
+    public static Report importFile(Path file, Sink sink) throws IOException {
+        return importFile(file, sink, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Imports a file of checkout lines.
+     *
+     * @param file    the file to import
+     * @param sink    where to send the results
+     * @param workers the number of worker threads
+     * @return the totals of the import
+     * @throws IOException              if the file cannot be read or the sink fails
+     * @throws IllegalArgumentException if workers is less than 1
+     */
+    public static Report importFile(Path file, Sink sink, int workers) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be 1 or greater.");
+        }
+
+        return new CheckoutImport(workers, sink).run(file);
+    }
+
+    /**
+     * Returns a sink writing one JSON object per line: {@code {"line":1,"agreement":{...}}} for an accepted line and
+     * {@code {"line":2,"error":"..."}} for a rejected one.
+     *
+     * @param out where to write the results
+     * @return the sink
+     */
+    public static Sink jsonLines(Appendable out) {
+        return new Sink() {
+            @Override
+            public void accepted(long lineNumber, RentalAgreement agreement) throws IOException {
+                out.append("{\"line\":").append(Long.toString(lineNumber)).append(",\"agreement\":");
+                AgreementJson.write(agreement, out);
+                out.append("}\n");
+            }
+
+            @Override
+            public void rejected(long lineNumber, String message) throws IOException {
+                out.append("{\"line\":").append(Long.toString(lineNumber)).append(",\"error\":");
+                AgreementJson.writeString(message, out);
+                out.append("}\n");
+            }
+        };
+    }
+
+    /**
+     * Imports a file of checkout lines, writing the results as JSON lines and the totals to standard error.
+     *
+     * @param args the file to import, and the file to write the results to (default standard output)
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CheckoutImport <input> [output]");
+            System.exit(2);
+        }
+
+        Writer out = args.length > 1
+                ? Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        Report report;
+
+        try (out) {
+            report = importFile(Path.of(args[0]), jsonLines(out));
+        }
+
+        System.err.printf("Imported %d records (%d rejected) in %.3f s, %.0f records/s%n", report.records(),
+                report.rejected(), report.elapsedNanos() / 1e9, report.recordsPerSecond());
+    }
+
+    /**
+     * Reads the file into batches on the calling thread while the workers check them out.
+     *
+     * @param file the file to import
+     * @return the totals of the import
+     * @throws IOException if the file cannot be read or the sink fails
+     */
+    private Report run(Path file) throws IOException {
+        long start = System.nanoTime();
+        Worker[] running = new Worker[workers];
+
+        for (int i = 0; i < workers; i++) {
+            running[i] = new Worker();
+            running[i].setDaemon(true);
+            running[i].start();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel);
+        } catch (IOException | RuntimeException | Error e) {
+            fail(e);
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                putUninterruptibly(full, END);
+            }
+        }
+
+        long accepted = 0;
+        long rejected = 0;
+
+        for (Worker worker : running) {
+            joinUninterruptibly(worker);
+            accepted += worker.accepted;
+            rejected += worker.rejected;
+        }
+
+        Throwable cause = failure;
+
+        if (cause instanceof IOException e) {
+            throw e;
+        } else if (cause instanceof RuntimeException e) {
+            throw e;
+        } else if (cause instanceof Error e) {
+            throw e;
+        }
+
+        return new Report(accepted, rejected, System.nanoTime() - start);
+    }
+
+    /**
+     * Reads the file into batches and queues them for the workers. A line cut off at the end of a batch is carried
+     * over to the start of the next.
+     *
+     * @param channel the file
+     * @throws IOException if the file cannot be read or the reader is interrupted
+     */
+    private void read(FileChannel channel) throws IOException {
+        ByteBuffer lookahead = ByteBuffer.allocate(1);
+        long lineNumber = 1;
+        boolean skipping = false;
+        Batch batch = take(free);
+        int filled = 0;
+
+        while (failure == null) {
+            ByteBuffer buffer = batch.buffer.limit(BATCH_SIZE).position(filled);
+            boolean eof = false;
+
+            while (buffer.hasRemaining() && !(eof = channel.read(buffer) < 0)) {
+                // Fill the batch before splitting it.
+            }
+
+            filled = buffer.position();
+            byte[] data = batch.data;
+            int position = 0;
+
+            if (skipping) {
+                // The rest of an overlong line already rejected.
+                int newline = indexOf(data, position, filled);
+
+                if (newline < 0 && !eof) {
+                    filled = 0;
+                    continue;
+                }
+
+                position = newline < 0 ? filled : newline + 1;
+                skipping = false;
+            }
+
+            for (int newline; (newline = indexOf(data, position, filled)) >= 0; position = newline + 1) {
+                batch.addLine(position, newline);
+            }
+
+            int carried = filled - position;
+
+            if (carried == BATCH_SIZE && !eof) {
+                // The line fills the whole buffer, so it fits only if it ends right after it.
+                int next = readByte(channel, lookahead);
+
+                if (next == '\r') {
+                    // The carriage return of a CRLF ending, which the line may leave out like any trailing one.
+                    next = readByte(channel, lookahead);
+                }
+
+                if (next < 0) {
+                    eof = true;
+                } else {
+                    if (next == '\n') {
+                        batch.addLine(0, BATCH_SIZE);
+                    } else {
+                        batch.overlongLine = batch.lineCount;
+                        batch.addLine(0, 0);
+                        skipping = true;
+                    }
+                    carried = 0;
+                }
+            }
+
+            if (eof) {
+                if (carried > 0) {
+                    batch.addLine(position, filled);
+                }
+                carried = 0;
+            }
+
+            batch.firstLineNumber = lineNumber;
+            lineNumber += batch.lineCount;
+
+            if (eof) {
+                dispatch(batch);
+                return;
+            }
+
+            Batch next = take(free);
+            System.arraycopy(data, position, next.data, 0, carried);
+            filled = carried;
+            dispatch(batch);
+            batch = next;
+        }
+    }
+
+    /**
+     * Reads the next byte of the file.
+     *
+     * @param channel   the file
+     * @param lookahead a buffer of one byte to read into
+     * @return the byte, or -1 at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static int readByte(FileChannel channel, ByteBuffer lookahead) throws IOException {
+        lookahead.clear();
+
+        while (lookahead.hasRemaining()) {
+            if (channel.read(lookahead) < 0) {
+                return -1;
+            }
+        }
+
+        return lookahead.get(0);
+    }
+
+    /**
+     * Queues a batch for the workers, or returns it to the pool if it holds no lines.
+     *
+     * @param batch the batch
+     * @throws IOException if the reader is interrupted
+     */
+    private void dispatch(Batch batch) throws IOException {
+        if (batch.lineCount == 0) {
+            batch.clear();
+            free.add(batch);
+        } else {
+            try {
+                full.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Import interrupted.");
+            }
+        }
+    }
+
+    /**
+     * Takes a batch from a queue.
+     *
+     * @param queue the queue
+     * @return the batch
+     * @throws IOException if the reader is interrupted
+     */
+    private static Batch take(BlockingQueue<Batch> queue) throws IOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted.");
+        }
+    }
+
+    /**
+     * Records the first failure of the import, which stops the reader and makes the workers discard what is left.
+     *
+     * @param cause the failure
+     */
+    private synchronized void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    /**
+     * Returns the position of the next newline in a range of bytes.
+     *
+     * @param data  the bytes
+     * @param from  the start of the range
+     * @param to    the end of the range, exclusive
+     * @return the position of the newline, or -1 if there is none
+     */
+    private static int indexOf(byte[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * A worker checking out the lines of queued batches.
+     */
+    private final class Worker extends Thread {
+        private final Map<Long, String> toolCodes = new HashMap<>();
+        private final AsciiSequence checkoutDate = new AsciiSequence();
+        private final int[] fields = new int[8];
+        private RentalAgreement[] agreements = new RentalAgreement[256];
+        private String[] errors = new String[256];
+        private long accepted;
+        private long rejected;
+
+        Worker() {
+            super("checkout-import");
+        }
+
+        @Override
+        public void run() {
+            Batch batch;
+
+            while ((batch = takeUninterruptibly(full)) != END) {
+                try {
+                    if (failure == null) {
+                        process(batch);
+                    }
+                } catch (IOException | RuntimeException | Error e) {
+                    fail(e);
+                } finally {
+                    batch.clear();
+                    free.add(batch);
+                }
+            }
+        }
+
+        /**
+         * Checks out the lines of a batch and sends the results to the sink.
+         *
+         * @param batch the batch
+         * @throws IOException if the sink fails
+         */
+        private void process(Batch batch) throws IOException {
+            int count = batch.lineCount;
+
+            if (count > agreements.length) {
+                agreements = new RentalAgreement[batch.lineStarts.length];
+                errors = new String[batch.lineStarts.length];
+            }
+
+            for (int i = 0; i < count; i++) {
+                agreements[i] = null;
+                errors[i] = null;
+
+                if (i == batch.overlongLine) {
+                    errors[i] = "Line exceeds " + BATCH_SIZE + " bytes.";
+                    continue;
+                }
+
+                try {
+                    agreements[i] = checkout(batch.data, batch.lineStarts[i], batch.lineEnds[i]);
+                } catch (IllegalArgumentException e) {
+                    errors[i] = e.getMessage();
+                }
+            }
+
+            synchronized (sinkLock) {
+                for (int i = 0; i < count; i++) {
+                    long lineNumber = batch.firstLineNumber + i;
+
+                    if (agreements[i] != null) {
+                        sink.accepted(lineNumber, agreements[i]);
+                        agreements[i] = null;
+                        accepted++;
+                    } else if (errors[i] != null) {
+                        sink.rejected(lineNumber, errors[i]);
+                        errors[i] = null;
+                        rejected++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Parses and checks out one line.
+         *
+         * @param data  the batch bytes
+         * @param start the start of the line
+         * @param end   the end of the line, exclusive of the newline
+         * @return the agreement, or {@code null} if the line is blank or a comment
+         * @throws IllegalArgumentException if the line is malformed or the checkout is invalid
+         */
+        private RentalAgreement checkout(byte[] data, int start, int end) {
+            if (end > start && data[end - 1] == '\r') {
+                end--;
+            }
+
+            start = skipSpaces(data, start, end);
+
+            if (start == end || data[start] == '#') {
+                return null;
+            }
+
+            int count = 0;
+
+            for (int position = start, fieldStart = start; ; position++) {
+                if (position == end || data[position] == ',') {
+                    if (count == 4) {
+                        throw new IllegalArgumentException(FIELDS_MESSAGE);
+                    }
+
+                    fields[2 * count] = skipSpaces(data, fieldStart, position);
+                    fields[2 * count + 1] = trimSpaces(data, fields[2 * count], position);
+                    count++;
+
+                    if (position == end) {
+                        break;
+                    }
+                    fieldStart = position + 1;
+                }
+            }
+
+            if (count != 4) {
+                throw new IllegalArgumentException(FIELDS_MESSAGE);
+            }
+
+            String toolCode = toolCode(data, fields[0], fields[1]);
+            int rentalDays = parseInt(data, fields[2], fields[3], "rentalDays");
+            int discountPercent = parseInt(data, fields[4], fields[5], "discountPercent");
+
+            return Checkout.checkoutTool(toolCode, rentalDays, discountPercent,
+                    checkoutDate.reset(data, fields[6], fields[7]));
+        }
+
+        /**
+         * Decodes a tool code, reusing the string decoded for the same bytes before.
+         *
+         * @param data  the batch bytes
+         * @param start the start of the field
+         * @param end   the end of the field
+         * @return the tool code
+         */
+        private String toolCode(byte[] data, int start, int end) {
+            if (end - start > Long.BYTES) {
+                return new String(data, start, end - start, StandardCharsets.UTF_8);
+            }
+
+            long key = 0;
+
+            for (int i = start; i < end; i++) {
+                if (data[i] <= 0) {
+                    // Not ASCII, or a NUL that would make keys ambiguous.
+                    return new String(data, start, end - start, StandardCharsets.UTF_8);
+                }
+                key = key << 8 | data[i];
+            }
+
+            String toolCode = toolCodes.get(key);
+
+            if (toolCode == null) {
+                toolCode = new String(data, start, end - start, StandardCharsets.US_ASCII);
+
+                if (toolCodes.size() < MAX_CACHED_TOOL_CODES) {
+                    toolCodes.put(key, toolCode);
+                }
+            }
+
+            return toolCode;
+        }
+    }
+
+    /**
+     * Parses a decimal integer field.
+     *
+     * @param data  the batch bytes
+     * @param start the start of the field
+     * @param end   the end of the field
+     * @param name  the field name, for the error message
+     * @return the value
+     * @throws IllegalArgumentException if the field is not an integer
+     */
+    private static int parseInt(byte[] data, int start, int end, String name) {
+        int position = start;
+        boolean negative = position < end && data[position] == '-';
+
+        if (negative) {
+            position++;
+        }
+
+        if (position == end) {
+            throw invalidField(data, start, end, name);
+        }
+
+        long value = 0;
+
+        for (; position < end; position++) {
+            int digit = data[position] - '0';
+
+            if (digit < 0 || digit > 9 || (value = value * 10 + digit) > Integer.MAX_VALUE + 1L) {
+                throw invalidField(data, start, end, name);
+            }
+        }
+
+        if (negative) {
+            value = -value;
+        }
+
+        if (value > Integer.MAX_VALUE) {
+            throw invalidField(data, start, end, name);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Creates the exception for a malformed integer field.
+     *
+     * @param data  the batch bytes
+     * @param start the start of the field
+     * @param end   the end of the field
+     * @param name  the field name
+     * @return the exception
+     */
+    private static IllegalArgumentException invalidField(byte[] data, int start, int end, String name) {
+        return new IllegalArgumentException("Invalid " + name + ": "
+                + new String(data, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the position of the first byte in a range that is not a space or tab.
+     *
+     * @param data  the bytes
+     * @param start the start of the range
+     * @param end   the end of the range
+     * @return the position, or {@code end} if the range is all spaces
+     */
+    private static int skipSpaces(byte[] data, int start, int end) {
+        while (start < end && (data[start] == ' ' || data[start] == '\t')) {
+            start++;
+        }
+
+        return start;
+    }
+
+    /**
+     * Returns the end of a range without its trailing spaces and tabs.
+     *
+     * @param data  the bytes
+     * @param start the start of the range
+     * @param end   the end of the range
+     * @return the trimmed end
+     */
+    private static int trimSpaces(byte[] data, int start, int end) {
+        while (end > start && (data[end - 1] == ' ' || data[end - 1] == '\t')) {
+            end--;
+        }
+
+        return end;
+    }
+
+    /**
+     * Takes a batch from a queue, ignoring interrupts until it arrives.
+     *
+     * @param queue the queue
+     * @return the batch
+     */
+    private static Batch takeUninterruptibly(BlockingQueue<Batch> queue) {
+        boolean interrupted = false;
+
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Puts a batch on a queue, ignoring interrupts until there is room.
+     *
+     * @param queue the queue
+     * @param batch the batch
+     */
+    private static void putUninterruptibly(BlockingQueue<Batch> queue, Batch batch) {
+        boolean interrupted = false;
+
+        try {
+            while (true) {
+                try {
+                    queue.put(batch);
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits for a thread to finish, ignoring interrupts until it does.
+     *
+     * @param thread the thread
+     */
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A buffer of whole lines read from the file.
+     */
+    private static final class Batch {
+        final byte[] data;
+        final ByteBuffer buffer;
+        int[] lineStarts = new int[256];
+        int[] lineEnds = new int[256];
+        int lineCount;
+        long firstLineNumber;
+        int overlongLine = -1;
+
+        Batch(int size) {
+            data = new byte[size];
+            buffer = ByteBuffer.wrap(data);
+        }
+
+        /**
+         * Adds a line.
+         *
+         * @param start the start of the line
+         * @param end   the end of the line, exclusive of the newline
+         */
+        void addLine(int start, int end) {
+            if (lineCount == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, 2 * lineCount);
+                lineEnds = Arrays.copyOf(lineEnds, 2 * lineCount);
+            }
+
+            lineStarts[lineCount] = start;
+            lineEnds[lineCount] = end;
+            lineCount++;
+        }
+
+        /**
+         * Empties the batch for reuse.
+         */
+        void clear() {
+            lineCount = 0;
+            overlongLine = -1;
+        }
+    }
+
+    /**
+     * A reusable view of a range of ASCII bytes as characters.
+     */
+    private static final class AsciiSequence implements CharSequence {
+        private byte[] data;
+        private int start;
+        private int length;
+
+        /**
+         * Points the view at a range of bytes.
+         *
+         * @param data  the bytes
+         * @param start the start of the range
+         * @param end   the end of the range
+         * @return this view
+         */
+        AsciiSequence reset(byte[] data, int start, int end) {
+            this.data = data;
+            this.start = start;
+            this.length = end - start;
+
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            // Bytes above 0x7F become characters no date accepts.
+            return (char) (data[start + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, start, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package toolrental;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Counters and latency histograms for {@link Checkout#checkoutTool}.
+ * <p>
+ * Checkouts are sampled: one in every {@link #getSampleInterval() sample interval}, chosen at random, reads the clock
+ * around each stage and records the stage latencies and the total into {@link LatencyHistogram}s. Reading the clock
+ * costs about as much as some of the stages it measures, and even an uncontended atomic increment costs a tenth of a
+ * checkout, so a checkout that is not sampled pays for nothing but the random draw. The checkout count is therefore
+ * estimated: each sampled checkout counts for a whole sample interval, which is exact on average and exact outright
+ * with an interval of 1. Validation failures take the slow path anyway, and are counted exactly by type.
+ * <p>
+ * The metrics can be read directly, through JMX once {@link #registerMBean() registered}, or as text in the Prometheus
+ * exposition format with {@link #writeText}.
+ */
+public final class CheckoutMetrics implements CheckoutMetricsMXBean {
+    /**
+     * The name the metrics are registered under in JMX.
+     */
+    public static final String OBJECT_NAME = "Checkout:type=CheckoutMetrics";
+
+    /**
+     * The stages of a checkout.
+     */
+    public enum Stage {
+        /**
+         * Checking the rental days and discount percent.
+         */
+        VALIDATION,
+        /**
+         * Looking up the tool in the catalog.
+         */
+        TOOL_LOOKUP,
+        /**
+         * Parsing the checkout date.
+         */
+        DATE_PARSE,
+        /**
+         * Counting the chargeable days, when the quote cache is disabled.
+         */
+        CHARGE_DAYS,
+        /**
+         * Working out the charges and discount in cents, when the quote cache is disabled.
+         */
+        MONEY_MATH,
+        /**
+         * Looking up the quote in the cache, including pricing it on a miss, when the quote cache is enabled.
+         */
+        QUOTE_CACHE,
+        /**
+         * Building the rental agreement.
+         */
+        AGREEMENT
+    }
+
+    /**
+     * The reasons a checkout fails validation.
+     */
+    public enum Failure {
+        /**
+         * The rental day count was less than 1.
+         */
+        RENTAL_DAYS,
+        /**
+         * The discount percent was not between 0 and 100.
+         */
+        DISCOUNT_PERCENT,
+        /**
+         * The tool code was not in the catalog.
+         */
+        TOOL_CODE,
+        /**
+         * The checkout date was not a valid M/d/yy date.
+         */
+        CHECKOUT_DATE
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final Failure[] FAILURES = Failure.values();
+
+    private final int sampleInterval;
+    private final int sampleMask;
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder[] failures = new LongAdder[FAILURES.length];
+    private final LatencyHistogram[] stageLatencies = new LatencyHistogram[STAGES.length];
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+    /**
+     * Constructs CheckoutMetrics timing one checkout in every {@code sampleInterval}.
+     *
+     * @param sampleInterval one checkout in how many to time; a power of two
+     * @throws IllegalArgumentException if sampleInterval is not a positive power of two
+     */
+    CheckoutMetrics(int sampleInterval) {
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("Sample interval must be a positive power of two.");
+        }
+
+        this.sampleInterval = sampleInterval;
+        this.sampleMask = sampleInterval - 1;
+
+        for (int i = 0; i < failures.length; i++) {
+            failures[i] = new LongAdder();
+        }
+
+        for (int i = 0; i < stageLatencies.length; i++) {
+            stageLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Decides whether to time a checkout, counting it for a whole sample interval if so.
+     *
+     * @return {@code true} if the checkout should be timed
+     */
+    boolean startCheckout() {
+        if ((ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return false;
+        }
+
+        checkouts.add(sampleInterval);
+        return true;
+    }
+
+    /**
+     * Records the latency of a stage that ran from a point in time until now.
+     *
+     * @param stage the stage
+     * @param since when the stage started, from {@link System#nanoTime()}
+     * @return now, from {@link System#nanoTime()}, for timing the next stage
+     */
+    long recordStage(Stage stage, long since) {
+        long now = System.nanoTime();
+        stageLatencies[stage.ordinal()].record(now - since);
+
+        return now;
+    }
+
+    /**
+     * Records the latency of a whole checkout that ran from a point in time until now.
+     *
+     * @param since when the checkout started, from {@link System#nanoTime()}
+     */
+    void recordTotal(long since) {
+        totalLatency.record(System.nanoTime() - since);
+    }
+
+    /**
+     * Counts a validation failure.
+     *
+     * @param failure the reason the checkout failed
+     */
+    void recordFailure(Failure failure) {
+        failures[failure.ordinal()].increment();
+    }
+
+    @Override
+    public long getCheckoutCount() {
+        return checkouts.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        long count = 0;
+
+        for (LongAdder failure : failures) {
+            count += failure.sum();
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of checkouts that failed validation for a reason.
+     *
+     * @param failure the reason
+     * @return the failure count
+     */
+    public long getFailureCount(Failure failure) {
+        return failures[failure.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getFailureCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        for (Failure failure : FAILURES) {
+            counts.put(name(failure), getFailureCount(failure));
+        }
+
+        return counts;
+    }
+
+    @Override
+    public int getSampleInterval() {
+        return sampleMask + 1;
+    }
+
+    /**
+     * Returns the latencies of a stage of the timed checkouts.
+     *
+     * @param stage the stage
+     * @return the stage's latency histogram
+     */
+    public LatencyHistogram getLatency(Stage stage) {
+        return stageLatencies[stage.ordinal()];
+    }
+
+    /**
+     * Returns the latencies of the timed checkouts that succeeded, from start to finish.
+     *
+     * @return the total latency histogram
+     */
+    public LatencyHistogram getTotalLatency() {
+        return totalLatency;
+    }
+
+    @Override
+    public Map<String, Long> getTimedCounts() {
+        return byStage(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getMedianNanos() {
+        return byStage(histogram -> histogram.getValueAtPercentile(50));
+    }
+
+    @Override
+    public Map<String, Long> getP99Nanos() {
+        return byStage(histogram -> histogram.getValueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getMaxNanos() {
+        return byStage(LatencyHistogram::getMaxNanos);
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under {@link #OBJECT_NAME}, replacing any metrics
+     * registered before.
+     *
+     * @return the registered name
+     * @throws IllegalStateException if the MBean server rejects the registration
+     */
+    public ObjectName registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            while (true) {
+                try {
+                    server.registerMBean(this, name);
+                    return name;
+                } catch (InstanceAlreadyExistsException e) {
+                    try {
+                        server.unregisterMBean(name);
+                    } catch (InstanceNotFoundException alreadyGone) {
+                        // Unregistered concurrently; try again.
+                    }
+                }
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register checkout metrics: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the metrics as text in the Prometheus exposition format.
+     *
+     * @param out where to write the metrics
+     * @throws IOException if {@code out} fails
+     */
+    public void writeText(Appendable out) throws IOException {
+        out.append("# HELP checkout_requests_total Checkouts attempted, estimated from the sampled checkouts.\n");
+        out.append("# TYPE checkout_requests_total counter\n");
+        out.append("checkout_requests_total ").append(Long.toString(getCheckoutCount())).append('\n');
+
+        out.append("# HELP checkout_failures_total Checkouts that failed validation, by reason.\n");
+        out.append("# TYPE checkout_failures_total counter\n");
+        for (Failure failure : FAILURES) {
+            out.append("checkout_failures_total{type=\"").append(name(failure)).append("\"} ")
+                    .append(Long.toString(getFailureCount(failure))).append('\n');
+        }
+
+        out.append("# HELP checkout_latency_nanoseconds Latency of sampled checkouts, by stage.\n");
+        out.append("# TYPE checkout_latency_nanoseconds summary\n");
+        for (Stage stage : STAGES) {
+            writeSummary(out, name(stage), getLatency(stage));
+        }
+        writeSummary(out, "total", totalLatency);
+    }
+
+    /**
+     * Writes one histogram as a Prometheus summary.
+     *
+     * @param out       where to write the summary
+     * @param stage     the stage label
+     * @param histogram the latencies
+     * @throws IOException if {@code out} fails
+     */
+    private static void writeSummary(Appendable out, String stage, LatencyHistogram histogram) throws IOException {
+        for (String quantile : new String[]{"0.5", "0.9", "0.99", "0.999"}) {
+            out.append("checkout_latency_nanoseconds{stage=\"").append(stage).append("\",quantile=\"").append(quantile)
+                    .append("\"} ")
+                    .append(Long.toString(histogram.getValueAtPercentile(Double.parseDouble(quantile) * 100)))
+                    .append('\n');
+        }
+
+        out.append("checkout_latency_nanoseconds_sum{stage=\"").append(stage).append("\"} ")
+                .append(Long.toString(histogram.getTotalNanos())).append('\n');
+        out.append("checkout_latency_nanoseconds_count{stage=\"").append(stage).append("\"} ")
+                .append(Long.toString(histogram.getCount())).append('\n');
+    }
+
+    /**
+     * Reads a value from the histogram of every stage and the total.
+     *
+     * @param value the value to read
+     * @return the values by stage name
+     */
+    private Map<String, Long> byStage(ToLongFunction<LatencyHistogram> value) {
+        Map<String, Long> values = new LinkedHashMap<>();
+
+        for (Stage stage : STAGES) {
+            values.put(name(stage), value.applyAsLong(getLatency(stage)));
+        }
+        values.put("total", value.applyAsLong(totalLatency));
+
+        return values;
+    }
+
+    /**
+     * Returns the lower-case name of an enum constant, as used in labels and keys.
+     *
+     * @param constant the enum constant
+     * @return the name
+     */
+    private static String name(Enum<?> constant) {
+        return constant.name().toLowerCase(Locale.ROOT);
+    }
+}
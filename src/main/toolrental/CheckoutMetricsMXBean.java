@@ -0,0 +1,65 @@
+package toolrental;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link CheckoutMetrics}. Latencies are keyed by stage name, with {@code total} for whole checkouts.
+ */
+public interface CheckoutMetricsMXBean {
+    /**
+     * Returns the number of checkouts attempted, estimated from the sampled checkouts; exact when every checkout is
+     * sampled.
+     *
+     * @return the checkout count
+     */
+    long getCheckoutCount();
+
+    /**
+     * Returns the number of checkouts that failed validation.
+     *
+     * @return the failure count
+     */
+    long getFailureCount();
+
+    /**
+     * Returns the number of checkouts that failed validation, by failure type.
+     *
+     * @return the failure counts by type
+     */
+    Map<String, Long> getFailureCounts();
+
+    /**
+     * Returns one timed checkout in how many.
+     *
+     * @return the sample interval
+     */
+    int getSampleInterval();
+
+    /**
+     * Returns the number of timings recorded for each stage.
+     *
+     * @return the timing counts by stage
+     */
+    Map<String, Long> getTimedCounts();
+
+    /**
+     * Returns the median latency of each stage.
+     *
+     * @return the median latencies in nanoseconds, by stage
+     */
+    Map<String, Long> getMedianNanos();
+
+    /**
+     * Returns the 99th percentile latency of each stage.
+     *
+     * @return the 99th percentile latencies in nanoseconds, by stage
+     */
+    Map<String, Long> getP99Nanos();
+
+    /**
+     * Returns the maximum latency of each stage.
+     *
+     * @return the maximum latencies in nanoseconds, by stage
+     */
+    Map<String, Long> getMaxNanos();
+}
@@ -0,0 +1,7 @@
+package toolrental;
+
+/**
+ * Represents a request to check out a tool, as passed to {@link Checkout#checkoutTool}.
+ */
+public record CheckoutRequest(String toolCode, int rentalDays, int discountPercent, String checkoutDate) {
+}
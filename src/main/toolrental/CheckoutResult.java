@@ -0,0 +1,17 @@
+package toolrental;
+
+/**
+ * Represents the outcome of one request in a batch checkout: either a rental agreement or the error that rejected the
+ * request.
+ */
+public record CheckoutResult(RentalAgreement agreement, RuntimeException error) {
+
+    /**
+     * Checks if the request was checked out successfully.
+     *
+     * @return {@code true} if an agreement was produced, {@code false} if the request was rejected
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
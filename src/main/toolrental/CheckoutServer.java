@@ -0,0 +1,411 @@
+package toolrental;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A local HTTP front end for {@link Checkout#checkoutTool}.
+ * <p>
+ * {@code GET /checkout?toolCode=LADW&rentalDays=3&discountPercent=10&checkoutDate=7/2/20} (or a {@code POST} with the
+ * same form-encoded parameters as the body) returns the rental agreement as JSON. Invalid requests get a {@code 400}
+ * with the validation message, and a body larger than {@link #MAX_BODY_SIZE} bytes gets a {@code 413}. At most a
+ * configured number of requests are handled at once; requests beyond that are turned away immediately with a
+ * {@code 503} rather than queued, so a burst cannot build up unbounded latency.
+ * <p>
+ * {@code GET /metrics} returns the {@link Checkout#getMetrics() checkout metrics} in the Prometheus text format. It is
+ * not subject to the request limit, so the server can still be observed while it is turning checkouts away.
+ * <p>
+ * Requests run on virtual threads when the runtime provides them, and on a cached thread pool otherwise. Responses
+ * are written from a pool of reusable buffers, one per admitted request.
+ * <p>
+ * The JDK server writes headers and body separately, so without TCP_NODELAY a keep-alive client waits out its delayed
+ * ACK on every request. Launch with {@code -Dsun.net.httpserver.nodelay=true} when embedding the server; {@link #main}
+ * sets it itself unless it is already given.
+ */
+public final class CheckoutServer implements AutoCloseable {
+    /**
+     * The path of the checkout endpoint.
+     */
+    static final String CHECKOUT_PATH = "/checkout";
+
+    /**
+     * The path of the metrics endpoint.
+     */
+    static final String METRICS_PATH = "/metrics";
+
+    /**
+     * The largest {@code POST} body accepted, in bytes; a valid checkout form needs well under a tenth of it.
+     */
+    static final int MAX_BODY_SIZE = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore admissions;
+    private final BlockingQueue<ResponseBuffer> buffers;
+
+    /**
+     * Constructs a CheckoutServer around a bound HttpServer.
+     *
+     * @param server                the HTTP server, bound but not started
+     * @param maxConcurrentRequests the most requests to handle at once
+     */
+    private CheckoutServer(HttpServer server, int maxConcurrentRequests) {
+        this.server = server;
+        this.executor = newRequestExecutor();
+        this.admissions = new Semaphore(maxConcurrentRequests);
+        this.buffers = new ArrayBlockingQueue<>(maxConcurrentRequests);
+
+        for (int i = 0; i < maxConcurrentRequests; i++) {
+            buffers.add(new ResponseBuffer());
+        }
+
+        server.createContext(CHECKOUT_PATH, this::handleCheckout);
+        server.createContext(METRICS_PATH, CheckoutServer::handleMetrics);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts a checkout server.
+     *
+     * @param address               the address to listen on; port 0 picks a free port
+     * @param maxConcurrentRequests the most requests to handle at once
+     * @return the running server
+     * @throws IOException              if the server cannot bind to the address
+     * @throws IllegalArgumentException if maxConcurrentRequests is less than 1
+     */
+    public static CheckoutServer start(InetSocketAddress address, int maxConcurrentRequests) throws IOException {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Concurrent request limit must be 1 or greater.");
+        }
+
+        CheckoutServer checkoutServer = new CheckoutServer(HttpServer.create(address, 0), maxConcurrentRequests);
+        checkoutServer.server.start();
+
+        return checkoutServer;
+    }
+
+    /**
+     * Runs a checkout server on localhost until the process is stopped.
+     *
+     * @param args the port (default 8080) and the concurrent request limit (default 256)
+     * @throws IOException if the server cannot bind to the port
+     */
+    public static void main(String[] args) throws IOException {
+        // Read once when the first server is created, so set it before then.
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int maxConcurrentRequests = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        CheckoutServer checkoutServer = start(new InetSocketAddress("localhost", port), maxConcurrentRequests);
+        CheckoutMetrics metrics = Checkout.getMetrics();
+
+        if (metrics != null) {
+            metrics.registerMBean();
+        }
+
+        System.out.println("Checkout server listening on http://localhost:" + checkoutServer.getPort() + CHECKOUT_PATH);
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, waiting up to a second for requests in progress to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Handles a request to the checkout endpoint.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleCheckout(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!admissions.tryAcquire()) {
+                sendError(exchange, 503, "Server busy.", new ResponseBuffer());
+                return;
+            }
+
+            ResponseBuffer buffer = buffers.poll();
+
+            try {
+                respond(exchange, buffer);
+            } finally {
+                buffers.add(buffer);
+                admissions.release();
+            }
+        }
+    }
+
+    /**
+     * Handles a request to the metrics endpoint.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ResponseBuffer buffer = new ResponseBuffer();
+
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Method not allowed.", buffer);
+                return;
+            }
+
+            if (!exchange.getRequestURI().getPath().equals(METRICS_PATH)) {
+                sendError(exchange, 404, "Not found.", buffer);
+                return;
+            }
+
+            CheckoutMetrics metrics = Checkout.getMetrics();
+
+            if (metrics == null) {
+                sendError(exchange, 404, "Metrics are disabled.", buffer);
+                return;
+            }
+
+            metrics.writeText(buffer);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, buffer.size());
+
+            try (OutputStream body = exchange.getResponseBody()) {
+                buffer.writeTo(body);
+            }
+        }
+    }
+
+    /**
+     * Validates a checkout request and writes the agreement or error.
+     *
+     * @param exchange the HTTP exchange
+     * @param buffer   the buffer to stage the response in
+     * @throws IOException if the response cannot be written
+     */
+    private static void respond(HttpExchange exchange, ResponseBuffer buffer) throws IOException {
+        String method = exchange.getRequestMethod();
+        String query;
+
+        if (method.equals("GET")) {
+            query = exchange.getRequestURI().getRawQuery();
+        } else if (method.equals("POST")) {
+            byte[] bytes;
+
+            // Read one byte past the limit to tell a full-size body from a larger one without buffering it.
+            try (InputStream body = exchange.getRequestBody()) {
+                bytes = body.readNBytes(MAX_BODY_SIZE + 1);
+            }
+
+            if (bytes.length > MAX_BODY_SIZE) {
+                sendError(exchange, 413, "Request body too large.", buffer);
+                return;
+            }
+
+            query = new String(bytes, StandardCharsets.UTF_8);
+        } else {
+            exchange.getResponseHeaders().set("Allow", "GET, POST");
+            sendError(exchange, 405, "Method not allowed.", buffer);
+            return;
+        }
+
+        if (!exchange.getRequestURI().getPath().equals(CHECKOUT_PATH)) {
+            sendError(exchange, 404, "Not found.", buffer);
+            return;
+        }
+
+        RentalAgreement agreement;
+
+        try {
+            Map<String, String> parameters = parseParameters(query);
+            agreement = Checkout.checkoutTool(getParameter(parameters, "toolCode"),
+                    parseInt(parameters, "rentalDays"), parseInt(parameters, "discountPercent"),
+                    getParameter(parameters, "checkoutDate"));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage(), buffer);
+            return;
+        }
+
+        buffer.reset();
+        AgreementJson.write(agreement, buffer);
+        send(exchange, 200, buffer);
+    }
+
+    /**
+     * Writes a JSON error response.
+     *
+     * @param exchange the HTTP exchange
+     * @param status   the HTTP status code
+     * @param message  the error message
+     * @param buffer   the buffer to stage the response in
+     * @throws IOException if the response cannot be written
+     */
+    private static void sendError(HttpExchange exchange, int status, String message, ResponseBuffer buffer)
+            throws IOException {
+        buffer.reset();
+        buffer.append("{\"error\":");
+        AgreementJson.writeString(message, buffer);
+        buffer.append('}');
+        send(exchange, status, buffer);
+    }
+
+    /**
+     * Writes the staged response.
+     *
+     * @param exchange the HTTP exchange
+     * @param status   the HTTP status code
+     * @param buffer   the staged response body
+     * @throws IOException if the response cannot be written
+     */
+    private static void send(HttpExchange exchange, int status, ResponseBuffer buffer) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, buffer.size());
+
+        try (OutputStream body = exchange.getResponseBody()) {
+            buffer.writeTo(body);
+        }
+    }
+
+    /**
+     * Parses form-encoded parameters.
+     *
+     * @param query the encoded parameters, or {@code null}
+     * @return the parameters by name
+     */
+    private static Map<String, String> parseParameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Reads a required parameter.
+     *
+     * @param parameters the parameters by name
+     * @param name       the parameter name
+     * @return the parameter value
+     * @throws IllegalArgumentException if the parameter is missing
+     */
+    private static String getParameter(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+
+        return value;
+    }
+
+    /**
+     * Reads a required integer parameter.
+     *
+     * @param parameters the parameters by name
+     * @param name       the parameter name
+     * @return the parameter value
+     * @throws IllegalArgumentException if the parameter is missing or not an integer
+     */
+    private static int parseInt(Map<String, String> parameters, String name) {
+        String value = getParameter(parameters, name);
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Creates the executor requests run on: one virtual thread per request when the runtime supports it, otherwise a
+     * cached pool of platform threads.
+     *
+     * @return the request executor
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Not available before Java 21, or before Java 19 and 20 with --enable-preview.
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * A reusable response body that JSON text can be appended to as UTF-8.
+     */
+    private static final class ResponseBuffer extends ByteArrayOutputStream implements Appendable {
+        ResponseBuffer() {
+            super(512);
+        }
+
+        @Override
+        public ResponseBuffer append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public ResponseBuffer append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = csq.charAt(i);
+
+                if (c < 0x80) {
+                    write(c);
+                } else {
+                    // Rare outside brand names; encode the rest of the sequence at once to keep surrogate pairs whole.
+                    writeBytes(csq.subSequence(i, end).toString().getBytes(StandardCharsets.UTF_8));
+                    break;
+                }
+            }
+
+            return this;
+        }
+
+        @Override
+        public ResponseBuffer append(char c) {
+            if (c < 0x80) {
+                write(c);
+            } else {
+                writeBytes(String.valueOf(c).getBytes(StandardCharsets.UTF_8));
+            }
+
+            return this;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package toolrental;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A prebuilt binary image of the tool catalog and of the holidays observed over a range of years, for processes that
+ * must check out their first tool as soon as possible after starting.
+ * <p>
+ * Reading a snapshot is a single file read and a pass over the bytes: it does not parse catalog text or run any
+ * holiday rule, so the classes those need are never loaded. The calendar read from a snapshot knows only the years it
+ * was written for, and rejects rentals that reach outside them. The file is big-endian:
+ * <pre>
+ * magic               int, {@value #MAGIC}
+ * version             unsigned short
+ * tool count          unsigned short
+ * per tool, by code:
+ *   code              unsigned short length, UTF-8 bytes
+ *   tool type ordinal byte
+ *   brand             unsigned short length, UTF-8 bytes
+ * first year          int
+ * year count          unsigned short
+ * per year:
+ *   holiday count     byte
+ *   holidays          int epoch days, sorted
+ * </pre>
+ */
+public final class CheckoutSnapshot {
+    /**
+     * The first bytes of every snapshot, {@code "CKSN"}.
+     */
+    public static final int MAGIC = 0x434B534E;
+
+    /**
+     * The first year covered by default: the first year a checkout date can name.
+     */
+    public static final int DEFAULT_FIRST_YEAR = 2000;
+
+    /**
+     * The last year covered by default, as many years as a calendar can hold.
+     */
+    public static final int DEFAULT_LAST_YEAR = 2255;
+
+    private static final int VERSION = 1;
+
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+
+    private final ToolCatalog catalog;
+    private final HolidayCalendar calendar;
+    private final int firstYear;
+    private final int lastYear;
+
+    /**
+     * Constructs a CheckoutSnapshot.
+     *
+     * @param catalog   the tool catalog
+     * @param calendar  the holiday calendar, covering firstYear to lastYear
+     * @param firstYear the first year covered
+     * @param lastYear  the last year covered
+     */
+    private CheckoutSnapshot(ToolCatalog catalog, HolidayCalendar calendar, int firstYear, int lastYear) {
+        this.catalog = catalog;
+        this.calendar = calendar;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+    }
+
+    /**
+     * Writes a snapshot of a catalog and of the holidays a calendar observes over a range of years.
+     *
+     * @param file      the file to write
+     * @param catalog   the tool catalog
+     * @param calendar  the holiday calendar
+     * @param firstYear the first year to cover
+     * @param lastYear  the last year to cover
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the range is empty or longer than 256 years, or the catalog holds more than
+     *                                  65535 tools
+     */
+    public static void write(Path file, ToolCatalog catalog, HolidayCalendar calendar, int firstYear, int lastYear)
+            throws IOException {
+        Files.write(file, toBytes(catalog, calendar, firstYear, lastYear));
+    }
+
+    /**
+     * Reads a snapshot.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid snapshot
+     */
+    public static CheckoutSnapshot read(Path file) throws IOException {
+        return fromBytes(Files.readAllBytes(file));
+    }
+
+    /**
+     * Returns the tool catalog in the snapshot.
+     *
+     * @return the catalog
+     */
+    public ToolCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Returns the holiday calendar in the snapshot, which covers only the snapshot's years.
+     *
+     * @return the calendar
+     */
+    public HolidayCalendar getCalendar() {
+        return calendar;
+    }
+
+    /**
+     * Returns the first year the calendar covers.
+     *
+     * @return the first year
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * Returns the last year the calendar covers.
+     *
+     * @return the last year
+     */
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * Makes {@link Checkout} look tools up in the snapshot's catalog and count holidays with its calendar.
+     */
+    public void install() {
+        Checkout.setToolCatalog(catalog);
+        Checkout.setHolidayCalendar(calendar);
+    }
+
+    /**
+     * Encodes a snapshot.
+     *
+     * @param catalog   the tool catalog
+     * @param calendar  the holiday calendar
+     * @param firstYear the first year to cover
+     * @param lastYear  the last year to cover
+     * @return the encoded snapshot
+     * @throws IllegalArgumentException if the range is empty or too long, or the catalog is too large
+     */
+    static byte[] toBytes(ToolCatalog catalog, HolidayCalendar calendar, int firstYear, int lastYear) {
+        Tool[] tools = catalog.tools().toArray(new Tool[0]);
+        Arrays.sort(tools, Comparator.comparing(Tool::toolCode));
+
+        if (tools.length > 0xFFFF) {
+            throw new IllegalArgumentException("Cannot write " + tools.length + " tools.");
+        }
+
+        int[][] yearDays = new int[Math.max(0, lastYear - firstYear + 1)][];
+        for (int i = 0; i < yearDays.length; i++) {
+            yearDays[i] = calendar.holidaysIn(firstYear + i);
+        }
+
+        // Checks the range the same way reading it back will.
+        HolidayCalendar.ofYears(firstYear, yearDays);
+
+        List<byte[]> strings = new ArrayList<>(2 * tools.length);
+        int size = Integer.BYTES + 2 * Short.BYTES + Integer.BYTES + Short.BYTES;
+
+        for (Tool tool : tools) {
+            byte[] code = tool.toolCode().getBytes(StandardCharsets.UTF_8);
+            byte[] brand = tool.brand().getBytes(StandardCharsets.UTF_8);
+            strings.add(code);
+            strings.add(brand);
+            size += 2 * Short.BYTES + code.length + 1 + brand.length;
+        }
+
+        for (int[] days : yearDays) {
+            size += 1 + days.length * Integer.BYTES;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putShort((short) tools.length);
+
+        for (int i = 0; i < tools.length; i++) {
+            putString(strings.get(2 * i), out);
+            out.put((byte) tools[i].toolType().ordinal());
+            putString(strings.get(2 * i + 1), out);
+        }
+
+        out.putInt(firstYear);
+        out.putShort((short) yearDays.length);
+
+        for (int[] days : yearDays) {
+            out.put((byte) days.length);
+            for (int day : days) {
+                out.putInt(day);
+            }
+        }
+
+        return out.array();
+    }
+
+    /**
+     * Decodes a snapshot.
+     *
+     * @param bytes the encoded snapshot
+     * @return the snapshot
+     * @throws IllegalArgumentException if the bytes are not a valid snapshot
+     */
+    static CheckoutSnapshot fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a checkout snapshot.");
+            }
+
+            int version = Short.toUnsignedInt(in.getShort());
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported checkout snapshot version " + version + ".");
+            }
+
+            Tool[] tools = new Tool[Short.toUnsignedInt(in.getShort())];
+
+            for (int i = 0; i < tools.length; i++) {
+                String code = getString(in);
+                int ordinal = Byte.toUnsignedInt(in.get());
+
+                if (ordinal >= TOOL_TYPES.length) {
+                    throw new IllegalArgumentException("Invalid tool type ordinal in snapshot: " + ordinal);
+                }
+
+                tools[i] = new Tool(code, TOOL_TYPES[ordinal], getString(in));
+            }
+
+            int firstYear = in.getInt();
+            int[][] yearDays = new int[Short.toUnsignedInt(in.getShort())][];
+
+            for (int i = 0; i < yearDays.length; i++) {
+                int[] days = new int[Byte.toUnsignedInt(in.get())];
+                for (int j = 0; j < days.length; j++) {
+                    days[j] = in.getInt();
+                }
+                yearDays[i] = days;
+            }
+
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data after checkout snapshot.");
+            }
+
+            return new CheckoutSnapshot(ToolCatalog.of(Arrays.asList(tools)),
+                    HolidayCalendar.ofYears(firstYear, yearDays), firstYear, firstYear + yearDays.length - 1);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated checkout snapshot.");
+        }
+    }
+
+    /**
+     * Writes a string as its length and UTF-8 bytes.
+     *
+     * @param bytes the UTF-8 bytes of the string
+     * @param out   where to write the string
+     * @throws IllegalArgumentException if the string is longer than 65535 bytes
+     */
+    private static void putString(byte[] bytes, ByteBuffer out) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Cannot write a string of " + bytes.length + " bytes.");
+        }
+
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #putString}.
+     *
+     * @param in where to read the string
+     * @return the string
+     * @throws BufferUnderflowException if the buffer ends before the string
+     */
+    private static String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+
+        if (in.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+
+        String string = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+
+        return string;
+    }
+}
@@ -0,0 +1,116 @@
+package toolrental;
+
+/**
+ * Allocation-free calendar arithmetic on ISO epoch days (days since 1970-01-01).
+ */
+final class EpochDays {
+    private EpochDays() {
+    }
+
+    /**
+     * Checks if an epoch day falls on a weekend (Saturday or Sunday).
+     *
+     * @param epochDay The epoch day to check.
+     * @return true if the day is a weekend, false otherwise.
+     */
+    static boolean isWeekend(long epochDay) {
+        return Math.floorMod(epochDay + 3, 7) >= 5; // 1970-01-01 was a Thursday
+    }
+
+    /**
+     * Counts the Saturdays and Sundays strictly before the given epoch day, relative to the Monday of the week
+     * containing the epoch. Only differences between two results are meaningful.
+     *
+     * @param epochDay The exclusive upper bound, as an epoch day.
+     * @return The number of weekend days before {@code epochDay}.
+     */
+    static long countWeekendDaysBefore(long epochDay) {
+        long daysSinceMonday = epochDay + 3;
+        long remainder = Math.floorMod(daysSinceMonday, 7);
+
+        return 2 * Math.floorDiv(daysSinceMonday, 7) + Math.max(0, remainder - 5);
+    }
+
+    /**
+     * Returns the proleptic ISO year containing the given epoch day.
+     *
+     * @param epochDay The epoch day.
+     * @return The year.
+     */
+    static int yearOf(long epochDay) {
+        // Shift to a calendar starting on March 1, 0000 so leap days fall at the end of each year.
+        long zeroDay = epochDay + 719468;
+        long era = Math.floorDiv(zeroDay, 146097);
+        long dayOfEra = zeroDay - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long year = yearOfEra + era * 400;
+
+        // Days from March 1 onward belong to the same calendar year; January and February belong to the next one.
+        return (int) (dayOfYear >= 306 ? year + 1 : year);
+    }
+
+    /**
+     * Returns the month containing the given epoch day, counted as {@code year * 12 + month - 1} so consecutive months
+     * have consecutive indexes.
+     *
+     * @param epochDay The epoch day.
+     * @return The month index.
+     */
+    static long monthIndexOf(long epochDay) {
+        // Same March-based calendar as yearOf.
+        long zeroDay = epochDay + 719468;
+        long era = Math.floorDiv(zeroDay, 146097);
+        long dayOfEra = zeroDay - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153; // 0 is March, 11 is February
+
+        // Counting months from March 1 of year 0, then moving the origin back to January.
+        return (yearOfEra + era * 400) * 12 + shiftedMonth + 2;
+    }
+
+    /**
+     * Returns the epoch day of a proleptic ISO date. The fields are not validated.
+     *
+     * @param year  The year.
+     * @param month The month, from 1 to 12.
+     * @param day   The day of the month, from 1 to the length of the month.
+     * @return The epoch day.
+     */
+    static long of(int year, int month, int day) {
+        // Shift to a calendar starting on March 1 so the leap day is the last day of the year.
+        long shiftedYear = month <= 2 ? year - 1L : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Returns the number of days in a month of a proleptic ISO year.
+     *
+     * @param year  The year.
+     * @param month The month, from 1 to 12.
+     * @return The length of the month in days.
+     */
+    static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Checks if a proleptic ISO year is a leap year.
+     *
+     * @param year The year.
+     * @return true if the year is a leap year, false otherwise.
+     */
+    static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
@@ -0,0 +1,309 @@
+package toolrental;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A calendar of the holidays observed by the rental store.
+ * <p>
+ * Each year's holidays are computed once, the first time the year is looked up, and kept as a sorted array of epoch
+ * days. Years are cached in a fixed number of slots, so the cache stays bounded no matter how many years are queried.
+ */
+public final class HolidayCalendar {
+    /**
+     * Independence Day, July 4. Observed on the Friday before when it falls on a Saturday and on the Monday after when
+     * it falls on a Sunday.
+     */
+    public static final Holiday INDEPENDENCE_DAY = StandardHoliday.INDEPENDENCE_DAY;
+
+    /**
+     * Labor Day, the first Monday in September.
+     */
+    public static final Holiday LABOR_DAY = StandardHoliday.LABOR_DAY;
+
+    /**
+     * Memorial Day, the last Monday in May.
+     */
+    public static final Holiday MEMORIAL_DAY = StandardHoliday.MEMORIAL_DAY;
+
+    /**
+     * Thanksgiving, the fourth Thursday in November.
+     */
+    public static final Holiday THANKSGIVING = StandardHoliday.THANKSGIVING;
+
+    /**
+     * The number of years kept in the cache. Must be a power of two.
+     */
+    private static final int CACHE_SLOTS = 256;
+
+    private static final HolidayCalendar STANDARD = new HolidayCalendar(List.of(INDEPENDENCE_DAY, LABOR_DAY));
+
+    private final Holiday[] holidays;
+    private final YearHolidays[] cache = new YearHolidays[CACHE_SLOTS];
+
+    /**
+     * Constructs a HolidayCalendar observing the specified holidays.
+     *
+     * @param holidays the holidays observed by the calendar
+     */
+    public HolidayCalendar(List<Holiday> holidays) {
+        this.holidays = holidays.toArray(new Holiday[0]);
+    }
+
+    /**
+     * Creates a calendar that knows only a range of years, whose holidays were computed in advance, for example by
+     * {@link #holidaysIn} when a snapshot was written. Looking up a day outside the range fails rather than guessing.
+     *
+     * @param firstYear the first year of the range
+     * @param yearDays  the distinct holidays of each year in the range as sorted epoch days, starting with firstYear
+     * @return the calendar
+     * @throws IllegalArgumentException if the range is empty or longer than the cache, or a year's days are not
+     *                                  distinct, sorted days of that year
+     */
+    static HolidayCalendar ofYears(int firstYear, int[][] yearDays) {
+        if (yearDays.length == 0 || yearDays.length > CACHE_SLOTS) {
+            throw new IllegalArgumentException("Holiday year range must cover 1 to " + CACHE_SLOTS + " years.");
+        }
+
+        int lastYear = firstYear + yearDays.length - 1;
+
+        // The rule is only asked about years outside the range, since the cache holds every year in it and never
+        // evicts them.
+        HolidayCalendar calendar = new HolidayCalendar(List.of(new UnknownYear(firstYear, lastYear)));
+
+        for (int i = 0; i < yearDays.length; i++) {
+            int year = firstYear + i;
+            int[] days = yearDays[i].clone();
+
+            for (int j = 0; j < days.length; j++) {
+                if (EpochDays.yearOf(days[j]) != year || j > 0 && days[j] <= days[j - 1]) {
+                    throw new IllegalArgumentException("Invalid holidays for " + year + ": " + Arrays.toString(days));
+                }
+            }
+
+            calendar.cache[year & (CACHE_SLOTS - 1)] = yearHolidays(year, days);
+        }
+
+        return calendar;
+    }
+
+    /**
+     * Returns the calendar of holidays observed by default: Independence Day and Labor Day.
+     *
+     * @return the standard holiday calendar
+     */
+    public static HolidayCalendar standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Checks if an epoch day is a holiday.
+     *
+     * @param epochDay the epoch day to check
+     * @return {@code true} if the day is a holiday, {@code false} otherwise
+     */
+    public boolean isHoliday(long epochDay) {
+        return Arrays.binarySearch(holidaysOf(EpochDays.yearOf(epochDay)).days(), (int) epochDay) >= 0;
+    }
+
+    /**
+     * Returns the distinct holidays observed in a year.
+     *
+     * @param year the year
+     * @return the holidays as sorted epoch days
+     */
+    int[] holidaysIn(int year) {
+        return holidaysOf(year).days().clone();
+    }
+
+    /**
+     * Counts the holidays between two epoch days, inclusive.
+     *
+     * @param fromEpochDay the first epoch day in the range
+     * @param toEpochDay   the last epoch day in the range
+     * @return the number of holidays in the range
+     */
+    public int countHolidays(long fromEpochDay, long toEpochDay) {
+        return count(fromEpochDay, toEpochDay, false);
+    }
+
+    /**
+     * Counts the holidays between two epoch days, inclusive, that fall on a Saturday or Sunday.
+     *
+     * @param fromEpochDay the first epoch day in the range
+     * @param toEpochDay   the last epoch day in the range
+     * @return the number of weekend holidays in the range
+     */
+    public int countWeekendHolidays(long fromEpochDay, long toEpochDay) {
+        return count(fromEpochDay, toEpochDay, true);
+    }
+
+    /**
+     * Counts the holidays in a range of epoch days, optionally only those on a weekend.
+     *
+     * @param fromEpochDay the first epoch day in the range
+     * @param toEpochDay   the last epoch day in the range
+     * @param weekendsOnly whether to count only holidays that fall on a weekend
+     * @return the number of matching holidays in the range
+     */
+    private int count(long fromEpochDay, long toEpochDay, boolean weekendsOnly) {
+        if (toEpochDay < fromEpochDay) {
+            return 0;
+        }
+
+        int count = 0;
+        int lastYear = EpochDays.yearOf(toEpochDay);
+
+        for (int year = EpochDays.yearOf(fromEpochDay); year <= lastYear; year++) {
+            YearHolidays yearHolidays = holidaysOf(year);
+
+            if (weekendsOnly && yearHolidays.weekendDays() == 0) {
+                continue;
+            }
+
+            for (int day : yearHolidays.days()) {
+                if (day >= fromEpochDay && day <= toEpochDay && (!weekendsOnly || EpochDays.isWeekend(day))) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the holidays of a year, computing and caching them on first use.
+     *
+     * @param year the year
+     * @return the holidays of the year
+     */
+    private YearHolidays holidaysOf(int year) {
+        int slot = year & (CACHE_SLOTS - 1);
+        YearHolidays yearHolidays = cache[slot];
+
+        if (yearHolidays == null || yearHolidays.year() != year) {
+            yearHolidays = computeHolidays(year);
+            // Entries are immutable, so a racing reader sees either the old entry or a fully built new one.
+            cache[slot] = yearHolidays;
+        }
+
+        return yearHolidays;
+    }
+
+    /**
+     * Computes the distinct holidays observed in a year.
+     *
+     * @param year the year
+     * @return the holidays of the year
+     */
+    private YearHolidays computeHolidays(int year) {
+        int[] days = new int[holidays.length];
+
+        for (int i = 0; i < holidays.length; i++) {
+            days[i] = (int) holidays[i].observedIn(year).toEpochDay();
+        }
+
+        return yearHolidays(year, Arrays.stream(days).sorted().distinct().toArray());
+    }
+
+    /**
+     * Builds the cache entry for the holidays of a year.
+     *
+     * @param year the year
+     * @param days the distinct holidays of the year as sorted epoch days
+     * @return the holidays of the year
+     */
+    private static YearHolidays yearHolidays(int year, int[] days) {
+        int weekendDays = 0;
+        for (int day : days) {
+            if (EpochDays.isWeekend(day)) {
+                weekendDays++;
+            }
+        }
+
+        return new YearHolidays(year, days, weekendDays);
+    }
+
+    /**
+     * A rule giving the date a holiday is observed in a given year.
+     */
+    @FunctionalInterface
+    public interface Holiday {
+        /**
+         * Returns the date the holiday is observed in the given year.
+         *
+         * @param year the year
+         * @return the observed date, which must fall in {@code year}
+         */
+        LocalDate observedIn(int year);
+    }
+
+    /**
+     * The holidays of one year.
+     *
+     * @param year        the year
+     * @param days        the distinct holidays of the year as sorted epoch days
+     * @param weekendDays the number of those holidays that fall on a weekend
+     */
+    private record YearHolidays(int year, int[] days, int weekendDays) {
+    }
+
+    /**
+     * The holidays the calendar provides rules for. They are enum constants rather than lambdas so that loading the
+     * class does not bootstrap the lambda machinery, which would dominate the startup of a short-lived process.
+     */
+    private enum StandardHoliday implements Holiday {
+        INDEPENDENCE_DAY {
+            @Override
+            public LocalDate observedIn(int year) {
+                LocalDate independenceDay = LocalDate.of(year, Month.JULY, 4);
+                DayOfWeek dayOfWeek = independenceDay.getDayOfWeek();
+
+                if (dayOfWeek == DayOfWeek.SATURDAY) {
+                    return independenceDay.minusDays(1);
+                } else if (dayOfWeek == DayOfWeek.SUNDAY) {
+                    return independenceDay.plusDays(1);
+                }
+
+                return independenceDay;
+            }
+        },
+        LABOR_DAY {
+            @Override
+            public LocalDate observedIn(int year) {
+                return LocalDate.of(year, Month.SEPTEMBER, 1).with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+            }
+        },
+        MEMORIAL_DAY {
+            @Override
+            public LocalDate observedIn(int year) {
+                return LocalDate.of(year, Month.MAY, 1).with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY));
+            }
+        },
+        THANKSGIVING {
+            @Override
+            public LocalDate observedIn(int year) {
+                return LocalDate.of(year, Month.NOVEMBER, 1)
+                        .with(TemporalAdjusters.dayOfWeekInMonth(4, DayOfWeek.THURSDAY));
+            }
+        }
+    }
+
+    /**
+     * The rule of a calendar created by {@link #ofYears}, which rejects the years it was not given.
+     *
+     * @param firstYear the first year of the calendar
+     * @param lastYear  the last year of the calendar
+     */
+    private record UnknownYear(int firstYear, int lastYear) implements Holiday {
+        @Override
+        public LocalDate observedIn(int year) {
+            throw new IllegalArgumentException("No holidays known for " + year + "; the calendar covers " + firstYear
+                    + " to " + lastYear + ".");
+        }
+    }
+}
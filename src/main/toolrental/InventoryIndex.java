@@ -0,0 +1,238 @@
+package toolrental;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which units of each tool are reserved on which days.
+ * <p>
+ * Each unit keeps its reservations in an interval index ordered by start day, so checking whether a unit is free for a
+ * range of days takes logarithmic time in the number of reservations it has. Reservations are half-open ranges of
+ * epoch days: a rental from the checkout date up to, but not including, the due date, so a unit returned on its due
+ * date can go out again the same day.
+ * <p>
+ * Every reservation carries a booking id, unique per tool, so releasing a reservation that was already released never
+ * frees a later booking of the same unit and days.
+ * <p>
+ * Every tool code has its own lock, so checkouts of different tools never contend; checkouts of the same tool are
+ * serialized, which is what guarantees a unit is never booked twice.
+ */
+public final class InventoryIndex {
+    private final Map<String, ToolUnits> tools = new ConcurrentHashMap<>();
+
+    /**
+     * Adds units of a tool to the inventory.
+     *
+     * @param toolCode the code of the tool
+     * @param count    the number of units to add
+     * @throws IllegalArgumentException if count is less than 1
+     */
+    public void addUnits(String toolCode, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Unit count must be 1 or greater.");
+        }
+
+        ToolUnits units = tools.computeIfAbsent(toolCode, code -> new ToolUnits());
+
+        synchronized (units) {
+            for (int i = 0; i < count; i++) {
+                units.reservations.add(new TreeMap<>());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of units of a tool in the inventory.
+     *
+     * @param toolCode the code of the tool
+     * @return the number of units
+     */
+    public int getUnitCount(String toolCode) {
+        ToolUnits units = tools.get(toolCode);
+
+        if (units == null) {
+            return 0;
+        }
+
+        synchronized (units) {
+            return units.reservations.size();
+        }
+    }
+
+    /**
+     * Finds the units of a tool that are free for a range of days.
+     *
+     * @param toolCode     the code of the tool
+     * @param fromEpochDay the first day, as an epoch day
+     * @param toEpochDay   the day after the last day, as an epoch day
+     * @return the free units, in ascending order
+     * @throws IllegalArgumentException if the range is empty
+     */
+    public int[] findFreeUnits(String toolCode, long fromEpochDay, long toEpochDay) {
+        checkRange(fromEpochDay, toEpochDay);
+        ToolUnits units = tools.get(toolCode);
+
+        if (units == null) {
+            return new int[0];
+        }
+
+        synchronized (units) {
+            int[] free = new int[units.reservations.size()];
+            int count = 0;
+
+            for (int unit = 0; unit < units.reservations.size(); unit++) {
+                if (isFree(units.reservations.get(unit), fromEpochDay, toEpochDay)) {
+                    free[count++] = unit;
+                }
+            }
+
+            return Arrays.copyOf(free, count);
+        }
+    }
+
+    /**
+     * Reserves the lowest-numbered unit of a tool that is free for a range of days.
+     *
+     * @param toolCode     the code of the tool
+     * @param fromEpochDay the first day, as an epoch day
+     * @param toEpochDay   the day after the last day, as an epoch day
+     * @return the reservation, or {@code null} if no unit is free
+     * @throws IllegalArgumentException if the range is empty
+     */
+    public Reservation reserve(String toolCode, long fromEpochDay, long toEpochDay) {
+        checkRange(fromEpochDay, toEpochDay);
+        ToolUnits units = tools.get(toolCode);
+
+        if (units == null) {
+            return null;
+        }
+
+        synchronized (units) {
+            for (int unit = 0; unit < units.reservations.size(); unit++) {
+                TreeMap<Long, Booking> reservations = units.reservations.get(unit);
+
+                if (isFree(reservations, fromEpochDay, toEpochDay)) {
+                    long bookingId = units.nextBookingId++;
+                    reservations.put(fromEpochDay, new Booking(toEpochDay, bookingId));
+                    return new Reservation(toolCode, unit, fromEpochDay, toEpochDay, bookingId);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reserves a unit of a tool for a rental agreement, from its checkout date up to its due date.
+     *
+     * @param agreement the rental agreement
+     * @return the reservation, or {@code null} if no unit is free
+     */
+    public Reservation reserve(RentalAgreement agreement) {
+        return reserve(agreement.tool().toolCode(), agreement.checkoutDate().toEpochDay(),
+                agreement.dueDate().toEpochDay());
+    }
+
+    /**
+     * Releases a reservation, making its unit free again for its days. Only the booking the reservation was made for is
+     * released; once it has been released, the same days may be booked again and releasing it again does nothing.
+     *
+     * @param reservation the reservation
+     * @return {@code true} if the reservation was held, {@code false} otherwise
+     */
+    public boolean release(Reservation reservation) {
+        ToolUnits units = tools.get(reservation.toolCode());
+
+        if (units == null) {
+            return false;
+        }
+
+        synchronized (units) {
+            if (reservation.unit() >= units.reservations.size()) {
+                return false;
+            }
+
+            return units.reservations.get(reservation.unit())
+                    .remove(reservation.fromEpochDay(), new Booking(reservation.toEpochDay(), reservation.bookingId()));
+        }
+    }
+
+    /**
+     * Checks if a unit has no reservation overlapping a range of days. Reservations of one unit never overlap each
+     * other, so only the last one starting before the end of the range can overlap it.
+     *
+     * @param reservations the unit's reservations, keyed by start day
+     * @param fromEpochDay the first day of the range
+     * @param toEpochDay   the day after the last day of the range
+     * @return {@code true} if the unit is free for the whole range
+     */
+    private static boolean isFree(TreeMap<Long, Booking> reservations, long fromEpochDay, long toEpochDay) {
+        Map.Entry<Long, Booking> previous = reservations.lowerEntry(toEpochDay);
+
+        return previous == null || previous.getValue().toEpochDay() <= fromEpochDay;
+    }
+
+    /**
+     * Checks that a range of days is not empty.
+     *
+     * @param fromEpochDay the first day
+     * @param toEpochDay   the day after the last day
+     * @throws IllegalArgumentException if the range is empty
+     */
+    private static void checkRange(long fromEpochDay, long toEpochDay) {
+        if (toEpochDay <= fromEpochDay) {
+            throw new IllegalArgumentException("Reservation must end after it starts.");
+        }
+    }
+
+    /**
+     * A reservation of one unit of a tool.
+     *
+     * @param toolCode     the code of the tool
+     * @param unit         the unit number, from 0
+     * @param fromEpochDay the first day reserved, as an epoch day
+     * @param toEpochDay   the day after the last day reserved, as an epoch day
+     * @param bookingId    the id of the booking, unique among the bookings of the tool
+     */
+    public record Reservation(String toolCode, int unit, long fromEpochDay, long toEpochDay, long bookingId) {
+        /**
+         * Returns the first day reserved.
+         *
+         * @return the first day reserved
+         */
+        public LocalDate fromDate() {
+            return LocalDate.ofEpochDay(fromEpochDay);
+        }
+
+        /**
+         * Returns the day after the last day reserved.
+         *
+         * @return the day the unit is free again
+         */
+        public LocalDate toDate() {
+            return LocalDate.ofEpochDay(toEpochDay);
+        }
+    }
+
+    /**
+     * The end of one booking of a unit, stored under its start day.
+     *
+     * @param toEpochDay the day after the last day booked, as an epoch day
+     * @param id         the booking id
+     */
+    private record Booking(long toEpochDay, long id) {
+    }
+
+    /**
+     * The units of one tool, which also serves as the tool's lock.
+     */
+    private static final class ToolUnits {
+        private final List<TreeMap<Long, Booking>> reservations = new ArrayList<>();
+        private long nextBookingId;
+    }
+}
@@ -0,0 +1,194 @@
+package toolrental;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds.
+ * <p>
+ * Buckets are laid out like an HDR histogram: values below 64 each have their own bucket, and every power of two above
+ * that is split into 32 equal buckets, so any recorded value is reported to within about 3% regardless of its size.
+ * Values above about 18 minutes are recorded as 18 minutes.
+ * <p>
+ * Recording threads are spread over several stripes, each an array of atomic counters, so concurrent recorders rarely
+ * update the same counter. Reads merge the stripes; a read that races with recording may be off by the values recorded
+ * during it.
+ */
+public final class LatencyHistogram {
+    /**
+     * The number of buckets each power of two is split into, as a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The largest value tracked, about 18 minutes in nanoseconds.
+     */
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    private static final int BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    /**
+     * The slots after the buckets of each stripe holding its count, total and maximum.
+     */
+    private static final int COUNT = BUCKETS;
+    private static final int TOTAL = BUCKETS + 1;
+    private static final int MAX = BUCKETS + 2;
+
+    private final AtomicLongArray[] stripes;
+
+    /**
+     * Constructs an empty LatencyHistogram with about one stripe per available processor, up to 16.
+     */
+    LatencyHistogram() {
+        int stripeCount = Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())));
+        stripes = new AtomicLongArray[stripeCount];
+
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS + 3);
+        }
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values are recorded as 0
+     */
+    void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        int hash = Thread.currentThread().hashCode();
+        AtomicLongArray stripe = stripes[(hash ^ hash >>> 16) & (stripes.length - 1)];
+
+        stripe.getAndIncrement(bucketIndex(value));
+        stripe.getAndIncrement(COUNT);
+        stripe.getAndAdd(TOTAL, value);
+
+        long max = stripe.get(MAX);
+        while (value > max && !stripe.compareAndSet(MAX, max, value)) {
+            max = stripe.get(MAX);
+        }
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return sum(COUNT);
+    }
+
+    /**
+     * Returns the sum of the latencies recorded.
+     *
+     * @return the total, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return sum(TOTAL);
+    }
+
+    /**
+     * Returns the largest latency recorded.
+     *
+     * @return the maximum, in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        long max = 0;
+
+        for (AtomicLongArray stripe : stripes) {
+            max = Math.max(max, stripe.get(MAX));
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the latency at or below which a percentage of the recorded latencies fall, rounded up to the top of its
+     * bucket.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the latency, in nanoseconds, or 0 if nothing was recorded
+     * @throws IllegalArgumentException if percentile is not between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+
+        for (AtomicLongArray stripe : stripes) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                long count = stripe.get(bucket);
+                counts[bucket] += count;
+                total += count;
+            }
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(bucket), getMaxNanos());
+            }
+        }
+
+        return getMaxNanos();
+    }
+
+    /**
+     * Returns the bucket a value falls in.
+     *
+     * @param value the value, from 0 to {@link #MAX_VALUE}
+     * @return the bucket index
+     */
+    private static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the largest value in the bucket
+     */
+    private static long bucketUpperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1));
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Sums a slot across the stripes.
+     *
+     * @param slot the slot
+     * @return the sum
+     */
+    private long sum(int slot) {
+        long sum = 0;
+
+        for (AtomicLongArray stripe : stripes) {
+            sum += stripe.get(slot);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,229 @@
+package toolrental;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from long keys to non-negative int values, stored in two parallel primitive arrays.
+ * <p>
+ * Keys are placed by linear probing from a multiplicative hash, and removal shifts the entries that follow back into
+ * the gap instead of leaving tombstones, so lookups stay short however many removals there have been. Each bucket costs
+ * 12 bytes, and there is no object per entry for the garbage collector to trace. The table doubles whenever it
+ * would be more than three quarters full, and it never shrinks: after removals it stays as large as it was when it
+ * held the most entries.
+ * <p>
+ * The map is not thread-safe. {@link #get} never fails or loops forever while another thread modifies the map,
+ * though its answer is then meaningless, so it can be used by optimistic readers that validate their read afterwards.
+ */
+final class LongIntMap {
+    /**
+     * Returned by {@link #get} and {@link #remove} for a missing key, and marks an empty bucket.
+     */
+    static final int MISSING = -1;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Constructs an empty LongIntMap with room for a number of entries before it grows.
+     *
+     * @param expectedSize the number of entries expected
+     * @throws IllegalArgumentException if expectedSize is negative or too large
+     */
+    LongIntMap(int expectedSize) {
+        if (expectedSize < 0 || expectedSize > MAX_CAPACITY / 4 * 3) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the value mapped to a key.
+     *
+     * @param key the key
+     * @return the value, or {@link #MISSING} if the key is not in the map
+     */
+    int get(long key) {
+        // Read each array once, so a concurrent resize cannot pair keys with the wrong values.
+        long[] keys = this.keys;
+        int[] values = this.values;
+        int mask = Math.min(keys.length, values.length) - 1;
+
+        for (int i = bucket(key, mask), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+            int value = values[i];
+
+            if (value == MISSING) {
+                return MISSING;
+            }
+
+            if (keys[i] == key) {
+                return value;
+            }
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Maps a key to a value, replacing any value it had.
+     *
+     * @param key   the key
+     * @param value the value, not negative
+     * @return the previous value, or {@link #MISSING} if the key was not in the map
+     * @throws IllegalArgumentException if value is negative
+     * @throws IllegalStateException    if the key is new and the map cannot grow to hold it, in which case the map is
+     *                                  unchanged
+     */
+    int put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+
+        int mask = keys.length - 1;
+        int i = bucket(key, mask);
+
+        while (values[i] != MISSING) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+
+                return previous;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        if (size + 1 > keys.length * 3L / 4) {
+            if (keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("LongIntMap cannot grow past " + size + " entries.");
+            }
+
+            resize(keys.length << 1);
+            mask = keys.length - 1;
+
+            for (i = bucket(key, mask); values[i] != MISSING; i = (i + 1) & mask) {
+                // Find the key's empty bucket in the grown table.
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        size++;
+
+        return MISSING;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the value the key had, or {@link #MISSING} if it was not in the map
+     */
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int i = bucket(key, mask);
+
+        while (values[i] != MISSING) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                shiftBack(i, mask);
+                size--;
+
+                return previous;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of keys in the map
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Empties the bucket at a gap by moving back later entries of the same probe run that may fill it.
+     *
+     * @param gap  the bucket being emptied
+     * @param mask the table mask
+     */
+    private void shiftBack(int gap, int mask) {
+        for (int i = (gap + 1) & mask; values[i] != MISSING; i = (i + 1) & mask) {
+            int home = bucket(keys[i], mask);
+
+            // The entry may move to the gap if its home bucket is not cyclically between the gap and its bucket.
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+
+        values[gap] = MISSING;
+    }
+
+    /**
+     * Rehashes every entry into new arrays.
+     *
+     * @param capacity the new capacity, a power of two
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != MISSING) {
+                int i = bucket(oldKeys[j], mask);
+
+                while (values[i] != MISSING) {
+                    i = (i + 1) & mask;
+                }
+
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Replaces the arrays with empty ones.
+     *
+     * @param capacity the capacity, a power of two
+     */
+    private void allocate(int capacity) {
+        int[] empty = new int[capacity];
+        Arrays.fill(empty, MISSING);
+        keys = new long[capacity];
+        values = empty;
+    }
+
+    /**
+     * Returns the bucket a key hashes to.
+     *
+     * @param key  the key
+     * @param mask the table mask
+     * @return the bucket
+     */
+    private static int bucket(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+}
@@ -0,0 +1,439 @@
+package toolrental;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Tracks open rental agreements and reports each one the first day it is overdue, that is, the day after its due date.
+ * <p>
+ * Due dates are kept in a hierarchical timing wheel over epoch days: four levels of 64 slots, covering the next 64
+ * days one day per slot, the next 4,096 days 64 days per slot, and so on. Advancing the tracker visits one slot per
+ * day and moves the entries of a coarser slot down a level when it comes due, so each agreement costs a constant
+ * amount of work to track, cancel, reschedule or report, however many are open.
+ * <p>
+ * Entries live in parallel primitive arrays, linked into circular doubly-linked lists through array indexes, so each
+ * open agreement costs about 24 bytes beyond the agreement itself, plus up to half as much again of room to grow, and
+ * tracking allocates only when the arrays grow.
+ * <p>
+ * Time moves only when {@link #advance} or {@link #advanceTo} is called, reading the day from the clock given at
+ * construction or from the caller, so a simulated clock can drive the tracker through any sequence of days. Listeners
+ * are called while the tracker is locked; they may track, cancel and reschedule agreements, but not advance it.
+ */
+public final class OverdueTracker {
+    /**
+     * Receives agreements as they become overdue.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called once for an agreement on the first day it is overdue, or on the first day the tracker reaches after
+         * that. The agreement is no longer tracked.
+         *
+         * @param agreement the overdue agreement
+         * @param today     the day being processed
+         */
+        void overdue(RentalAgreement agreement, LocalDate today);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS_PER_LEVEL = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    /**
+     * The first indexes are the sentinel heads of the slot lists; entries come after them.
+     */
+    private static final int FIRST_ENTRY = LEVELS * SLOTS_PER_LEVEL;
+
+    /**
+     * The end of the free list.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The expiry of a free entry.
+     */
+    private static final long FREE = Long.MIN_VALUE;
+
+    private final Clock clock;
+    private final Listener listener;
+
+    /**
+     * The day each entry is reported, as an epoch day, or {@link #FREE}.
+     */
+    private long[] expiries;
+    private int[] next;
+    private int[] previous;
+
+    /**
+     * Incremented each time an entry is freed, so stale handles are recognized.
+     */
+    private int[] generations;
+    private RentalAgreement[] agreements;
+
+    private int freeList = NONE;
+    private int used = FIRST_ENTRY;
+    private int size;
+
+    /**
+     * The last day processed, as an epoch day.
+     */
+    private long today;
+
+    /**
+     * Entries reported on the day being processed.
+     */
+    private int[] reporting = new int[64];
+    private RentalAgreement[] overdue = new RentalAgreement[64];
+
+    /**
+     * Constructs an OverdueTracker starting from the current day of a clock.
+     *
+     * @param clock    the clock giving the current day
+     * @param listener the listener to report overdue agreements to
+     */
+    public OverdueTracker(Clock clock, Listener listener) {
+        this.clock = clock;
+        this.listener = listener;
+        this.today = LocalDate.now(clock).toEpochDay();
+
+        int capacity = FIRST_ENTRY + 1024;
+        expiries = new long[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        generations = new int[capacity];
+        agreements = new RentalAgreement[capacity];
+
+        for (int head = 0; head < FIRST_ENTRY; head++) {
+            next[head] = head;
+            previous[head] = head;
+        }
+    }
+
+    /**
+     * Starts tracking an agreement.
+     *
+     * @param agreement the agreement
+     * @return a handle for cancelling or rescheduling the agreement
+     */
+    public synchronized long track(RentalAgreement agreement) {
+        int entry = allocate();
+        agreements[entry] = agreement;
+        schedule(entry, expiry(agreement));
+        size++;
+
+        return (long) generations[entry] << 32 | entry;
+    }
+
+    /**
+     * Stops tracking an agreement, for example when the tool is returned.
+     *
+     * @param handle the handle returned when the agreement was tracked
+     * @return {@code true} if the agreement was being tracked, {@code false} if it was already cancelled or reported
+     */
+    public synchronized boolean cancel(long handle) {
+        int entry = entryOf(handle);
+
+        if (entry == NONE) {
+            return false;
+        }
+
+        unlink(entry);
+        release(entry);
+        size--;
+
+        return true;
+    }
+
+    /**
+     * Replaces a tracked agreement, for example with the agreement returned by {@link Checkout#changeDueDate}, and
+     * moves it to its new due date.
+     *
+     * @param handle    the handle returned when the agreement was tracked
+     * @param agreement the replacement agreement
+     * @return {@code true} if the agreement was rescheduled, {@code false} if it was already cancelled or reported
+     */
+    public synchronized boolean reschedule(long handle, RentalAgreement agreement) {
+        int entry = entryOf(handle);
+
+        if (entry == NONE) {
+            return false;
+        }
+
+        unlink(entry);
+        agreements[entry] = agreement;
+        schedule(entry, expiry(agreement));
+
+        return true;
+    }
+
+    /**
+     * Processes every day up to the current day of the clock.
+     *
+     * @return the number of agreements reported overdue
+     */
+    public int advance() {
+        return advanceTo(LocalDate.now(clock));
+    }
+
+    /**
+     * Processes every day after the last one processed, up to and including a day, reporting the agreements that
+     * become overdue in order of day.
+     *
+     * @param day the day to advance to; days already processed are ignored
+     * @return the number of agreements reported overdue
+     * @throws RuntimeException the first exception thrown by the listener, once every agreement overdue on that day
+     *                          has been reported; later days are left for the next call
+     */
+    public synchronized int advanceTo(LocalDate day) {
+        long target = day.toEpochDay();
+        int reported = 0;
+
+        while (today < target) {
+            today++;
+            cascade();
+            reported += report();
+        }
+
+        return reported;
+    }
+
+    /**
+     * Returns the last day processed.
+     *
+     * @return the tracker's current day
+     */
+    public synchronized LocalDate getToday() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    /**
+     * Returns the number of agreements being tracked.
+     *
+     * @return the number of open agreements
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Moves the entries of the coarser slots that come due today down the wheel.
+     */
+    private void cascade() {
+        int top = 0;
+
+        while (top < LEVELS - 1 && (today & mask(top + 1)) == 0) {
+            top++;
+        }
+
+        for (int level = top; level > 0; level--) {
+            int head = level * SLOTS_PER_LEVEL + slotIndex(today, level);
+
+            for (int entry = next[head]; entry != head; ) {
+                int following = next[entry];
+                place(entry);
+                entry = following;
+            }
+
+            next[head] = head;
+            previous[head] = head;
+        }
+    }
+
+    /**
+     * Reports the entries in today's slot, which all expire today. Every entry is reported even if the listener throws;
+     * the first exception is then rethrown, with any later ones suppressed.
+     *
+     * @return the number reported
+     */
+    private int report() {
+        int head = slotIndex(today, 0);
+        int count = 0;
+
+        for (int entry = next[head]; entry != head; entry = next[entry]) {
+            if (count == reporting.length) {
+                reporting = Arrays.copyOf(reporting, 2 * count);
+            }
+            reporting[count++] = entry;
+        }
+
+        next[head] = head;
+        previous[head] = head;
+
+        if (count == 0) {
+            return 0;
+        }
+
+        // Free every entry before calling out, so listeners see a consistent tracker.
+        if (overdue.length < count) {
+            overdue = new RentalAgreement[reporting.length];
+        }
+
+        for (int i = 0; i < count; i++) {
+            overdue[i] = agreements[reporting[i]];
+            release(reporting[i]);
+        }
+        size -= count;
+
+        LocalDate day = LocalDate.ofEpochDay(today);
+        RuntimeException failure = null;
+
+        try {
+            for (int i = 0; i < count; i++) {
+                // The entries are already released, so one failing listener call must not lose the rest of the day.
+                try {
+                    listener.overdue(overdue[i], day);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        } finally {
+            Arrays.fill(overdue, 0, count, null);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return count;
+    }
+
+    /**
+     * Sets the day to report an entry and links it into the slot for that day.
+     *
+     * @param entry  the entry
+     * @param expiry the day to report the entry, as an epoch day
+     */
+    private void schedule(int entry, long expiry) {
+        // Overdue before the tracker was told: report on the next day processed.
+        expiries[entry] = Math.max(expiry, today + 1);
+        place(entry);
+    }
+
+    /**
+     * Links an entry into the slot for the day it is reported, no earlier than today.
+     *
+     * @param entry the entry
+     */
+    private void place(int entry) {
+        long expiry = expiries[entry];
+        long delta = expiry - today;
+        int level = 0;
+
+        while (level < LEVELS - 1 && delta >= 1L << SLOT_BITS * (level + 1)) {
+            level++;
+        }
+
+        // Beyond the top level: park in the furthest top slot, to be rescheduled when it cascades.
+        long slotDay = level == LEVELS - 1 && delta >= 1L << SLOT_BITS * LEVELS
+                ? today + (1L << SLOT_BITS * LEVELS) - (1L << SLOT_BITS * (LEVELS - 1))
+                : expiry;
+        int head = level * SLOTS_PER_LEVEL + slotIndex(slotDay, level);
+        int tail = previous[head];
+
+        next[tail] = entry;
+        previous[entry] = tail;
+        next[entry] = head;
+        previous[head] = entry;
+    }
+
+    /**
+     * Removes an entry from its slot list.
+     *
+     * @param entry the entry
+     */
+    private void unlink(int entry) {
+        next[previous[entry]] = next[entry];
+        previous[next[entry]] = previous[entry];
+    }
+
+    /**
+     * Takes an entry from the free list, growing the arrays if none is free.
+     *
+     * @return the entry
+     */
+    private int allocate() {
+        if (freeList != NONE) {
+            int entry = freeList;
+            freeList = next[entry];
+
+            return entry;
+        }
+
+        if (used == expiries.length) {
+            int capacity = expiries.length + (expiries.length >> 1);
+            expiries = Arrays.copyOf(expiries, capacity);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            agreements = Arrays.copyOf(agreements, capacity);
+        }
+
+        return used++;
+    }
+
+    /**
+     * Returns an unlinked entry to the free list.
+     *
+     * @param entry the entry
+     */
+    private void release(int entry) {
+        expiries[entry] = FREE;
+        agreements[entry] = null;
+        generations[entry]++;
+        next[entry] = freeList;
+        freeList = entry;
+    }
+
+    /**
+     * Finds the entry a handle refers to.
+     *
+     * @param handle the handle
+     * @return the entry, or {@link #NONE} if the handle is stale or invalid
+     */
+    private int entryOf(long handle) {
+        int entry = (int) handle;
+
+        if (entry < FIRST_ENTRY || entry >= used || expiries[entry] == FREE
+                || generations[entry] != (int) (handle >>> 32)) {
+            return NONE;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Returns the day an agreement becomes overdue.
+     *
+     * @param agreement the agreement
+     * @return the day after the due date, as an epoch day
+     */
+    private static long expiry(RentalAgreement agreement) {
+        return agreement.dueDate().toEpochDay() + 1;
+    }
+
+    /**
+     * Returns the slot a day falls in at a level.
+     *
+     * @param day   the day, as an epoch day
+     * @param level the level
+     * @return the slot index within the level
+     */
+    private static int slotIndex(long day, int level) {
+        return (int) (day >> SLOT_BITS * level) & (SLOTS_PER_LEVEL - 1);
+    }
+
+    /**
+     * Returns the mask of the day bits below a level.
+     *
+     * @param level the level
+     * @return the mask
+     */
+    private static long mask(int level) {
+        return (1L << SLOT_BITS * level) - 1;
+    }
+}
@@ -0,0 +1,144 @@
+package toolrental;
+
+import java.time.Month;
+
+/**
+ * A declarative rule adjusting how rentals are priced. Rules are compiled into a {@link PricingRules}; a rule whose
+ * tool type is {@code null} applies to every tool type.
+ */
+public sealed interface PricingRule {
+    /**
+     * Returns the type of tool the rule applies to.
+     *
+     * @return the tool type, or {@code null} if the rule applies to every tool type
+     */
+    ToolType toolType();
+
+    /**
+     * The classes of day a rental is charged by.
+     * <p>
+     * A holiday that falls on a weekend is priced as a holiday when holidays are charged, and as a weekend day
+     * otherwise.
+     */
+    enum DayClass {
+        WEEKDAY,
+        WEEKEND,
+        HOLIDAY
+    }
+
+    /**
+     * Sets whether a class of day is charged, overriding the tool type's own flag and any earlier rule.
+     *
+     * @param toolType the tool type, or {@code null} for every tool type
+     * @param dayClass the class of day
+     * @param charged  whether days of the class are charged
+     */
+    record ChargeDays(ToolType toolType, DayClass dayClass, boolean charged) implements PricingRule {
+        /**
+         * Validates the rule.
+         *
+         * @throws IllegalArgumentException if dayClass is {@code null}
+         */
+        public ChargeDays {
+            if (dayClass == null) {
+                throw new IllegalArgumentException("Day class must not be null.");
+            }
+        }
+    }
+
+    /**
+     * Sets the daily charge for a run of months, overriding the tool type's own daily charge and any earlier rule for
+     * those months. The run may wrap around the end of the year, such as November through February.
+     *
+     * @param toolType         the tool type, or {@code null} for every tool type
+     * @param firstMonth       the first month of the season
+     * @param lastMonth        the last month of the season
+     * @param dailyChargeCents the daily charge during the season, in cents
+     */
+    record SeasonalRate(ToolType toolType, Month firstMonth, Month lastMonth, long dailyChargeCents)
+            implements PricingRule {
+        /**
+         * Validates the rule.
+         *
+         * @throws IllegalArgumentException if a month is {@code null} or the daily charge is negative
+         */
+        public SeasonalRate {
+            if (firstMonth == null || lastMonth == null) {
+                throw new IllegalArgumentException("Season months must not be null.");
+            }
+
+            if (dailyChargeCents < 0) {
+                throw new IllegalArgumentException("Daily charge must be 0 or greater.");
+            }
+        }
+    }
+
+    /**
+     * Adds a surcharge to each charged day of a class. Surcharges for the same class add up.
+     *
+     * @param toolType       the tool type, or {@code null} for every tool type
+     * @param dayClass       the class of day
+     * @param surchargeCents the surcharge per day, in cents
+     */
+    record Surcharge(ToolType toolType, DayClass dayClass, long surchargeCents) implements PricingRule {
+        /**
+         * Validates the rule.
+         *
+         * @throws IllegalArgumentException if dayClass is {@code null} or the surcharge is negative
+         */
+        public Surcharge {
+            if (dayClass == null) {
+                throw new IllegalArgumentException("Day class must not be null.");
+            }
+
+            if (surchargeCents < 0) {
+                throw new IllegalArgumentException("Surcharge must be 0 or greater.");
+            }
+        }
+    }
+
+    /**
+     * Sets the fewest days a rental is charged for, overriding any earlier rule. Rentals with fewer chargeable days are
+     * charged the difference at the daily charge in effect on the checkout date.
+     *
+     * @param toolType   the tool type, or {@code null} for every tool type
+     * @param chargeDays the minimum number of charge days
+     */
+    record MinimumChargeDays(ToolType toolType, int chargeDays) implements PricingRule {
+        /**
+         * Validates the rule.
+         *
+         * @throws IllegalArgumentException if chargeDays is negative
+         */
+        public MinimumChargeDays {
+            if (chargeDays < 0) {
+                throw new IllegalArgumentException("Minimum charge days must be 0 or greater.");
+            }
+        }
+    }
+
+    /**
+     * Offers a discount on rentals of at least a number of days. The agreement gets the largest of the requested
+     * discount and the discounts of the tiers the rental reaches.
+     *
+     * @param toolType        the tool type, or {@code null} for every tool type
+     * @param rentalDays      the fewest rental days that earn the discount
+     * @param discountPercent the discount percentage
+     */
+    record TieredDiscount(ToolType toolType, int rentalDays, int discountPercent) implements PricingRule {
+        /**
+         * Validates the rule.
+         *
+         * @throws IllegalArgumentException if rentalDays is less than 1 or discountPercent is not between 0 and 100
+         */
+        public TieredDiscount {
+            if (rentalDays < 1) {
+                throw new IllegalArgumentException("Rental day count must be 1 or greater.");
+            }
+
+            if (discountPercent < 0 || discountPercent > 100) {
+                throw new IllegalArgumentException("Discount percent must be between 0 and 100.");
+            }
+        }
+    }
+}
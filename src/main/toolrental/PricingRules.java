@@ -0,0 +1,403 @@
+package toolrental;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compiled set of pricing rules.
+ * <p>
+ * Every tool type starts from its own daily charge and charge flags, which the rules then adjust in order. The result
+ * is compiled into flat tables: for each tool type, a bitmask of the charged classes of day, and for each tool type and
+ * month, the charge in cents for each class of day with its surcharge included. Pricing a rental counts the days of
+ * each class arithmetically, as {@link HolidayCalendar} and weekly arithmetic allow, and multiplies the counts by the
+ * table rows, so adding rules adds no per-day work and no branching on rule kinds. A tool type with seasonal rates
+ * prices each run of months with the same rate separately.
+ * <p>
+ * Holidays that fall on a weekend are priced as holidays when holidays are charged, and as weekend days otherwise.
+ */
+public final class PricingRules {
+    /**
+     * The classes of day the tables are indexed by: ordinary weekdays, ordinary weekend days, holidays on weekdays and
+     * holidays on weekends.
+     */
+    private static final int WEEKDAY = 0;
+    private static final int WEEKEND = 1;
+    private static final int WEEKDAY_HOLIDAY = 2;
+    private static final int WEEKEND_HOLIDAY = 3;
+    private static final int DAY_CLASSES = 4;
+
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+
+    private static final PricingRules STANDARD = new PricingRules(List.of());
+
+    private final int[] chargeMasks = new int[TOOL_TYPES.length];
+    private final long[] dailyCharges = new long[TOOL_TYPES.length * 12];
+    private final long[] rates = new long[TOOL_TYPES.length * 12 * DAY_CLASSES];
+    private final boolean[] seasonal = new boolean[TOOL_TYPES.length];
+    private final int[] minimumChargeDays = new int[TOOL_TYPES.length];
+    private final int[][] tierRentalDays = new int[TOOL_TYPES.length][];
+    private final int[][] tierDiscounts = new int[TOOL_TYPES.length][];
+
+    /**
+     * Compiles a list of pricing rules, applied in order.
+     *
+     * @param rules the pricing rules
+     */
+    public PricingRules(List<PricingRule> rules) {
+        for (ToolType toolType : TOOL_TYPES) {
+            compile(toolType, rules);
+        }
+    }
+
+    /**
+     * Returns the rules priced by default: each tool type's own daily charge and charge flags, with nothing added.
+     *
+     * @return the standard pricing rules
+     */
+    public static PricingRules standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Compiles the rules applying to one tool type into its rows of the tables.
+     *
+     * @param toolType the tool type
+     * @param rules    the pricing rules
+     */
+    private void compile(ToolType toolType, List<PricingRule> rules) {
+        int type = toolType.ordinal();
+        boolean[] charged = new boolean[PricingRule.DayClass.values().length];
+        long[] surcharges = new long[charged.length];
+        long[] monthlyCharges = new long[12];
+        List<int[]> tiers = new ArrayList<>();
+
+        charged[PricingRule.DayClass.WEEKDAY.ordinal()] = toolType.isWeekdayCharge();
+        charged[PricingRule.DayClass.WEEKEND.ordinal()] = toolType.isWeekendCharge();
+        charged[PricingRule.DayClass.HOLIDAY.ordinal()] = toolType.isHolidayCharge();
+        Arrays.fill(monthlyCharges, toolType.getDailyChargeCents());
+
+        for (PricingRule rule : rules) {
+            if (rule.toolType() != null && rule.toolType() != toolType) {
+                continue;
+            }
+
+            if (rule instanceof PricingRule.ChargeDays chargeDays) {
+                charged[chargeDays.dayClass().ordinal()] = chargeDays.charged();
+            } else if (rule instanceof PricingRule.SeasonalRate seasonalRate) {
+                int month = seasonalRate.firstMonth().ordinal();
+
+                while (true) {
+                    monthlyCharges[month] = seasonalRate.dailyChargeCents();
+
+                    if (month == seasonalRate.lastMonth().ordinal()) {
+                        break;
+                    }
+                    month = (month + 1) % 12;
+                }
+            } else if (rule instanceof PricingRule.Surcharge surcharge) {
+                surcharges[surcharge.dayClass().ordinal()] = Math.addExact(surcharges[surcharge.dayClass().ordinal()],
+                        surcharge.surchargeCents());
+            } else if (rule instanceof PricingRule.MinimumChargeDays minimum) {
+                minimumChargeDays[type] = minimum.chargeDays();
+            } else if (rule instanceof PricingRule.TieredDiscount tier) {
+                tiers.add(new int[]{tier.rentalDays(), tier.discountPercent()});
+            }
+        }
+
+        // Resolve the rule classes into the four table classes.
+        int weekday = PricingRule.DayClass.WEEKDAY.ordinal();
+        int weekend = PricingRule.DayClass.WEEKEND.ordinal();
+        int holiday = PricingRule.DayClass.HOLIDAY.ordinal();
+        int weekendHoliday = charged[holiday] ? holiday : weekend;
+        int[] ruleClasses = {weekday, weekend, holiday, weekendHoliday};
+
+        for (int dayClass = 0; dayClass < DAY_CLASSES; dayClass++) {
+            if (charged[ruleClasses[dayClass]]) {
+                chargeMasks[type] |= 1 << dayClass;
+            }
+        }
+
+        for (int month = 0; month < 12; month++) {
+            dailyCharges[type * 12 + month] = monthlyCharges[month];
+            seasonal[type] |= monthlyCharges[month] != monthlyCharges[0];
+
+            for (int dayClass = 0; dayClass < DAY_CLASSES; dayClass++) {
+                rates[(type * 12 + month) * DAY_CLASSES + dayClass] = charged[ruleClasses[dayClass]]
+                        ? Math.addExact(monthlyCharges[month], surcharges[ruleClasses[dayClass]])
+                        : 0;
+            }
+        }
+
+        // Sort the tiers by length and carry the best discount forward, so a lookup takes the last tier reached.
+        // Skipping the sort when there is nothing to order keeps lambda bootstrap off the startup path.
+        if (tiers.size() > 1) {
+            tiers.sort((left, right) -> Integer.compare(left[0], right[0]));
+        }
+        tierRentalDays[type] = new int[tiers.size()];
+        tierDiscounts[type] = new int[tiers.size()];
+
+        for (int i = 0; i < tiers.size(); i++) {
+            tierRentalDays[type][i] = tiers.get(i)[0];
+            tierDiscounts[type][i] = Math.max(tiers.get(i)[1], i == 0 ? 0 : tierDiscounts[type][i - 1]);
+        }
+    }
+
+    /**
+     * Prices a rental.
+     *
+     * @param calendar         the calendar of observed holidays
+     * @param toolType         the type of tool rented
+     * @param checkoutEpochDay the checkout date, as an epoch day
+     * @param rentalDays       the number of days rented
+     * @param discountPercent  the requested discount percentage
+     * @return the quote for the rental
+     */
+    Quote price(HolidayCalendar calendar, ToolType toolType, long checkoutEpochDay, int rentalDays,
+                int discountPercent) {
+        return quote(toolType, checkoutEpochDay, rentalDays,
+                chargeRental(calendar, toolType, checkoutEpochDay, rentalDays), discountPercent);
+    }
+
+    /**
+     * Counts and charges the days of a rental, the first step of {@link #price}.
+     *
+     * @param calendar         the calendar of observed holidays
+     * @param toolType         the type of tool rented
+     * @param checkoutEpochDay the checkout date, as an epoch day
+     * @param rentalDays       the number of days rented
+     * @return the chargeable days and their charge
+     */
+    Charge chargeRental(HolidayCalendar calendar, ToolType toolType, long checkoutEpochDay, int rentalDays) {
+        return charge(calendar, toolType.ordinal(), checkoutEpochDay + 1, checkoutEpochDay + rentalDays);
+    }
+
+    /**
+     * Completes a quote from the charge for the days rented, the second step of {@link #price}.
+     *
+     * @param toolType         the type of tool rented
+     * @param checkoutEpochDay the checkout date, as an epoch day
+     * @param rentalDays       the number of days rented
+     * @param charge           the chargeable days and their charge
+     * @param discountPercent  the requested discount percentage
+     * @return the quote
+     */
+    Quote quote(ToolType toolType, long checkoutEpochDay, int rentalDays, Charge charge, int discountPercent) {
+        return quote(toolType.ordinal(), checkoutEpochDay, rentalDays, charge.chargeDays(), charge.amount(),
+                discountPercent);
+    }
+
+    /**
+     * Reprices a rental for a new due date by pricing only the days added or removed. Days already priced keep their
+     * charge. A rental at or below its minimum charge days is priced again in full, since its charge may include days
+     * it was not rented for.
+     *
+     * @param calendar          the calendar of observed holidays
+     * @param toolType          the type of tool rented
+     * @param checkoutEpochDay  the checkout date, as an epoch day
+     * @param dueEpochDay       the current due date, as an epoch day
+     * @param chargeDays        the current number of charge days
+     * @param preDiscountCharge the current pre-discount charge, in cents
+     * @param discountPercent   the requested discount percentage, not the one applied, which may be a tiered discount
+     * @param newDueEpochDay    the new due date, as an epoch day, after the checkout date
+     * @return the quote for the new rental period
+     */
+    Quote reprice(HolidayCalendar calendar, ToolType toolType, long checkoutEpochDay, long dueEpochDay, int chargeDays,
+                  long preDiscountCharge, int discountPercent, long newDueEpochDay) {
+        int type = toolType.ordinal();
+        int rentalDays = Math.toIntExact(newDueEpochDay - checkoutEpochDay);
+
+        if (chargeDays <= minimumChargeDays[type]) {
+            return price(calendar, toolType, checkoutEpochDay, rentalDays, discountPercent);
+        }
+
+        int newChargeDays;
+        long newPreDiscountCharge;
+
+        if (newDueEpochDay >= dueEpochDay) {
+            Charge added = charge(calendar, type, dueEpochDay + 1, newDueEpochDay);
+            newChargeDays = chargeDays + added.chargeDays();
+            newPreDiscountCharge = Math.addExact(preDiscountCharge, added.amount());
+        } else {
+            Charge removed = charge(calendar, type, newDueEpochDay + 1, dueEpochDay);
+            newChargeDays = chargeDays - removed.chargeDays();
+            newPreDiscountCharge = Math.subtractExact(preDiscountCharge, removed.amount());
+        }
+
+        if (newChargeDays < minimumChargeDays[type]) {
+            return price(calendar, toolType, checkoutEpochDay, rentalDays, discountPercent);
+        }
+
+        return quote(type, checkoutEpochDay, rentalDays, newChargeDays, newPreDiscountCharge, discountPercent);
+    }
+
+    /**
+     * Counts the chargeable days in a range of epoch days.
+     *
+     * @param calendar the calendar of observed holidays
+     * @param toolType the type of tool rented
+     * @param firstDay the first day of the range, as an epoch day
+     * @param lastDay  the last day of the range, inclusive, as an epoch day
+     * @return the number of chargeable days
+     */
+    int countChargeDays(HolidayCalendar calendar, ToolType toolType, long firstDay, long lastDay) {
+        return charge(calendar, toolType.ordinal(), firstDay, lastDay).chargeDays();
+    }
+
+    /**
+     * Returns the daily charge of a tool type in effect on a day, before surcharges.
+     *
+     * @param toolType the type of tool
+     * @param epochDay the day, as an epoch day
+     * @return the daily charge, in cents
+     */
+    long dailyChargeCents(ToolType toolType, long epochDay) {
+        return dailyChargeCents(toolType.ordinal(), epochDay);
+    }
+
+    /**
+     * Completes a quote from the charge for the days rented, applying the minimum charge days and tiered discounts.
+     *
+     * @param type              the ordinal of the tool type
+     * @param checkoutEpochDay  the checkout date, as an epoch day
+     * @param rentalDays        the number of days rented
+     * @param chargeDays        the number of chargeable days
+     * @param preDiscountCharge the charge for the chargeable days, in cents
+     * @param discountPercent   the requested discount percentage
+     * @return the quote
+     */
+    private Quote quote(int type, long checkoutEpochDay, int rentalDays, int chargeDays, long preDiscountCharge,
+                        int discountPercent) {
+        long dailyCharge = dailyChargeCents(type, checkoutEpochDay);
+
+        if (chargeDays < minimumChargeDays[type]) {
+            preDiscountCharge = Math.addExact(preDiscountCharge,
+                    Cents.multiply(dailyCharge, minimumChargeDays[type] - chargeDays));
+            chargeDays = minimumChargeDays[type];
+        }
+
+        int appliedDiscount = Math.max(discountPercent, tierDiscount(type, rentalDays));
+        long discountAmount = Cents.percentOf(preDiscountCharge, appliedDiscount);
+
+        return new Quote(chargeDays, dailyCharge, preDiscountCharge, appliedDiscount, discountAmount,
+                preDiscountCharge - discountAmount);
+    }
+
+    /**
+     * Prices a range of epoch days, one run of months with the same rates at a time.
+     *
+     * @param calendar the calendar of observed holidays
+     * @param type     the ordinal of the tool type
+     * @param firstDay the first day of the range, as an epoch day
+     * @param lastDay  the last day of the range, inclusive, as an epoch day
+     * @return the chargeable days and their charge
+     */
+    private Charge charge(HolidayCalendar calendar, int type, long firstDay, long lastDay) {
+        if (!seasonal[type]) {
+            return charge(calendar, type, 0, firstDay, lastDay);
+        }
+
+        int chargeDays = 0;
+        long amount = 0;
+
+        for (long day = firstDay; day <= lastDay; ) {
+            long monthIndex = EpochDays.monthIndexOf(day);
+            int month = Math.floorMod(monthIndex, 12);
+            long nextMonthIndex = monthIndex + 1;
+
+            // Seasonal rates differ in some month, so the run ends within a year.
+            while (dailyCharges[type * 12 + Math.floorMod(nextMonthIndex, 12)] == dailyCharges[type * 12 + month]) {
+                nextMonthIndex++;
+            }
+
+            long runEnd = EpochDays.of(Math.toIntExact(Math.floorDiv(nextMonthIndex, 12)),
+                    Math.floorMod(nextMonthIndex, 12) + 1, 1) - 1;
+            Charge run = charge(calendar, type, month, day, Math.min(runEnd, lastDay));
+            chargeDays += run.chargeDays();
+            amount = Math.addExact(amount, run.amount());
+            day = runEnd + 1;
+        }
+
+        return new Charge(chargeDays, amount);
+    }
+
+    /**
+     * Prices a range of epoch days that all have the rates of one month.
+     *
+     * @param calendar the calendar of observed holidays
+     * @param type     the ordinal of the tool type
+     * @param month    the month whose rates apply, from 0
+     * @param firstDay the first day of the range, as an epoch day
+     * @param lastDay  the last day of the range, inclusive, as an epoch day
+     * @return the chargeable days and their charge
+     */
+    private Charge charge(HolidayCalendar calendar, int type, int month, long firstDay, long lastDay) {
+        if (lastDay < firstDay) {
+            return new Charge(0, 0);
+        }
+
+        long weekendDays = EpochDays.countWeekendDaysBefore(lastDay + 1) - EpochDays.countWeekendDaysBefore(firstDay);
+        long weekdays = lastDay - firstDay + 1 - weekendDays;
+        int holidays = calendar.countHolidays(firstDay, lastDay);
+        int weekendHolidays = holidays == 0 ? 0 : calendar.countWeekendHolidays(firstDay, lastDay);
+        int weekdayHolidays = holidays - weekendHolidays;
+
+        long ordinaryWeekdays = weekdays - weekdayHolidays;
+        long ordinaryWeekendDays = weekendDays - weekendHolidays;
+        int mask = chargeMasks[type];
+        int row = (type * 12 + month) * DAY_CLASSES;
+
+        // Uncharged classes have a rate of 0 and a clear mask bit, so every class is summed without branching.
+        long chargeDays = (ordinaryWeekdays & -(mask >>> WEEKDAY & 1))
+                + (ordinaryWeekendDays & -(mask >>> WEEKEND & 1))
+                + (weekdayHolidays & -(mask >>> WEEKDAY_HOLIDAY & 1))
+                + (weekendHolidays & -(mask >>> WEEKEND_HOLIDAY & 1));
+        long amount = Math.addExact(
+                Math.addExact(Cents.multiply(rates[row + WEEKDAY], ordinaryWeekdays),
+                        Cents.multiply(rates[row + WEEKEND], ordinaryWeekendDays)),
+                Math.addExact(Cents.multiply(rates[row + WEEKDAY_HOLIDAY], weekdayHolidays),
+                        Cents.multiply(rates[row + WEEKEND_HOLIDAY], weekendHolidays)));
+
+        return new Charge((int) chargeDays, amount);
+    }
+
+    /**
+     * Returns the daily charge of a tool type in effect on a day, before surcharges.
+     *
+     * @param type     the ordinal of the tool type
+     * @param epochDay the day, as an epoch day
+     * @return the daily charge, in cents
+     */
+    private long dailyChargeCents(int type, long epochDay) {
+        int month = seasonal[type] ? Math.floorMod(EpochDays.monthIndexOf(epochDay), 12) : 0;
+
+        return dailyCharges[type * 12 + month];
+    }
+
+    /**
+     * Returns the best tiered discount a rental reaches.
+     *
+     * @param type       the ordinal of the tool type
+     * @param rentalDays the number of days rented
+     * @return the discount percentage, or 0 if the rental reaches no tier
+     */
+    private int tierDiscount(int type, int rentalDays) {
+        int[] days = tierRentalDays[type];
+        int discount = 0;
+
+        for (int i = 0; i < days.length && days[i] <= rentalDays; i++) {
+            discount = tierDiscounts[type][i];
+        }
+
+        return discount;
+    }
+
+    /**
+     * The chargeable days in a range and their charge.
+     *
+     * @param chargeDays the number of chargeable days
+     * @param amount     the charge, in cents
+     */
+    record Charge(int chargeDays, long amount) {
+    }
+}
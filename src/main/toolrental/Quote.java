@@ -0,0 +1,15 @@
+package toolrental;
+
+/**
+ * Represents the price of a rental, with amounts in cents.
+ *
+ * @param chargeDays        the number of days charged
+ * @param dailyCharge       the daily charge in effect on the checkout date
+ * @param preDiscountCharge the charge before the discount
+ * @param discountPercent   the discount percentage applied
+ * @param discountAmount    the discount
+ * @param finalCharge       the charge after the discount
+ */
+record Quote(int chargeDays, long dailyCharge, long preDiscountCharge, int discountPercent, long discountAmount,
+             long finalCharge) {
+}
@@ -0,0 +1,178 @@
+package toolrental;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of rental quotes with least-recently-used eviction.
+ * <p>
+ * The cache is split into independently locked segments so concurrent checkouts of different quotes rarely contend.
+ * Each segment evicts its own least recently used quote once it holds its share of the capacity.
+ */
+public final class QuoteCache {
+    /**
+     * The number of segments. Must be a power of two.
+     */
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a QuoteCache holding at most about {@code capacity} quotes.
+     *
+     * @param capacity the maximum number of quotes to keep, rounded up to a multiple of the segment count
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    QuoteCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Quote cache capacity must be 1 or greater.");
+        }
+
+        int segmentCapacity = (capacity + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Returns the cached quote for a key, pricing and caching it if absent.
+     *
+     * @param key   the normalized inputs of the quote
+     * @param price computes the quote on a miss
+     * @return the quote
+     */
+    Quote get(Key key, Function<Key, Quote> price) {
+        int hash = key.hashCode();
+        Segment segment = segments[(hash ^ hash >>> 16) & (SEGMENTS - 1)];
+        Quote quote;
+
+        synchronized (segment) {
+            quote = segment.get(key);
+        }
+
+        if (quote != null) {
+            hits.increment();
+            return quote;
+        }
+
+        // Price outside the lock; two threads missing on the same key both price it, which is harmless.
+        misses.increment();
+        quote = price.apply(key);
+
+        synchronized (segment) {
+            segment.put(key, quote);
+        }
+
+        return quote;
+    }
+
+    /**
+     * Discards every cached quote.
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to price the quote.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of quotes evicted to make room for others.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of quotes currently cached.
+     *
+     * @return the number of cached quotes
+     */
+    public int size() {
+        int size = 0;
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * The normalized inputs that determine a quote.
+     *
+     * @param calendar         the calendar of observed holidays the quote is priced against
+     * @param rules            the pricing rules the quote is priced by
+     * @param toolType         the type of tool rented
+     * @param checkoutEpochDay the checkout date, as an epoch day
+     * @param rentalDays       the number of days rented
+     * @param discountPercent  the discount percentage
+     */
+    record Key(HolidayCalendar calendar, PricingRules rules, ToolType toolType, long checkoutEpochDay, int rentalDays,
+               int discountPercent) {
+    }
+
+    /**
+     * One segment of the cache: an access-ordered map that evicts its eldest entry when full.
+     */
+    private final class Segment {
+        private final Map<Key, Quote> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        Quote get(Key key) {
+            return entries.get(key);
+        }
+
+        void put(Key key, Quote quote) {
+            entries.put(key, quote);
+
+            if (entries.size() > capacity) {
+                Iterator<Quote> eldest = entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        void clear() {
+            entries.clear();
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package toolrental;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Represents a rental agreement for a tool.
+ */
+public record RentalAgreement(Tool tool, int rentalDays, LocalDate checkoutDate, LocalDate dueDate,
+                              BigDecimal dailyRentalCharge, int chargeDays, BigDecimal preDiscountCharge,
+                              int discountPercent, BigDecimal discountAmount, BigDecimal finalCharge)
+        implements Serializable {
+
+    /**
+     * Returns a string representation of the rental agreement.
+     *
+     * @return The rental agreement as a formatted string.
+     */
+    public String toString(){
+        return RentalAgreementRenderer.render(this, new StringBuilder(320)).toString();
+    }
+
+    /**
+     * Prints the rental agreement to the console.
+     */
+    public void printRentalAgreement() {
+        System.out.println(this);
+    }
+}
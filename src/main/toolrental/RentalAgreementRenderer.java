@@ -0,0 +1,335 @@
+package toolrental;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+
+/**
+ * Renders rental agreements as text directly into an {@link Appendable} or a {@link ByteBuffer}.
+ * <p>
+ * The output matches {@link RentalAgreement#toString()} character for character: dates as {@code MM/dd/yy}, amounts as
+ * {@code $0.00} rounded half-even and the discount as a whole percentage with grouping separators, using the US
+ * conventions the agreement text has always been printed with. Nothing is formatted through intermediate Strings.
+ */
+public final class RentalAgreementRenderer {
+    private RentalAgreementRenderer() {
+    }
+
+    /**
+     * Renders a rental agreement into an Appendable.
+     *
+     * @param agreement the rental agreement
+     * @param out       where to write the agreement text
+     * @param <A>       the type of the Appendable
+     * @return {@code out}
+     * @throws IOException if {@code out} fails
+     */
+    public static <A extends Appendable> A render(RentalAgreement agreement, A out) throws IOException {
+        write(agreement, out);
+
+        return out;
+    }
+
+    /**
+     * Renders a rental agreement into a StringBuilder.
+     *
+     * @param agreement the rental agreement
+     * @param out       where to write the agreement text
+     * @return {@code out}
+     */
+    public static StringBuilder render(RentalAgreement agreement, StringBuilder out) {
+        try {
+            write(agreement, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+
+        return out;
+    }
+
+    /**
+     * Writes the text of a rental agreement.
+     *
+     * @param agreement the rental agreement
+     * @param out       where to write the agreement text
+     * @throws IOException if {@code out} fails
+     */
+    private static void write(RentalAgreement agreement, Appendable out) throws IOException {
+        Tool tool = agreement.tool();
+
+        out.append("Tool code: ").append(tool.toolCode()).append('\n');
+        out.append("Tool type: ").append(tool.toolType().getName()).append('\n');
+        out.append("Tool brand: ").append(tool.brand()).append('\n');
+        out.append("Rental days: ");
+        appendInteger(out, agreement.rentalDays(), false);
+        out.append('\n').append("Check out date: ");
+        appendDate(out, agreement.checkoutDate());
+        out.append('\n').append("Due date: ");
+        appendDate(out, agreement.dueDate());
+        out.append('\n').append("Daily rental charge: ");
+        appendCurrency(out, agreement.dailyRentalCharge());
+        out.append('\n').append("Charge days: ");
+        appendInteger(out, agreement.chargeDays(), false);
+        out.append('\n').append("Pre-discount charge: ");
+        appendCurrency(out, agreement.preDiscountCharge());
+        out.append('\n').append("Discount percent: ");
+        appendInteger(out, agreement.discountPercent(), true);
+        out.append('%').append('\n').append("Discount amount: ");
+        appendCurrency(out, agreement.discountAmount());
+        out.append('\n').append("Final charge: ");
+        appendCurrency(out, agreement.finalCharge());
+    }
+
+    /**
+     * Renders a rental agreement into a ByteBuffer as UTF-8.
+     *
+     * @param agreement the rental agreement
+     * @param buffer    where to write the agreement text
+     * @throws BufferOverflowException if the buffer fills up, in which case its position is undefined
+     */
+    public static void render(RentalAgreement agreement, ByteBuffer buffer) {
+        ByteBufferAppendable out = new ByteBufferAppendable(buffer);
+
+        try {
+            write(agreement, out);
+            out.flushHighSurrogate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ByteBufferAppendable never throws
+        }
+    }
+
+    /**
+     * Renders rental agreements to a channel, each followed by a newline, staging the text in a buffer that is written
+     * out whenever the next agreement does not fit.
+     *
+     * @param agreements the rental agreements
+     * @param channel    where to write the agreement text
+     * @param buffer     the staging buffer, which must be large enough for any single agreement
+     * @throws IOException              if the channel fails
+     * @throws IllegalArgumentException if an agreement does not fit in an empty buffer
+     */
+    public static void renderAll(Iterable<RentalAgreement> agreements, WritableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.clear();
+
+        for (RentalAgreement agreement : agreements) {
+            int start = buffer.position();
+
+            try {
+                renderLine(agreement, buffer);
+            } catch (BufferOverflowException e) {
+                if (start == 0) {
+                    throw new IllegalArgumentException("Buffer too small to render a rental agreement.");
+                }
+
+                buffer.position(start);
+                drain(buffer, channel);
+
+                try {
+                    renderLine(agreement, buffer);
+                } catch (BufferOverflowException tooLarge) {
+                    throw new IllegalArgumentException("Buffer too small to render a rental agreement.");
+                }
+            }
+        }
+
+        drain(buffer, channel);
+    }
+
+    /**
+     * Renders a rental agreement followed by a newline into a ByteBuffer.
+     *
+     * @param agreement the rental agreement
+     * @param buffer    where to write the agreement text
+     */
+    private static void renderLine(RentalAgreement agreement, ByteBuffer buffer) {
+        render(agreement, buffer);
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Writes the contents of a buffer to a channel and clears the buffer.
+     *
+     * @param buffer  the buffer, in write mode
+     * @param channel the channel
+     * @throws IOException if the channel fails
+     */
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Appends a date as {@code MM/dd/yy}.
+     *
+     * @param out  where to write the date
+     * @param date the date
+     * @throws IOException if {@code out} fails
+     */
+    private static void appendDate(Appendable out, LocalDate date) throws IOException {
+        int year = date.getYear();
+        int yearOfEra = year >= 1 ? year : 1 - year;
+
+        appendTwoDigits(out, date.getMonthValue());
+        out.append('/');
+        appendTwoDigits(out, date.getDayOfMonth());
+        out.append('/');
+        appendTwoDigits(out, yearOfEra % 100);
+    }
+
+    /**
+     * Appends an amount as {@code $0.00}, rounding half-even to whole cents.
+     *
+     * @param out    where to write the amount
+     * @param amount the amount
+     * @throws IOException if {@code out} fails
+     */
+    private static void appendCurrency(Appendable out, BigDecimal amount) throws IOException {
+        BigDecimal rounded = amount.setScale(2, RoundingMode.HALF_EVEN).abs();
+
+        // Like DecimalFormat, keep the sign of an amount that rounds to zero.
+        if (amount.signum() < 0) {
+            out.append('-');
+        }
+
+        out.append('$');
+
+        if (rounded.unscaledValue().bitLength() >= Long.SIZE - 1) {
+            out.append(rounded.toPlainString());
+            return;
+        }
+
+        long cents = rounded.unscaledValue().longValue();
+        appendInteger(out, cents / 100, false);
+        out.append('.');
+        appendTwoDigits(out, (int) (cents % 100));
+    }
+
+    /**
+     * Appends a two-digit number, zero-padded.
+     *
+     * @param out   where to write the number
+     * @param value the number, from 0 to 99
+     * @throws IOException if {@code out} fails
+     */
+    private static void appendTwoDigits(Appendable out, int value) throws IOException {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Appends an integer in decimal.
+     *
+     * @param out      where to write the number
+     * @param value    the number
+     * @param grouping whether to separate groups of three digits with commas
+     * @throws IOException if {@code out} fails
+     */
+    private static void appendInteger(Appendable out, long value, boolean grouping) throws IOException {
+        if (value < 0) {
+            out.append('-');
+        }
+
+        // Work with the negated magnitude so Long.MIN_VALUE needs no special case.
+        long negative = value < 0 ? value : -value;
+        long divisor = 1;
+        int digits = 1;
+
+        while (negative / divisor <= -10) {
+            divisor *= 10;
+            digits++;
+        }
+
+        for (; divisor > 0; divisor /= 10, digits--) {
+            out.append((char) ('0' - negative / divisor % 10));
+
+            if (grouping && digits > 1 && digits % 3 == 1) {
+                out.append(',');
+            }
+        }
+    }
+
+    /**
+     * An Appendable that encodes characters as UTF-8 into a ByteBuffer.
+     */
+    private static final class ByteBufferAppendable implements Appendable {
+        private final ByteBuffer buffer;
+        private char highSurrogate;
+
+        ByteBufferAppendable(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (c < 0x80 && highSurrogate == 0) {
+                buffer.put((byte) c);
+            } else if (Character.isHighSurrogate(c)) {
+                flushHighSurrogate();
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+                int codePoint = Character.toCodePoint(highSurrogate, c);
+                highSurrogate = 0;
+                buffer.put((byte) (0xF0 | codePoint >> 18))
+                        .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                        .put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                flushHighSurrogate();
+                putChar(c);
+            }
+
+            return this;
+        }
+
+        /**
+         * Writes a high surrogate that was not followed by a low surrogate as a replacement character.
+         */
+        private void flushHighSurrogate() {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                putChar('?');
+            }
+        }
+
+        /**
+         * Writes a character from the Basic Multilingual Plane, replacing an unpaired surrogate.
+         *
+         * @param c the character
+         */
+        private void putChar(char c) {
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package toolrental;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Answers planning questions such as "which start date in the next six months is cheapest for a ten-day chainsaw
+ * rental?" over a fixed horizon of days.
+ * <p>
+ * On construction the planner prices every day of the horizon once per tool type, with the same holiday calendar and
+ * pricing rules as {@link Checkout#checkoutTool}, and keeps running totals of the chargeable days and their charge.
+ * The charge of any rental within the horizon is then the difference of two totals, so pricing a start date takes
+ * constant time however long the rental, and searching a range of start dates is a single pass over it.
+ */
+public final class RentalPlanner {
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+
+    /**
+     * The longest horizon a planner covers, about 100 years.
+     */
+    private static final int MAX_HORIZON_DAYS = 36_525;
+
+    /**
+     * A rental start date and what the rental costs when started on it.
+     *
+     * @param checkoutDate the checkout date
+     * @param chargeDays   the number of days charged
+     * @param finalCharge  the charge after the discount
+     */
+    public record Option(LocalDate checkoutDate, int chargeDays, BigDecimal finalCharge) {
+    }
+
+    /**
+     * A start date found during a search.
+     *
+     * @param epochDay the checkout date, as an epoch day
+     * @param quote    the price of the rental started on it
+     */
+    private record Candidate(long epochDay, Quote quote) {
+    }
+
+    /**
+     * Orders candidates from cheapest to dearest, and earliest first among equals.
+     */
+    private static final Comparator<Candidate> CHEAPEST_FIRST = Comparator
+            .comparingLong((Candidate candidate) -> candidate.quote().finalCharge())
+            .thenComparingLong(Candidate::epochDay);
+
+    private final PricingRules rules;
+    private final long firstDay;
+    private final long lastDay;
+
+    /**
+     * The chargeable days from the day after the first day through each day of the horizon, by tool type ordinal.
+     */
+    private final int[][] chargeDayTotals;
+
+    /**
+     * The charge for the days from the day after the first day through each day of the horizon in cents, by tool type
+     * ordinal.
+     */
+    private final long[][] chargeTotals;
+
+    /**
+     * Constructs a RentalPlanner for rentals checked out on or after a first day and due on or before a last day.
+     *
+     * @param calendar the calendar of observed holidays
+     * @param rules    the rules rentals are priced by
+     * @param firstDay the first day of the horizon
+     * @param lastDay  the last day of the horizon
+     * @throws IllegalArgumentException if lastDay is before firstDay or the horizon is longer than about 100 years
+     */
+    public RentalPlanner(HolidayCalendar calendar, PricingRules rules, LocalDate firstDay, LocalDate lastDay) {
+        long days = lastDay.toEpochDay() - firstDay.toEpochDay();
+
+        if (days < 0 || days > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("Horizon must end on or after its first day and span at most "
+                    + MAX_HORIZON_DAYS + " days.");
+        }
+
+        this.rules = rules;
+        this.firstDay = firstDay.toEpochDay();
+        this.lastDay = lastDay.toEpochDay();
+        this.chargeDayTotals = new int[TOOL_TYPES.length][(int) days + 1];
+        this.chargeTotals = new long[TOOL_TYPES.length][(int) days + 1];
+
+        for (ToolType toolType : TOOL_TYPES) {
+            int[] dayTotals = chargeDayTotals[toolType.ordinal()];
+            long[] totals = chargeTotals[toolType.ordinal()];
+
+            for (int i = 1; i <= days; i++) {
+                // The charge for day firstDay + i alone: a one-day rental checked out the day before.
+                PricingRules.Charge charge = rules.chargeRental(calendar, toolType, this.firstDay + i - 1, 1);
+                dayTotals[i] = dayTotals[i - 1] + charge.chargeDays();
+                totals[i] = Math.addExact(totals[i - 1], charge.amount());
+            }
+        }
+    }
+
+    /**
+     * Returns the first day of the horizon.
+     *
+     * @return the earliest checkout date the planner can price
+     */
+    public LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    /**
+     * Returns the last day of the horizon.
+     *
+     * @return the latest due date the planner can price
+     */
+    public LocalDate getLastDay() {
+        return LocalDate.ofEpochDay(lastDay);
+    }
+
+    /**
+     * Counts the chargeable days of a rental.
+     *
+     * @param toolType     the type of tool rented
+     * @param checkoutDate the checkout date
+     * @param rentalDays   the number of days rented
+     * @return the number of chargeable days
+     * @throws IllegalArgumentException if rentalDays is less than 1 or the rental falls outside the horizon
+     */
+    public int chargeDays(ToolType toolType, LocalDate checkoutDate, int rentalDays) {
+        long checkoutEpochDay = checkoutDate.toEpochDay();
+        checkRental(checkoutEpochDay, checkoutEpochDay, rentalDays);
+
+        int[] dayTotals = chargeDayTotals[toolType.ordinal()];
+        int start = (int) (checkoutEpochDay - firstDay);
+
+        return dayTotals[start + rentalDays] - dayTotals[start];
+    }
+
+    /**
+     * Prices a rental, exactly as {@link Checkout#checkoutTool} would with the planner's calendar and rules.
+     *
+     * @param toolType        the type of tool rented
+     * @param checkoutDate    the checkout date
+     * @param rentalDays      the number of days rented
+     * @param discountPercent the requested discount percentage
+     * @return the price of the rental
+     * @throws IllegalArgumentException if rentalDays is less than 1, discountPercent is not between 0 and 100 or the
+     *                                  rental falls outside the horizon
+     */
+    public Option price(ToolType toolType, LocalDate checkoutDate, int rentalDays, int discountPercent) {
+        long checkoutEpochDay = checkoutDate.toEpochDay();
+        checkRental(checkoutEpochDay, checkoutEpochDay, rentalDays);
+        checkDiscount(discountPercent);
+
+        Quote quote = quote(toolType, checkoutEpochDay, rentalDays, discountPercent);
+
+        return new Option(checkoutDate, quote.chargeDays(), Cents.toBigDecimal(quote.finalCharge()));
+    }
+
+    /**
+     * Finds the cheapest start dates for a rental in a range of checkout dates.
+     *
+     * @param toolType        the type of tool rented
+     * @param rentalDays      the number of days rented
+     * @param discountPercent the requested discount percentage
+     * @param earliest        the earliest checkout date to consider
+     * @param latest          the latest checkout date to consider
+     * @param limit           the most start dates to return
+     * @return up to {@code limit} start dates, cheapest first and earliest first among equals
+     * @throws IllegalArgumentException if rentalDays or limit is less than 1, discountPercent is not between 0 and 100,
+     *                                  latest is before earliest or a rental in the range falls outside the horizon
+     */
+    public List<Option> cheapestStarts(ToolType toolType, int rentalDays, int discountPercent, LocalDate earliest,
+                                       LocalDate latest, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be 1 or greater.");
+        }
+
+        long from = earliest.toEpochDay();
+        long to = latest.toEpochDay();
+        checkRental(from, to, rentalDays);
+        checkDiscount(discountPercent);
+
+        // The dearest of the cheapest found so far is at the head, ready to be replaced.
+        PriorityQueue<Candidate> cheapest = new PriorityQueue<>(Math.min(limit, (int) (to - from + 1)) + 1,
+                CHEAPEST_FIRST.reversed());
+
+        for (long day = from; day <= to; day++) {
+            Quote quote = quote(toolType, day, rentalDays, discountPercent);
+
+            if (cheapest.size() < limit) {
+                cheapest.add(new Candidate(day, quote));
+            } else if (quote.finalCharge() < cheapest.element().quote().finalCharge()) {
+                // Strictly cheaper only: among equals, the earlier start found first is kept.
+                cheapest.poll();
+                cheapest.add(new Candidate(day, quote));
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(cheapest);
+        sorted.sort(CHEAPEST_FIRST);
+        List<Option> options = new ArrayList<>(sorted.size());
+
+        for (Candidate candidate : sorted) {
+            options.add(new Option(LocalDate.ofEpochDay(candidate.epochDay()), candidate.quote().chargeDays(),
+                    Cents.toBigDecimal(candidate.quote().finalCharge())));
+        }
+
+        return options;
+    }
+
+    /**
+     * Finds every start date in a range of checkout dates on which a rental costs the least.
+     *
+     * @param toolType        the type of tool rented
+     * @param rentalDays      the number of days rented
+     * @param discountPercent the requested discount percentage
+     * @param earliest        the earliest checkout date to consider
+     * @param latest          the latest checkout date to consider
+     * @return the cheapest start dates, earliest first
+     * @throws IllegalArgumentException if rentalDays is less than 1, discountPercent is not between 0 and 100, latest
+     *                                  is before earliest or a rental in the range falls outside the horizon
+     */
+    public List<LocalDate> cheapestStartDates(ToolType toolType, int rentalDays, int discountPercent,
+                                              LocalDate earliest, LocalDate latest) {
+        long from = earliest.toEpochDay();
+        long to = latest.toEpochDay();
+        checkRental(from, to, rentalDays);
+        checkDiscount(discountPercent);
+
+        List<LocalDate> dates = new ArrayList<>();
+        long lowest = Long.MAX_VALUE;
+
+        for (long day = from; day <= to; day++) {
+            long finalCharge = quote(toolType, day, rentalDays, discountPercent).finalCharge();
+
+            if (finalCharge < lowest) {
+                lowest = finalCharge;
+                dates.clear();
+            }
+
+            if (finalCharge == lowest) {
+                dates.add(LocalDate.ofEpochDay(day));
+            }
+        }
+
+        return dates;
+    }
+
+    /**
+     * Prices a rental from the running totals.
+     *
+     * @param toolType         the type of tool rented
+     * @param checkoutEpochDay the checkout date, as an epoch day, within the horizon
+     * @param rentalDays       the number of days rented, ending within the horizon
+     * @param discountPercent  the requested discount percentage
+     * @return the quote
+     */
+    Quote quote(ToolType toolType, long checkoutEpochDay, int rentalDays, int discountPercent) {
+        int type = toolType.ordinal();
+        int start = (int) (checkoutEpochDay - firstDay);
+        int end = start + rentalDays;
+        PricingRules.Charge charge = new PricingRules.Charge(chargeDayTotals[type][end] - chargeDayTotals[type][start],
+                chargeTotals[type][end] - chargeTotals[type][start]);
+
+        return rules.quote(toolType, checkoutEpochDay, rentalDays, charge, discountPercent);
+    }
+
+    /**
+     * Checks that rentals checked out on a range of days fall within the horizon.
+     *
+     * @param from       the earliest checkout date, as an epoch day
+     * @param to         the latest checkout date, as an epoch day
+     * @param rentalDays the number of days rented
+     * @throws IllegalArgumentException if rentalDays is less than 1, to is before from or a rental falls outside the
+     *                                  horizon
+     */
+    private void checkRental(long from, long to, int rentalDays) {
+        if (rentalDays < 1) {
+            throw new IllegalArgumentException("Rental day count must be 1 or greater.");
+        }
+
+        if (to < from) {
+            throw new IllegalArgumentException("Latest checkout date must not be before the earliest.");
+        }
+
+        if (from < firstDay || to + rentalDays > lastDay) {
+            throw new IllegalArgumentException("Rental must fall between " + getFirstDay() + " and " + getLastDay()
+                    + ".");
+        }
+    }
+
+    /**
+     * Checks a discount percentage.
+     *
+     * @param discountPercent the discount percentage
+     * @throws IllegalArgumentException if discountPercent is not between 0 and 100
+     */
+    private static void checkDiscount(int discountPercent) {
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException("Discount percent must be between 0 and 100.");
+        }
+    }
+}
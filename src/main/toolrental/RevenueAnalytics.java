@@ -0,0 +1,430 @@
+package toolrental;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * An in-memory columnar store of rental agreements for revenue reporting.
+ * <p>
+ * Each agreement is kept as one row across primitive columns: the checkout date as an epoch day, the tool type as its
+ * ordinal, the brand as an index into a dictionary of brand names, and amounts in cents. Reports scan only the columns
+ * they need, in tight loops over arrays, with the rows split into chunks aggregated in parallel and the per-chunk
+ * results merged at the end. Rows are filtered by checkout date, inclusive at both ends.
+ * <p>
+ * Agreements can be added while reports run; each report sees the rows added before it started.
+ */
+public final class RevenueAnalytics {
+    /**
+     * The number of rows each parallel task aggregates.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+
+    private final Map<String, Integer> brandIds = new HashMap<>();
+    private String[] brandNames = new String[16];
+    private int size;
+    private int[] checkoutDays;
+    private byte[] toolTypes;
+    private int[] brands;
+    private int[] chargeDays;
+    private long[] discounts;
+    private long[] finalCharges;
+    private int minCheckoutDay = Integer.MAX_VALUE;
+    private int maxCheckoutDay = Integer.MIN_VALUE;
+
+    /**
+     * Constructs an empty RevenueAnalytics.
+     */
+    public RevenueAnalytics() {
+        this(1024);
+    }
+
+    /**
+     * Constructs an empty RevenueAnalytics with room for a number of agreements before its columns grow.
+     *
+     * @param initialCapacity the number of agreements to allocate room for
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public RevenueAnalytics(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must be 0 or greater.");
+        }
+
+        checkoutDays = new int[initialCapacity];
+        toolTypes = new byte[initialCapacity];
+        brands = new int[initialCapacity];
+        chargeDays = new int[initialCapacity];
+        discounts = new long[initialCapacity];
+        finalCharges = new long[initialCapacity];
+    }
+
+    /**
+     * Adds a rental agreement.
+     *
+     * @param agreement the rental agreement
+     * @throws IllegalArgumentException if an amount has fractions of a cent or the checkout date is too far from 1970
+     */
+    public void add(RentalAgreement agreement) {
+        int checkoutEpochDay;
+        long discount;
+        long finalCharge;
+
+        try {
+            checkoutEpochDay = Math.toIntExact(agreement.checkoutDate().toEpochDay());
+            discount = Cents.of(agreement.discountAmount());
+            finalCharge = Cents.of(agreement.finalCharge());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Cannot store agreement: " + e.getMessage());
+        }
+
+        add(checkoutEpochDay, agreement.tool().toolType(), agreement.tool().brand(),
+                agreement.chargeDays(), discount, finalCharge);
+    }
+
+    /**
+     * Adds the columns of a rental agreement without building one.
+     *
+     * @param checkoutEpochDay the checkout date, as an epoch day
+     * @param toolType         the type of tool rented
+     * @param brand            the brand of tool rented
+     * @param chargeDays       the number of days charged
+     * @param discount         the discount, in cents
+     * @param finalCharge      the final charge, in cents
+     */
+    synchronized void add(int checkoutEpochDay, ToolType toolType, String brand, int chargeDays, long discount,
+                          long finalCharge) {
+        if (size == checkoutDays.length) {
+            grow();
+        }
+
+        checkoutDays[size] = checkoutEpochDay;
+        toolTypes[size] = (byte) toolType.ordinal();
+        brands[size] = brandId(brand);
+        this.chargeDays[size] = chargeDays;
+        discounts[size] = discount;
+        finalCharges[size] = finalCharge;
+        size++;
+
+        minCheckoutDay = Math.min(minCheckoutDay, checkoutEpochDay);
+        maxCheckoutDay = Math.max(maxCheckoutDay, checkoutEpochDay);
+    }
+
+    /**
+     * Returns the number of agreements stored.
+     *
+     * @return the number of agreements
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Totals the final charges of the agreements checked out in a date range.
+     *
+     * @param from the first checkout date
+     * @param to   the last checkout date
+     * @return the total revenue
+     * @throws IllegalArgumentException if to is before from
+     */
+    public BigDecimal totalRevenue(LocalDate from, LocalDate to) {
+        Snapshot snapshot = snapshot();
+        DayRange range = snapshot.clamp(from, to);
+
+        if (range == null) {
+            return Cents.toBigDecimal(0);
+        }
+
+        long[] total = aggregate(snapshot, 1, (start, end, sums) -> {
+            int[] days = snapshot.checkoutDays();
+            long[] charges = snapshot.finalCharges();
+            int first = range.first();
+            int span = range.span();
+            long sum = 0;
+
+            for (int i = start; i < end; i++) {
+                int offset = days[i] - first;
+                sum += offset >= 0 && offset < span ? charges[i] : 0;
+            }
+
+            sums[0] += sum;
+        });
+
+        return Cents.toBigDecimal(total[0]);
+    }
+
+    /**
+     * Totals the final charges of the agreements checked out in a date range by month and tool type.
+     *
+     * @param from the first checkout date
+     * @param to   the last checkout date
+     * @return the revenue of each tool type rented in each month, for months with agreements, in month order
+     * @throws IllegalArgumentException if to is before from
+     */
+    public SortedMap<YearMonth, Map<ToolType, BigDecimal>> revenueByMonthAndToolType(LocalDate from, LocalDate to) {
+        Snapshot snapshot = snapshot();
+        DayRange range = snapshot.clamp(from, to);
+        SortedMap<YearMonth, Map<ToolType, BigDecimal>> report = new TreeMap<>();
+
+        if (range == null) {
+            return report;
+        }
+
+        // Map each day in the range to its month once, rather than working out the month of every row.
+        long firstMonth = EpochDays.monthIndexOf(range.first());
+        int months = (int) (EpochDays.monthIndexOf(range.first() + range.span() - 1) - firstMonth + 1);
+        int[] monthOfDay = new int[range.span()];
+        for (int offset = 0; offset < range.span(); offset++) {
+            monthOfDay[offset] = (int) (EpochDays.monthIndexOf(range.first() + offset) - firstMonth);
+        }
+
+        int groups = months * TOOL_TYPES.length;
+        // Slot groups + g counts the rows of group g, so months with only free rentals still appear.
+        long[] totals = aggregate(snapshot, 2 * groups, (start, end, sums) -> {
+            int[] days = snapshot.checkoutDays();
+            byte[] toolTypes = snapshot.toolTypes();
+            long[] charges = snapshot.finalCharges();
+            int first = range.first();
+            int span = range.span();
+
+            for (int i = start; i < end; i++) {
+                int offset = days[i] - first;
+
+                if (offset >= 0 && offset < span) {
+                    int group = monthOfDay[offset] * TOOL_TYPES.length + toolTypes[i];
+                    sums[group] += charges[i];
+                    sums[groups + group]++;
+                }
+            }
+        });
+
+        for (int month = 0; month < months; month++) {
+            Map<ToolType, BigDecimal> revenue = new EnumMap<>(ToolType.class);
+
+            for (int type = 0; type < TOOL_TYPES.length; type++) {
+                int group = month * TOOL_TYPES.length + type;
+
+                if (totals[groups + group] > 0) {
+                    revenue.put(TOOL_TYPES[type], Cents.toBigDecimal(totals[group]));
+                }
+            }
+
+            if (!revenue.isEmpty()) {
+                long monthIndex = firstMonth + month;
+                report.put(YearMonth.of((int) Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1),
+                        revenue);
+            }
+        }
+
+        return report;
+    }
+
+    /**
+     * Totals the discounts given on the agreements checked out in a date range by brand.
+     *
+     * @param from the first checkout date
+     * @param to   the last checkout date
+     * @return the total discount of each brand rented, in brand order
+     * @throws IllegalArgumentException if to is before from
+     */
+    public SortedMap<String, BigDecimal> discountsByBrand(LocalDate from, LocalDate to) {
+        Snapshot snapshot = snapshot();
+        DayRange range = snapshot.clamp(from, to);
+        SortedMap<String, BigDecimal> report = new TreeMap<>();
+
+        if (range == null) {
+            return report;
+        }
+
+        int brandCount = snapshot.brandNames().length;
+        // Slot brandCount + id counts the rows of each brand, so brands with no discount still appear.
+        long[] totals = aggregate(snapshot, 2 * brandCount, (start, end, sums) -> {
+            int[] days = snapshot.checkoutDays();
+            int[] brands = snapshot.brands();
+            long[] discounts = snapshot.discounts();
+            int first = range.first();
+            int span = range.span();
+
+            for (int i = start; i < end; i++) {
+                int offset = days[i] - first;
+
+                if (offset >= 0 && offset < span) {
+                    sums[brands[i]] += discounts[i];
+                    sums[brandCount + brands[i]]++;
+                }
+            }
+        });
+
+        for (int brand = 0; brand < brandCount; brand++) {
+            if (totals[brandCount + brand] > 0) {
+                report.put(snapshot.brandNames()[brand], Cents.toBigDecimal(totals[brand]));
+            }
+        }
+
+        return report;
+    }
+
+    /**
+     * Returns the average number of days charged per agreement checked out in a date range.
+     *
+     * @param from the first checkout date
+     * @param to   the last checkout date
+     * @return the average charge days, or 0 if no agreements were checked out in the range
+     * @throws IllegalArgumentException if to is before from
+     */
+    public double averageChargeDays(LocalDate from, LocalDate to) {
+        Snapshot snapshot = snapshot();
+        DayRange range = snapshot.clamp(from, to);
+
+        if (range == null) {
+            return 0;
+        }
+
+        long[] totals = aggregate(snapshot, 2, (start, end, sums) -> {
+            int[] days = snapshot.checkoutDays();
+            int[] chargeDays = snapshot.chargeDays();
+            int first = range.first();
+            int span = range.span();
+            long sum = 0;
+            long count = 0;
+
+            for (int i = start; i < end; i++) {
+                int offset = days[i] - first;
+                boolean included = offset >= 0 && offset < span;
+                sum += included ? chargeDays[i] : 0;
+                count += included ? 1 : 0;
+            }
+
+            sums[0] += sum;
+            sums[1] += count;
+        });
+
+        return totals[1] == 0 ? 0 : (double) totals[0] / totals[1];
+    }
+
+    /**
+     * Aggregates the rows of a snapshot into an array of sums, one chunk of rows per parallel task.
+     *
+     * @param snapshot   the rows
+     * @param groups     the number of sums
+     * @param aggregator adds a chunk of rows into a fresh array of sums
+     * @return the sums over all rows
+     */
+    private static long[] aggregate(Snapshot snapshot, int groups, ChunkAggregator aggregator) {
+        int chunks = (snapshot.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    long[] sums = new long[groups];
+                    int start = chunk * CHUNK_SIZE;
+                    aggregator.aggregate(start, Math.min(start + CHUNK_SIZE, snapshot.size()), sums);
+
+                    return sums;
+                })
+                .reduce(new long[groups], (left, right) -> {
+                    long[] merged = new long[groups];
+                    Arrays.setAll(merged, i -> left[i] + right[i]);
+
+                    return merged;
+                });
+    }
+
+    /**
+     * Returns a consistent view of the rows added so far. Columns are only ever appended to, and a grown column is a
+     * copy, so the view stays valid while more rows are added.
+     *
+     * @return the rows added so far
+     */
+    private synchronized Snapshot snapshot() {
+        return new Snapshot(size, checkoutDays, toolTypes, brands, chargeDays, discounts, finalCharges,
+                Arrays.copyOf(brandNames, brandIds.size()), minCheckoutDay, maxCheckoutDay);
+    }
+
+    /**
+     * Doubles the capacity of every column.
+     */
+    private void grow() {
+        int capacity = Math.max(16, checkoutDays.length * 2);
+
+        checkoutDays = Arrays.copyOf(checkoutDays, capacity);
+        toolTypes = Arrays.copyOf(toolTypes, capacity);
+        brands = Arrays.copyOf(brands, capacity);
+        chargeDays = Arrays.copyOf(chargeDays, capacity);
+        discounts = Arrays.copyOf(discounts, capacity);
+        finalCharges = Arrays.copyOf(finalCharges, capacity);
+    }
+
+    /**
+     * Returns the dictionary index of a brand, adding it if new.
+     *
+     * @param brand the brand
+     * @return the brand's index
+     */
+    private int brandId(String brand) {
+        Integer id = brandIds.get(brand);
+
+        if (id == null) {
+            id = brandIds.size();
+            brandIds.put(brand, id);
+
+            if (id == brandNames.length) {
+                brandNames = Arrays.copyOf(brandNames, id * 2);
+            }
+            brandNames[id] = brand;
+        }
+
+        return id;
+    }
+
+    /**
+     * Adds a chunk of rows into an array of sums.
+     */
+    @FunctionalInterface
+    private interface ChunkAggregator {
+        void aggregate(int start, int end, long[] sums);
+    }
+
+    /**
+     * A range of checkout days.
+     *
+     * @param first the first day, as an epoch day
+     * @param span  the number of days
+     */
+    private record DayRange(int first, int span) {
+    }
+
+    /**
+     * The rows of the store at one point in time.
+     */
+    private record Snapshot(int size, int[] checkoutDays, byte[] toolTypes, int[] brands, int[] chargeDays,
+                            long[] discounts, long[] finalCharges, String[] brandNames, int minCheckoutDay,
+                            int maxCheckoutDay) {
+        /**
+         * Narrows a requested date range to the checkout days actually stored.
+         *
+         * @param from the first checkout date
+         * @param to   the last checkout date
+         * @return the narrowed range, or {@code null} if no stored row can fall in it
+         * @throws IllegalArgumentException if to is before from
+         */
+        DayRange clamp(LocalDate from, LocalDate to) {
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("Report must end on or after the day it starts.");
+            }
+
+            long first = Math.max(from.toEpochDay(), minCheckoutDay);
+            long last = Math.min(to.toEpochDay(), maxCheckoutDay);
+
+            return first > last ? null : new DayRange((int) first, (int) (last - first + 1));
+        }
+    }
+}
@@ -1,5 +1,9 @@
+package toolrental;
+
+import java.io.Serializable;
+
 /**
  * Represents a tool with its associated information.
  */
-public record Tool(String toolCode, ToolType toolType, String brand) {
+public record Tool(String toolCode, ToolType toolType, String brand) implements Serializable {
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+package toolrental;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, hash-indexed catalog of the tools available for rent.
+ * <p>
+ * The catalog is read from a text file with one tool per line in the form {@code code,TOOL_TYPE,brand}, where
+ * {@code TOOL_TYPE} is the name of a {@link ToolType} constant. Blank lines and lines starting with {@code #} are
+ * ignored. Lookups return the same {@link Tool} instance every time and never allocate. Reloading builds a new index
+ * and swaps it in, so checkouts already running keep using the index they started with.
+ */
+public final class ToolCatalog {
+    /**
+     * The classpath resource holding the default catalog.
+     */
+    private static final String DEFAULT_RESOURCE = "/tools.csv";
+
+    private volatile Map<String, Tool> tools;
+
+    /**
+     * Constructs a ToolCatalog indexing the specified tools.
+     *
+     * @param tools the tools, keyed by tool code
+     */
+    private ToolCatalog(Map<String, Tool> tools) {
+        this.tools = tools;
+    }
+
+    /**
+     * Returns the catalog loaded from the {@code tools.csv} resource the first time it is asked for.
+     *
+     * @return the default catalog
+     */
+    public static ToolCatalog getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Loads a catalog from a file.
+     *
+     * @param file the catalog file
+     * @return the loaded catalog
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static ToolCatalog load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Reads a catalog from a reader.
+     *
+     * @param reader the reader supplying the catalog text
+     * @return the catalog
+     * @throws IOException              if the reader fails
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    public static ToolCatalog read(Reader reader) throws IOException {
+        return new ToolCatalog(parse(reader));
+    }
+
+    /**
+     * Creates a catalog of tools already in memory, for example read from a snapshot.
+     *
+     * @param tools the tools
+     * @return the catalog
+     * @throws IllegalArgumentException if two tools have the same code
+     */
+    static ToolCatalog of(Collection<Tool> tools) {
+        Map<String, Tool> index = new HashMap<>();
+
+        for (Tool tool : tools) {
+            if (index.putIfAbsent(tool.toolCode(), tool) != null) {
+                throw new IllegalArgumentException("Duplicate tool code: " + tool.toolCode());
+            }
+        }
+
+        return new ToolCatalog(Map.copyOf(index));
+    }
+
+    /**
+     * Replaces the contents of this catalog with the tools in a file. Lookups in progress are not blocked; they
+     * complete against the previous contents.
+     *
+     * @param file the catalog file
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed, in which case the catalog is left unchanged
+     */
+    public void reload(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            tools = parse(reader);
+        }
+    }
+
+    /**
+     * Retrieves a tool by its code.
+     *
+     * @param toolCode the code of the tool
+     * @return the tool with the specified code, or {@code null} if there is none
+     */
+    public Tool get(String toolCode) {
+        return tools.get(toolCode);
+    }
+
+    /**
+     * Returns the tools in the catalog.
+     *
+     * @return the tools, in no particular order
+     */
+    Collection<Tool> tools() {
+        return tools.values();
+    }
+
+    /**
+     * Returns the number of tools in the catalog.
+     *
+     * @return the number of tools
+     */
+    public int size() {
+        return tools.size();
+    }
+
+    /**
+     * Parses catalog text into an immutable index keyed by tool code. Brands are interned so tools of the same brand
+     * share one string.
+     *
+     * @param reader the reader supplying the catalog text
+     * @return the tools keyed by tool code
+     * @throws IOException              if the reader fails
+     * @throws IllegalArgumentException if the text is malformed or repeats a tool code
+     */
+    private static Map<String, Tool> parse(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader bufferedReader
+                ? bufferedReader : new BufferedReader(reader);
+        Map<String, Tool> tools = new HashMap<>();
+        Map<String, String> brands = new HashMap<>();
+        int lineNumber = 0;
+        String line;
+
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split(",", -1);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Invalid tool catalog line " + lineNumber + ": " + line);
+            }
+
+            String toolCode = fields[0].strip();
+            String brand = brands.computeIfAbsent(fields[2].strip(), b -> b);
+            ToolType toolType;
+
+            try {
+                toolType = ToolType.valueOf(fields[1].strip());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid tool type on tool catalog line " + lineNumber + ": "
+                        + fields[1].strip());
+            }
+
+            if (tools.putIfAbsent(toolCode, new Tool(toolCode, toolType, brand)) != null) {
+                throw new IllegalArgumentException("Duplicate tool code on tool catalog line " + lineNumber + ": "
+                        + toolCode);
+            }
+        }
+
+        return Map.copyOf(tools);
+    }
+
+    /**
+     * Loads the default catalog from the classpath.
+     *
+     * @return the default catalog
+     */
+    private static ToolCatalog loadDefault() {
+        try (InputStream in = ToolCatalog.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing tool catalog resource " + DEFAULT_RESOURCE);
+            }
+
+            return read(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Holds the default catalog, so it is loaded on first use rather than whenever the class is, and processes that
+     * only build catalogs of their own never read the resource.
+     */
+    private static final class DefaultHolder {
+        private static final ToolCatalog DEFAULT = loadDefault();
+    }
+}
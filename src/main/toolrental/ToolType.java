@@ -1,14 +1,17 @@
+package toolrental;
+
 import java.math.BigDecimal;
 
 /**
  * Represents the type of tool with its associated properties.
  */
 public enum ToolType {
-    LADDER("Ladder", BigDecimal.valueOf(1.99), true, true, false),
-    CHAINSAW("Chainsaw", BigDecimal.valueOf(1.49), true, false, true),
-    JACKHAMMER("Jackhammer", BigDecimal.valueOf(2.99), true, false, false);
+    LADDER("Ladder", 199, true, true, false),
+    CHAINSAW("Chainsaw", 149, true, false, true),
+    JACKHAMMER("Jackhammer", 299, true, false, false);
 
     private final String name;
+    private final long dailyChargeCents;
     private final BigDecimal dailyCharge;
     private final boolean weekdayCharge;
     private final boolean weekendCharge;
@@ -17,16 +20,17 @@ public enum ToolType {
     /**
      * Constructs a ToolType with the specified properties.
      *
-     * @param name           the name of the tool type
-     * @param dailyCharge    the daily charge for renting the tool
-     * @param weekdayCharge  indicates if there is a charge on weekdays
-     * @param weekendCharge  indicates if there is a charge on weekends
-     * @param holidayCharge  indicates if there is a charge on holidays
+     * @param name             the name of the tool type
+     * @param dailyChargeCents the daily charge for renting the tool, in cents
+     * @param weekdayCharge    indicates if there is a charge on weekdays
+     * @param weekendCharge    indicates if there is a charge on weekends
+     * @param holidayCharge    indicates if there is a charge on holidays
      */
-    ToolType(String name, BigDecimal dailyCharge, boolean weekdayCharge,
+    ToolType(String name, long dailyChargeCents, boolean weekdayCharge,
              boolean weekendCharge, boolean holidayCharge) {
         this.name = name;
-        this.dailyCharge = dailyCharge;
+        this.dailyChargeCents = dailyChargeCents;
+        this.dailyCharge = Cents.toBigDecimal(dailyChargeCents);
         this.weekdayCharge = weekdayCharge;
         this.weekendCharge = weekendCharge;
         this.holidayCharge = holidayCharge;
@@ -50,6 +54,15 @@ public enum ToolType {
         return dailyCharge;
     }
 
+    /**
+     * Returns the daily charge for renting the tool, in cents.
+     *
+     * @return the daily charge for renting the tool, in cents
+     */
+    public long getDailyChargeCents() {
+        return dailyChargeCents;
+    }
+
     /**
      * Checks if there is a charge on weekdays.
      *
@@ -0,0 +1,176 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class AgreementCodecTest {
+    private final AgreementCodec codec = new AgreementCodec(ToolCatalog.getDefault());
+
+    @Test
+    void testCheckoutAgreementsRoundTrip() {
+        Random random = new Random(18);
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        ByteBuffer buffer = ByteBuffer.allocate(1000 * AgreementCodec.AGREEMENT_SIZE);
+        List<RentalAgreement> agreements = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            RentalAgreement agreement = Checkout.checkoutTool(toolCodes[random.nextInt(toolCodes.length)],
+                    1 + random.nextInt(400), random.nextInt(101),
+                    (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/" + (10 + random.nextInt(90)));
+            agreements.add(agreement);
+            codec.putAgreement(agreement, buffer);
+        }
+
+        Assertions.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        for (RentalAgreement agreement : agreements) {
+            RentalAgreement decoded = codec.getAgreement(buffer);
+
+            Assertions.assertEquals(agreement, decoded);
+            Assertions.assertEquals(agreement.toString(), decoded.toString());
+            Assertions.assertSame(ToolCatalog.getDefault().get(agreement.tool().toolCode()), decoded.tool());
+        }
+    }
+
+    @Test
+    void testArbitraryAgreementsRoundTrip() {
+        Random random = new Random(180);
+        ByteBuffer buffer = ByteBuffer.allocate(AgreementCodec.AGREEMENT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int i = 0; i < 10_000; i++) {
+            Tool tool = ToolCatalog.getDefault().get(i % 2 == 0 ? "LADW" : "JAKR");
+            RentalAgreement agreement = new RentalAgreement(tool, random.nextInt(),
+                    LocalDate.ofEpochDay(random.nextInt()), LocalDate.ofEpochDay(random.nextInt()),
+                    amount(random), random.nextInt(), amount(random), random.nextInt(101), amount(random),
+                    amount(random));
+
+            buffer.clear();
+            codec.putAgreement(agreement, buffer);
+            Assertions.assertEquals(AgreementCodec.AGREEMENT_SIZE, buffer.position());
+
+            buffer.flip();
+            Assertions.assertEquals(agreement, codec.getAgreement(buffer));
+        }
+    }
+
+    @Test
+    void testToolsAndToolTypesRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        for (ToolType toolType : ToolType.values()) {
+            codec.putToolType(toolType, buffer);
+        }
+        for (String toolCode : new String[]{"CHNS", "JAKD", "JAKR", "LADW"}) {
+            codec.putTool(ToolCatalog.getDefault().get(toolCode), buffer);
+        }
+
+        Assertions.assertEquals(ToolType.values().length * AgreementCodec.TOOL_TYPE_SIZE
+                + 4 * AgreementCodec.TOOL_SIZE, buffer.position());
+        buffer.flip();
+
+        for (ToolType toolType : ToolType.values()) {
+            Assertions.assertSame(toolType, codec.getToolType(buffer));
+        }
+        for (String toolCode : new String[]{"CHNS", "JAKD", "JAKR", "LADW"}) {
+            Assertions.assertSame(ToolCatalog.getDefault().get(toolCode), codec.getTool(buffer));
+        }
+    }
+
+    @Test
+    void testIdsFollowToolCodeOrder() throws IOException {
+        ToolCatalog catalog = ToolCatalog.read(new java.io.StringReader("ZZZZ,LADDER,Acme\nAAAA,CHAINSAW,Acme\n"));
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+
+        new AgreementCodec(catalog).putTool(catalog.get("ZZZZ"), buffer);
+        new AgreementCodec(catalog).putTool(catalog.get("AAAA"), buffer);
+
+        Assertions.assertArrayEquals(new byte[]{0, 1, 0, 0}, buffer.array());
+    }
+
+    @Test
+    void testRejectsToolsOutsideCatalog() {
+        ByteBuffer buffer = ByteBuffer.allocate(AgreementCodec.AGREEMENT_SIZE);
+        RentalAgreement agreement = Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        Tool rebranded = new Tool("LADW", ToolType.LADDER, "Louisville");
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> codec.putTool(new Tool("XXXX", ToolType.LADDER, "Werner"), buffer));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.putAgreement(new RentalAgreement(
+                rebranded, 3, agreement.checkoutDate(), agreement.dueDate(), agreement.dailyRentalCharge(),
+                agreement.chargeDays(), agreement.preDiscountCharge(), agreement.discountPercent(),
+                agreement.discountAmount(), agreement.finalCharge()), buffer));
+        Assertions.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testRejectsFractionalCents() {
+        ByteBuffer buffer = ByteBuffer.allocate(AgreementCodec.AGREEMENT_SIZE);
+        RentalAgreement agreement = Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        RentalAgreement fractional = new RentalAgreement(agreement.tool(), 3, agreement.checkoutDate(),
+                agreement.dueDate(), agreement.dailyRentalCharge(), agreement.chargeDays(),
+                agreement.preDiscountCharge(), agreement.discountPercent(), new BigDecimal("0.395"),
+                agreement.finalCharge());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.putAgreement(fractional, buffer));
+        Assertions.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testBufferBounds() {
+        RentalAgreement agreement = Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        ByteBuffer small = ByteBuffer.allocate(AgreementCodec.AGREEMENT_SIZE - 1);
+
+        Assertions.assertThrows(BufferOverflowException.class, () -> codec.putAgreement(agreement, small));
+        Assertions.assertEquals(0, small.position());
+        Assertions.assertThrows(BufferUnderflowException.class, () -> codec.getAgreement(small));
+        Assertions.assertEquals(0, small.position());
+    }
+
+    @Test
+    void testRejectsCorruptBytes() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> codec.getTool(ByteBuffer.wrap(new byte[]{0, 4})));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> codec.getToolType(ByteBuffer.wrap(new byte[]{(byte) 200})));
+
+        ByteBuffer buffer = ByteBuffer.allocate(AgreementCodec.AGREEMENT_SIZE);
+        codec.putAgreement(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"), buffer);
+        buffer.put(AgreementCodec.TOOL_SIZE + 4 * Integer.BYTES + 2 * Long.BYTES, (byte) 101).flip();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.getAgreement(buffer));
+    }
+
+    @Test
+    void testSmallerThanJavaSerializationAndText() throws IOException {
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 9, 0, "7/2/15");
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(agreement);
+        }
+
+        Assertions.assertTrue(AgreementCodec.AGREEMENT_SIZE * 10 < serialized.size(),
+                "serialized " + serialized.size());
+        Assertions.assertTrue(AgreementCodec.AGREEMENT_SIZE * 4 < agreement.toString()
+                .getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static BigDecimal amount(Random random) {
+        return BigDecimal.valueOf(random.nextLong() >> 8, 2);
+    }
+}
@@ -0,0 +1,420 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+public class AgreementJournalTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("agreements", ".journal");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testAppendAndReplay() throws IOException {
+        List<RentalAgreement> agreements = sampleAgreements();
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> Assertions.fail("empty"))) {
+            for (RentalAgreement agreement : agreements) {
+                journal.append(agreement);
+            }
+        }
+
+        Assertions.assertEquals(agreements, replay());
+    }
+
+    @Test
+    void testReplaySharesCatalogTools() throws IOException {
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            journal.append(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"));
+        }
+
+        Assertions.assertSame(ToolCatalog.getDefault().get("LADW"), replay().get(0).tool());
+    }
+
+    @Test
+    void testCommitMakesAppendsVisibleOnDisk() throws IOException {
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            long position = journal.append(Checkout.checkoutTool("CHNS", 5, 25, "7/2/15"));
+            Assertions.assertEquals(0, Files.size(file));
+
+            journal.commit(position);
+            Assertions.assertEquals(position, Files.size(file));
+        }
+    }
+
+    @Test
+    void testRecoveryTruncatesTornRecord() throws IOException {
+        List<RentalAgreement> agreements = sampleAgreements();
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            for (RentalAgreement agreement : agreements) {
+                journal.append(agreement);
+            }
+        }
+
+        long fullSize = Files.size(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(fullSize - 5);
+        }
+
+        List<RentalAgreement> recovered = replay();
+        Assertions.assertEquals(agreements.subList(0, agreements.size() - 1), recovered);
+        Assertions.assertTrue(Files.size(file) < fullSize - 5);
+
+        // Appending after recovery continues from the last good record.
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            journal.append(agreements.get(agreements.size() - 1));
+        }
+
+        Assertions.assertEquals(agreements, replay());
+        Assertions.assertEquals(fullSize, Files.size(file));
+    }
+
+    @Test
+    void testCorruptRecordBeforeEndFailsOpen() throws IOException {
+        List<RentalAgreement> agreements = sampleAgreements();
+        long secondRecord;
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            secondRecord = journal.append(agreements.get(0));
+            for (RentalAgreement agreement : agreements.subList(1, agreements.size())) {
+                journal.append(agreement);
+            }
+        }
+
+        long size = Files.size(file);
+        flipByte(secondRecord + 12);
+
+        // Intact records follow the damaged one, so it is not a torn write and nothing may be truncated.
+        IOException e = Assertions.assertThrowsExactly(IOException.class, this::replay);
+        Assertions.assertEquals("Corrupt record at offset " + secondRecord + ": checksum mismatch", e.getMessage());
+        Assertions.assertEquals(size, Files.size(file));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(secondRecord);
+            raf.writeInt(-1);
+        }
+
+        e = Assertions.assertThrowsExactly(IOException.class, this::replay);
+        Assertions.assertEquals("Corrupt record at offset " + secondRecord + ": invalid length -1", e.getMessage());
+        Assertions.assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    void testRecoveryTruncatesCorruptFinalRecord() throws IOException {
+        List<RentalAgreement> agreements = sampleAgreements();
+        long lastRecord = 0;
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            for (RentalAgreement agreement : agreements.subList(0, agreements.size() - 1)) {
+                lastRecord = journal.append(agreement);
+            }
+            journal.append(agreements.get(agreements.size() - 1));
+        }
+
+        flipByte(Files.size(file) - 1);
+
+        Assertions.assertEquals(agreements.subList(0, agreements.size() - 1), replay());
+        Assertions.assertEquals(lastRecord, Files.size(file));
+    }
+
+    @Test
+    void testRecoveryTruncatesZeroTail() throws IOException {
+        List<RentalAgreement> agreements = sampleAgreements();
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            for (RentalAgreement agreement : agreements) {
+                journal.append(agreement);
+            }
+        }
+
+        // A crash can leave the file extended with blocks that were never written.
+        long size = Files.size(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size + 4096);
+        }
+
+        Assertions.assertEquals(agreements, replay());
+        Assertions.assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    void testWriteFailureFailsJournal() throws IOException {
+        List<RentalAgreement> agreements = sampleAgreements();
+        FailingChannel channel = new FailingChannel(FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+        AgreementJournal journal = AgreementJournal.open(channel, agreement -> { });
+        long durable = journal.append(agreements.get(0));
+        journal.commit();
+
+        journal.append(agreements.get(1));
+        journal.append(agreements.get(2));
+        channel.failAfter = 5;
+
+        // The write fails partway through, so neither record may be reported durable, now or later.
+        Assertions.assertThrowsExactly(IOException.class, journal::commit);
+        channel.failAfter = -1;
+        Assertions.assertThrowsExactly(IOException.class, () -> journal.append(agreements.get(3)));
+        Assertions.assertThrowsExactly(IOException.class, journal::commit);
+        Assertions.assertThrowsExactly(IOException.class, journal::close);
+        Assertions.assertFalse(channel.isOpen());
+
+        Assertions.assertEquals(agreements.subList(0, 1), replay());
+        Assertions.assertEquals(durable, Files.size(file));
+    }
+
+    @Test
+    void testReplayRejectsUnknownToolType() throws IOException {
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            journal.append(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"));
+        }
+
+        // Overwrite the tool type that follows the "LADW" tool code and re-seal the record, so only decoding fails.
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[8 + 2 + 4] = (byte) 0xFF;
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 8, bytes.length - 8);
+        ByteBuffer.wrap(bytes).putInt(4, (int) crc.getValue());
+        Files.write(file, bytes);
+
+        IllegalArgumentException e = Assertions.assertThrowsExactly(IllegalArgumentException.class, this::replay);
+        Assertions.assertEquals("Invalid tool type ordinal: 255", e.getMessage());
+    }
+
+    @Test
+    void testRejectsFractionalCents() throws IOException {
+        RentalAgreement agreement = new RentalAgreement(new Tool("LADW", ToolType.LADDER, "Werner"), 1,
+                LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 3), new BigDecimal("1.995"), 1,
+                new BigDecimal("1.99"), 0, new BigDecimal("0.00"), new BigDecimal("1.99"));
+
+        try (AgreementJournal journal = AgreementJournal.open(file, a -> { })) {
+            Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> journal.append(agreement));
+            journal.append(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"));
+        }
+
+        Assertions.assertEquals(List.of(Checkout.checkoutTool("LADW", 3, 10, "7/2/20")), replay());
+    }
+
+    @Test
+    void testConcurrentAppendsAndCommits() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        AtomicInteger failures = new AtomicInteger();
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            Thread[] workers = new Thread[threads];
+
+            for (int t = 0; t < threads; t++) {
+                int rentalDays = t + 1;
+                workers[t] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perThread; i++) {
+                            long position = journal.append(Checkout.checkoutTool("JAKD", rentalDays, i % 101, "9/3/15"));
+                            journal.commit(position);
+
+                            if (Files.size(file) < position) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                });
+                workers[t].start();
+            }
+
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+
+        List<RentalAgreement> replayed = replay();
+        Assertions.assertEquals(0, failures.get());
+        Assertions.assertEquals(threads * perThread, replayed.size());
+
+        // Appends from each thread stay in the order that thread made them.
+        int[] nextDiscount = new int[threads];
+        for (RentalAgreement agreement : replayed) {
+            int t = agreement.rentalDays() - 1;
+            Assertions.assertEquals(nextDiscount[t]++ % 101, agreement.discountPercent());
+        }
+    }
+
+    @Test
+    void testManyRecordsAcrossBufferBoundaries() throws IOException {
+        List<RentalAgreement> agreements = new ArrayList<>();
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+
+        try (AgreementJournal journal = AgreementJournal.open(file, agreement -> { })) {
+            for (int i = 0; i < 50_000; i++) {
+                RentalAgreement agreement = Checkout.checkoutTool(toolCodes[i % 4], 1 + i % 60, i % 101, "7/2/15");
+                agreements.add(agreement);
+                journal.append(agreement);
+
+                if (i % 1000 == 0) {
+                    journal.commit();
+                }
+            }
+        }
+
+        Assertions.assertEquals(agreements, replay());
+    }
+
+    /**
+     * A file channel that can be made to fail a write after writing some of it.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel channel;
+        private volatile int failAfter = -1;
+
+        FailingChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failAfter < 0) {
+                return channel.write(src);
+            }
+
+            channel.write(src.slice(src.position(), Math.min(failAfter, src.remaining())));
+            throw new IOException("Injected write failure.");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+
+    private void flipByte(long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xFF);
+        }
+    }
+
+    private List<RentalAgreement> replay() throws IOException {
+        List<RentalAgreement> replayed = new ArrayList<>();
+
+        AgreementJournal.open(file, replayed::add).close();
+
+        return replayed;
+    }
+
+    private static List<RentalAgreement> sampleAgreements() {
+        return List.of(
+                Checkout.checkoutTool("LADW", 3, 10, "7/2/20"),
+                Checkout.checkoutTool("CHNS", 5, 25, "7/2/15"),
+                new RentalAgreement(new Tool("ŁADW", ToolType.LADDER, "Wérner"), 5, LocalDate.of(2023, 6, 15),
+                        LocalDate.of(2023, 6, 20), new BigDecimal("1.99"), 5, new BigDecimal("9.95"), 10,
+                        new BigDecimal("1.00"), new BigDecimal("8.95")),
+                Checkout.checkoutTool("JAKR", 9, 0, "7/02/15"));
+    }
+}
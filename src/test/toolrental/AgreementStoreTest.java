@@ -0,0 +1,161 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AgreementStoreTest {
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKD", "JAKR"};
+
+    @Test
+    void testStoresReplacesAndRemoves() {
+        AgreementStore store = new AgreementStore(ToolCatalog.getDefault(), 0);
+        Map<Long, RentalAgreement> expected = new HashMap<>();
+        Random random = new Random(22);
+
+        for (int i = 0; i < 300_000; i++) {
+            long id = random.nextInt(100_000) * 7919L;
+
+            if (random.nextInt(4) == 0) {
+                Assertions.assertEquals(expected.remove(id) != null, store.remove(id));
+            } else {
+                RentalAgreement agreement = checkout(random);
+                Assertions.assertEquals(expected.put(id, agreement) != null, store.put(id, agreement));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), store.size());
+        // Removed slots are reused, so the store never needed more than it held at its largest.
+        Assertions.assertTrue(store.offHeapBytes() <= 2L * AgreementStore.SLAB_SLOTS * AgreementStore.SLOT_SIZE);
+
+        AgreementStore.View view = new AgreementStore.View();
+
+        for (long id = 0; id < 100_000 * 7919L; id += 7919) {
+            RentalAgreement agreement = expected.get(id);
+
+            Assertions.assertEquals(agreement, store.get(id));
+            Assertions.assertEquals(agreement != null, store.contains(id));
+            Assertions.assertEquals(agreement != null, store.read(id, view));
+
+            if (agreement != null) {
+                Assertions.assertEquals(id, view.getId());
+                Assertions.assertSame(ToolCatalog.getDefault().get(agreement.tool().toolCode()), view.getTool());
+                Assertions.assertEquals(agreement.rentalDays(), view.getRentalDays());
+                Assertions.assertEquals(agreement.checkoutDate().toEpochDay(), view.getCheckoutEpochDay());
+                Assertions.assertEquals(agreement.dueDate().toEpochDay(), view.getDueEpochDay());
+                Assertions.assertEquals(agreement.chargeDays(), view.getChargeDays());
+                Assertions.assertEquals(agreement.discountPercent(), view.getDiscountPercent());
+                Assertions.assertEquals(Cents.of(agreement.finalCharge()), view.getFinalChargeCents());
+                Assertions.assertEquals(agreement, view.toRentalAgreement());
+            }
+        }
+    }
+
+    @Test
+    void testViewKeepsCopyAfterRemoval() {
+        AgreementStore store = new AgreementStore(ToolCatalog.getDefault(), 16);
+        RentalAgreement first = Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        RentalAgreement second = Checkout.checkoutTool("JAKR", 9, 0, "7/2/15");
+        AgreementStore.View view = new AgreementStore.View();
+
+        store.put(1, first);
+        Assertions.assertTrue(store.read(1, view));
+        store.remove(1);
+        store.put(2, second);
+
+        Assertions.assertEquals(first, view.toRentalAgreement());
+        Assertions.assertFalse(store.read(1, view));
+        Assertions.assertEquals(1, view.getId());
+        Assertions.assertEquals(second, store.get(2));
+    }
+
+    @Test
+    void testRejectedAgreementLeavesStoreUnchanged() {
+        AgreementStore store = new AgreementStore(ToolCatalog.getDefault(), 16);
+        RentalAgreement agreement = Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        RentalAgreement fractional = new RentalAgreement(agreement.tool(), 3, agreement.checkoutDate(),
+                agreement.dueDate(), agreement.dailyRentalCharge(), 2, new BigDecimal("3.985"), 10,
+                BigDecimal.ZERO, BigDecimal.ONE);
+        RentalAgreement unknownTool = new RentalAgreement(new Tool("XXXX", ToolType.LADDER, "Acme"), 3,
+                agreement.checkoutDate(), agreement.dueDate(), agreement.dailyRentalCharge(), 2,
+                agreement.preDiscountCharge(), 10, agreement.discountAmount(), agreement.finalCharge());
+
+        store.put(1, agreement);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.put(1, fractional));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.put(2, unknownTool));
+        Assertions.assertEquals(agreement, store.get(1));
+        Assertions.assertFalse(store.contains(2));
+        Assertions.assertEquals(1, store.size());
+    }
+
+    @Test
+    void testReadersSeeWholeAgreementsWhileWriting() throws InterruptedException {
+        AgreementStore store = new AgreementStore(ToolCatalog.getDefault(), 0);
+        Random random = new Random(220);
+        List<RentalAgreement> versions = new ArrayList<>();
+
+        for (int i = 0; i < 64; i++) {
+            versions.add(checkout(random));
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int r = 0; r < 3; r++) {
+            int seed = r;
+            Thread reader = new Thread(() -> {
+                AgreementStore.View view = new AgreementStore.View();
+                Random ids = new Random(seed);
+
+                try {
+                    while (!done.get()) {
+                        long id = ids.nextInt(1_000);
+
+                        if (store.read(id, view)) {
+                            Assertions.assertEquals(id, view.getId());
+                            Assertions.assertTrue(versions.contains(view.toRentalAgreement()));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int i = 0; i < 300_000; i++) {
+            long id = random.nextInt(1_000);
+
+            if (random.nextInt(3) == 0) {
+                store.remove(id);
+            } else {
+                store.put(id, versions.get(random.nextInt(versions.size())));
+            }
+        }
+
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        Assertions.assertNull(failure.get());
+    }
+
+    private static RentalAgreement checkout(Random random) {
+        return Checkout.checkoutTool(TOOL_CODES[random.nextInt(TOOL_CODES.length)], 1 + random.nextInt(400),
+                random.nextInt(101), (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/"
+                        + (10 + random.nextInt(90)));
+    }
+}
@@ -0,0 +1,45 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public class CentsTest {
+    @Test
+    void testPercentOfMatchesBigDecimalRounding() {
+        for (long cents = 0; cents <= 20_000; cents++) {
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+
+            for (int percent = 0; percent <= 100; percent++) {
+                BigDecimal discount = BigDecimal.valueOf(percent).divide(BigDecimal.valueOf(100));
+                BigDecimal expected = amount.multiply(discount).setScale(2, RoundingMode.HALF_UP);
+
+                Assertions.assertEquals(expected, Cents.toBigDecimal(Cents.percentOf(cents, percent)),
+                        percent + "% of " + amount);
+            }
+        }
+    }
+
+    @Test
+    void testPercentOfNegativeAmount() {
+        Assertions.assertEquals(-3, Cents.percentOf(-5, 50));
+        Assertions.assertEquals(-1, Cents.percentOf(-5, 20));
+    }
+
+    @Test
+    void testMultiply() {
+        Assertions.assertEquals(1495, Cents.multiply(299, 5));
+        Assertions.assertThrows(ArithmeticException.class, () -> Cents.multiply(Long.MAX_VALUE, 2));
+    }
+
+    @Test
+    void testConversions() {
+        Assertions.assertEquals(new BigDecimal("3.98"), Cents.toBigDecimal(398));
+        Assertions.assertEquals(new BigDecimal("0.00"), Cents.toBigDecimal(0));
+        Assertions.assertEquals(199, Cents.of(BigDecimal.valueOf(1.99)));
+        Assertions.assertEquals(100, Cents.of(new BigDecimal("1")));
+        Assertions.assertThrows(ArithmeticException.class, () -> Cents.of(new BigDecimal("1.005")));
+    }
+}
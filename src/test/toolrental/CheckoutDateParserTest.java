@@ -0,0 +1,88 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+public class CheckoutDateParserTest {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("M/d/yy");
+
+    @Test
+    void testParse() {
+        Assertions.assertEquals(LocalDate.of(2015, 9, 3), CheckoutDateParser.parse("9/3/15"));
+        Assertions.assertEquals(LocalDate.of(2015, 9, 3), CheckoutDateParser.parse("9/03/15"));
+        Assertions.assertEquals(LocalDate.of(2020, 7, 2), CheckoutDateParser.parse("07/02/20"));
+        Assertions.assertEquals(LocalDate.of(2020, 7, 2), CheckoutDateParser.parse("007/2/20"));
+        Assertions.assertEquals(LocalDate.of(2000, 12, 31), CheckoutDateParser.parse("12/31/00"));
+        Assertions.assertEquals(LocalDate.of(2099, 1, 1), CheckoutDateParser.parse("1/1/99"));
+    }
+
+    @Test
+    void testParseClampsDayToEndOfMonth() {
+        Assertions.assertEquals(LocalDate.of(2021, 2, 28), CheckoutDateParser.parse("2/30/21"));
+        Assertions.assertEquals(LocalDate.of(2020, 2, 29), CheckoutDateParser.parse("2/31/20"));
+        Assertions.assertEquals(LocalDate.of(2020, 4, 30), CheckoutDateParser.parse("4/31/20"));
+    }
+
+    @Test
+    void testParseInvalid() {
+        String[] invalid = {"", "/", "//", "7/2/", "7//20", "/2/20", "0/2/20", "13/2/20", "7/0/20", "7/32/20",
+                "7/2/5", "7/2/150", "-7/2/20", "+7/2/20", "7/2/+5", " 7/2/20", "7/2/20 ", "7-2-20", "7/2/20/",
+                "00000000000000000007/2/20", "July 2, 2020"};
+
+        for (String text : invalid) {
+            Assertions.assertEquals(CheckoutDateParser.INVALID, CheckoutDateParser.parseEpochDay(text), text);
+            Assertions.assertNull(CheckoutDateParser.parse(text), text);
+        }
+    }
+
+    @Test
+    void testParseMatchesFormatterOnWellFormedDates() {
+        String[] years = new String[102];
+        for (int year = 0; year < 100; year++) {
+            years[year] = String.format("%02d", year);
+        }
+        years[100] = "5";
+        years[101] = "150";
+
+        for (int month = 0; month <= 13; month++) {
+            for (int day = 0; day <= 32; day++) {
+                for (String year : years) {
+                    assertParsesLikeFormatter(month + "/" + day + "/" + year);
+                    assertParsesLikeFormatter(String.format("%02d/%02d/%s", month, day, year));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParseMatchesFormatterOnRandomInput() {
+        Random random = new Random(42);
+        char[] alphabet = "0123456789//+- x".toCharArray();
+
+        for (int i = 0; i < 200_000; i++) {
+            char[] text = new char[random.nextInt(12)];
+            for (int j = 0; j < text.length; j++) {
+                text[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+
+            assertParsesLikeFormatter(new String(text));
+        }
+    }
+
+    private static void assertParsesLikeFormatter(String text) {
+        LocalDate expected;
+
+        try {
+            expected = LocalDate.parse(text, FORMATTER);
+        } catch (DateTimeParseException e) {
+            expected = null;
+        }
+
+        Assertions.assertEquals(expected, CheckoutDateParser.parse(text), text);
+    }
+}
@@ -0,0 +1,198 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class CheckoutImportTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("checkouts", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testImportsAndRejectsLines() throws IOException {
+        Files.writeString(file, """
+                # tool code, days, discount, date
+                LADW,3,10,7/2/20
+                 CHNS , 5 , 25 , 7/2/15\r
+
+                JAKR,0,10,7/2/20
+                XXXX,3,10,7/2/20
+                JAKR,five,10,7/2/20
+                JAKR,5,0
+                JAKR,5,0,9/3/15,extra
+                JAKD,6,0,9/3/15""");
+        Results results = new Results();
+
+        CheckoutImport.Report report = CheckoutImport.importFile(file, results, 2);
+
+        Assertions.assertEquals(3, report.accepted());
+        Assertions.assertEquals(5, report.rejected());
+        Assertions.assertEquals(8, report.records());
+        Assertions.assertTrue(report.recordsPerSecond() > 0);
+
+        Assertions.assertEquals(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"), results.agreements.get(2L));
+        Assertions.assertEquals(Checkout.checkoutTool("CHNS", 5, 25, "7/2/15"), results.agreements.get(3L));
+        Assertions.assertEquals(Checkout.checkoutTool("JAKD", 6, 0, "9/3/15"), results.agreements.get(10L));
+        Assertions.assertEquals(Map.of(
+                5L, "Rental day count must be 1 or greater.",
+                6L, "Invalid tool code: XXXX",
+                7L, "Invalid rentalDays: five",
+                8L, "Expected 4 fields: toolCode,rentalDays,discountPercent,checkoutDate",
+                9L, "Expected 4 fields: toolCode,rentalDays,discountPercent,checkoutDate"), results.errors);
+    }
+
+    @Test
+    void testMatchesCheckoutToolAcrossManyBatches() throws IOException {
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR", "BAD"};
+        Random random = new Random(17);
+        StringBuilder text = new StringBuilder();
+        Map<Long, Object> expected = new TreeMap<>();
+
+        for (long line = 1; line <= 20_000; line++) {
+            String toolCode = toolCodes[random.nextInt(toolCodes.length)];
+            int rentalDays = random.nextInt(40) - 1;
+            int discountPercent = random.nextInt(105);
+            String checkoutDate = (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(31)) + "/"
+                    + String.format("%02d", random.nextInt(100));
+
+            text.append(toolCode).append(',').append(rentalDays).append(',').append(discountPercent).append(',')
+                    .append(checkoutDate).append('\n');
+
+            try {
+                expected.put(line, Checkout.checkoutTool(toolCode, rentalDays, discountPercent, checkoutDate));
+            } catch (IllegalArgumentException e) {
+                expected.put(line, e.getMessage());
+            }
+        }
+
+        Files.writeString(file, text);
+        Assertions.assertTrue(Files.size(file) > 4 * CheckoutImport.BATCH_SIZE);
+
+        Results results = new Results();
+        CheckoutImport.Report report = CheckoutImport.importFile(file, results, 4);
+        Map<Long, Object> actual = new TreeMap<>(results.agreements);
+        actual.putAll(results.errors);
+
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(20_000, report.records());
+        Assertions.assertEquals(results.errors.size(), report.rejected());
+    }
+
+    @Test
+    void testRejectsOverlongLine() throws IOException {
+        String longLine = "LADW,3,10," + "7".repeat(CheckoutImport.BATCH_SIZE * 2);
+        Files.writeString(file, "LADW,3,10,7/2/20\n" + longLine + "\nCHNS,5,25,7/2/15\n");
+        Results results = new Results();
+
+        CheckoutImport.Report report = CheckoutImport.importFile(file, results, 1);
+
+        Assertions.assertEquals(2, report.accepted());
+        Assertions.assertEquals(List.of(1L, 3L), List.copyOf(new TreeMap<>(results.agreements).keySet()));
+        Assertions.assertEquals(Map.of(2L, "Line exceeds " + CheckoutImport.BATCH_SIZE + " bytes."), results.errors);
+    }
+
+    @Test
+    void testAcceptsLineOfBatchSize() throws IOException {
+        String line = "LADW,3,10,7/2/20";
+        String fullLine = line + " ".repeat(CheckoutImport.BATCH_SIZE - line.length());
+        Files.writeString(file, line + "\n" + fullLine + "\n" + fullLine + " \n" + fullLine);
+        Results results = new Results();
+
+        CheckoutImport.Report report = CheckoutImport.importFile(file, results, 1);
+
+        Assertions.assertEquals(3, report.accepted());
+        Assertions.assertEquals(List.of(1L, 2L, 4L), List.copyOf(new TreeMap<>(results.agreements).keySet()));
+        Assertions.assertEquals(Map.of(3L, "Line exceeds " + CheckoutImport.BATCH_SIZE + " bytes."), results.errors);
+
+        // A file holding just one full buffer ends right where the buffer does.
+        Files.writeString(file, fullLine);
+        Assertions.assertEquals(1, CheckoutImport.importFile(file, new Results(), 1).accepted());
+
+        // The carriage return of a CRLF ending does not count against the line.
+        Files.writeString(file, line + "\r\n" + fullLine + "\r\n" + fullLine + " \r\n" + fullLine + "\r\n");
+        results = new Results();
+
+        report = CheckoutImport.importFile(file, results, 1);
+
+        Assertions.assertEquals(3, report.accepted());
+        Assertions.assertEquals(List.of(1L, 2L, 4L), List.copyOf(new TreeMap<>(results.agreements).keySet()));
+        Assertions.assertEquals(Map.of(3L, "Line exceeds " + CheckoutImport.BATCH_SIZE + " bytes."), results.errors);
+    }
+
+    @Test
+    void testJsonLinesSink() throws IOException {
+        Files.writeString(file, "LADW,3,10,7/2/20\nLADW,3,101,7/2/20\n", StandardCharsets.UTF_8);
+        StringBuilder out = new StringBuilder();
+
+        CheckoutImport.importFile(file, CheckoutImport.jsonLines(out), 1);
+
+        Assertions.assertEquals("{\"line\":1,\"agreement\":{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\","
+                + "\"toolBrand\":\"Werner\",\"rentalDays\":3,\"checkoutDate\":\"2020-07-02\","
+                + "\"dueDate\":\"2020-07-05\",\"dailyRentalCharge\":1.99,\"chargeDays\":2,\"preDiscountCharge\":3.98,"
+                + "\"discountPercent\":10,\"discountAmount\":0.40,\"finalCharge\":3.58}}\n"
+                + "{\"line\":2,\"error\":\"Discount percent must be between 0 and 100.\"}\n", out.toString());
+    }
+
+    @Test
+    void testSinkFailureStopsImport() throws IOException {
+        Files.writeString(file, "LADW,3,10,7/2/20\n".repeat(100_000));
+        CheckoutImport.Sink failing = new CheckoutImport.Sink() {
+            @Override
+            public void accepted(long lineNumber, RentalAgreement agreement) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void rejected(long lineNumber, String message) {
+            }
+        };
+
+        IOException e = Assertions.assertThrows(IOException.class, () -> CheckoutImport.importFile(file, failing, 2));
+        Assertions.assertEquals("disk full", e.getMessage());
+    }
+
+    @Test
+    void testEmptyFileAndInvalidWorkerCount() throws IOException {
+        CheckoutImport.Report report = CheckoutImport.importFile(file, new Results(), 3);
+
+        Assertions.assertEquals(0, report.records());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CheckoutImport.importFile(file, new Results(), 0));
+    }
+
+    /**
+     * A sink collecting the results by line number.
+     */
+    private static final class Results implements CheckoutImport.Sink {
+        final Map<Long, RentalAgreement> agreements = new TreeMap<>();
+        final Map<Long, String> errors = new TreeMap<>();
+
+        @Override
+        public void accepted(long lineNumber, RentalAgreement agreement) {
+            Assertions.assertNull(agreements.put(lineNumber, agreement));
+        }
+
+        @Override
+        public void rejected(long lineNumber, String message) {
+            Assertions.assertNull(errors.put(lineNumber, message));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+public class CheckoutMetricsTest {
+    @AfterEach
+    void tearDown() throws Exception {
+        Checkout.enableMetrics(1024);
+        Checkout.disableQuoteCache();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CheckoutMetrics.OBJECT_NAME);
+
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    void testCountsCheckoutsAndFailures() {
+        CheckoutMetrics metrics = Checkout.enableMetrics(1);
+
+        Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        Checkout.checkoutTool("CHNS", 5, 25, "7/2/15");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("LADW", 0, 10, "7/2/20"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("LADW", 3, 101, "7/2/20"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("XXXX", 3, 10, "7/2/20"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("XXXX", 3, 10, "7/2/20"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("LADW", 3, 10, "2020-07-02"));
+
+        Assertions.assertEquals(7, metrics.getCheckoutCount());
+        Assertions.assertEquals(5, metrics.getFailureCount());
+        Assertions.assertEquals(1, metrics.getFailureCount(CheckoutMetrics.Failure.RENTAL_DAYS));
+        Assertions.assertEquals(1, metrics.getFailureCount(CheckoutMetrics.Failure.DISCOUNT_PERCENT));
+        Assertions.assertEquals(2, metrics.getFailureCount(CheckoutMetrics.Failure.TOOL_CODE));
+        Assertions.assertEquals(1, metrics.getFailureCount(CheckoutMetrics.Failure.CHECKOUT_DATE));
+        Assertions.assertEquals(Map.of("rental_days", 1L, "discount_percent", 1L, "tool_code", 2L, "checkout_date", 1L),
+                metrics.getFailureCounts());
+    }
+
+    @Test
+    void testTimesEveryStageWhenSamplingEveryCheckout() {
+        CheckoutMetrics metrics = Checkout.enableMetrics(1);
+
+        for (int i = 0; i < 10; i++) {
+            Checkout.checkoutTool("JAKR", 9, 0, "7/2/15");
+        }
+
+        for (CheckoutMetrics.Stage stage : new CheckoutMetrics.Stage[]{CheckoutMetrics.Stage.VALIDATION,
+                CheckoutMetrics.Stage.TOOL_LOOKUP, CheckoutMetrics.Stage.DATE_PARSE, CheckoutMetrics.Stage.CHARGE_DAYS,
+                CheckoutMetrics.Stage.MONEY_MATH, CheckoutMetrics.Stage.AGREEMENT}) {
+            Assertions.assertEquals(10, metrics.getLatency(stage).getCount(), stage.name());
+        }
+
+        Assertions.assertEquals(0, metrics.getLatency(CheckoutMetrics.Stage.QUOTE_CACHE).getCount());
+        Assertions.assertEquals(10, metrics.getTotalLatency().getCount());
+        Assertions.assertTrue(metrics.getTotalLatency().getTotalNanos() > 0);
+    }
+
+    @Test
+    void testTimesQuoteCacheWhenEnabled() {
+        CheckoutMetrics metrics = Checkout.enableMetrics(1);
+        Checkout.enableQuoteCache(100);
+
+        RentalAgreement first = Checkout.checkoutTool("JAKR", 9, 0, "7/2/15");
+        RentalAgreement second = Checkout.checkoutTool("JAKR", 9, 0, "7/2/15");
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(2, metrics.getLatency(CheckoutMetrics.Stage.QUOTE_CACHE).getCount());
+        Assertions.assertEquals(0, metrics.getLatency(CheckoutMetrics.Stage.CHARGE_DAYS).getCount());
+    }
+
+    @Test
+    void testSamplesTiming() {
+        CheckoutMetrics metrics = Checkout.enableMetrics(64);
+
+        for (int i = 0; i < 64_000; i++) {
+            Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        }
+
+        // Only the sampled checkouts are counted, each for the whole interval.
+        long timed = metrics.getTotalLatency().getCount();
+
+        Assertions.assertEquals(64 * timed, metrics.getCheckoutCount());
+        Assertions.assertTrue(timed > 700 && timed < 1300, "timed " + timed);
+    }
+
+    @Test
+    void testDisabledMetricsLeaveCheckoutUnchanged() {
+        RentalAgreement expected = Checkout.checkoutTool("CHNS", 5, 25, "7/2/15");
+        Checkout.disableMetrics();
+
+        Assertions.assertNull(Checkout.getMetrics());
+        Assertions.assertEquals(expected, Checkout.checkoutTool("CHNS", 5, 25, "7/2/15"));
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Checkout.checkoutTool("XXXX", 3, 10, "7/2/20"));
+        Assertions.assertEquals("Invalid tool code: XXXX", e.getMessage());
+    }
+
+    @Test
+    void testSampleIntervalMustBePowerOfTwo() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.enableMetrics(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.enableMetrics(100));
+        Assertions.assertEquals(128, Checkout.enableMetrics(128).getSampleInterval());
+    }
+
+    @Test
+    void testWriteText() throws IOException {
+        CheckoutMetrics metrics = Checkout.enableMetrics(1);
+        Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("LADW", 0, 10, "7/2/20"));
+
+        StringBuilder text = new StringBuilder();
+        metrics.writeText(text);
+
+        Assertions.assertTrue(text.toString().startsWith("# HELP checkout_requests_total"));
+        Assertions.assertTrue(text.indexOf("\ncheckout_requests_total 2\n") >= 0);
+        Assertions.assertTrue(text.indexOf("\ncheckout_failures_total{type=\"rental_days\"} 1\n") >= 0);
+        Assertions.assertTrue(text.indexOf("\ncheckout_latency_nanoseconds_count{stage=\"money_math\"} 1\n") >= 0);
+        Assertions.assertTrue(text.indexOf("\ncheckout_latency_nanoseconds{stage=\"total\",quantile=\"0.99\"} ") >= 0);
+
+        for (String line : text.toString().split("\n")) {
+            Assertions.assertTrue(line.startsWith("#") || line.matches("[a-z_]+(\\{[^}]*})? \\d+"), line);
+        }
+    }
+
+    @Test
+    void testRegisterMBean() throws Exception {
+        CheckoutMetrics metrics = Checkout.enableMetrics(1);
+        Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.registerMBean();
+
+        Assertions.assertEquals(1L, server.getAttribute(name, "CheckoutCount"));
+        Assertions.assertEquals(1, server.getAttribute(name, "SampleInterval"));
+
+        // Registering new metrics replaces the old.
+        Checkout.enableMetrics(2).registerMBean();
+        Assertions.assertEquals(0L, server.getAttribute(name, "CheckoutCount"));
+    }
+}
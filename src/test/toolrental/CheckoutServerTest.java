@@ -0,0 +1,115 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class CheckoutServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private CheckoutServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = CheckoutServer.start(new InetSocketAddress("localhost", 0), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        Checkout.enableMetrics(1024);
+    }
+
+    @Test
+    void testGetCheckout() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                uri("/checkout?toolCode=LADW&rentalDays=3&discountPercent=10&checkoutDate=7%2F2%2F20")));
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\","
+                + "\"rentalDays\":3,\"checkoutDate\":\"2020-07-02\",\"dueDate\":\"2020-07-05\","
+                + "\"dailyRentalCharge\":1.99,\"chargeDays\":2,\"preDiscountCharge\":3.98,\"discountPercent\":10,"
+                + "\"discountAmount\":0.40,\"finalCharge\":3.58}", response.body());
+    }
+
+    @Test
+    void testPostCheckout() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/checkout"))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "toolCode=JAKR&rentalDays=9&discountPercent=0&checkoutDate=7/02/15")));
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.body().endsWith("\"finalCharge\":14.95}"));
+    }
+
+    @Test
+    void testPostBodyTooLarge() throws IOException, InterruptedException {
+        String form = "toolCode=JAKR&rentalDays=9&discountPercent=0&checkoutDate=7/02/15&";
+        String padding = "x".repeat(CheckoutServer.MAX_BODY_SIZE - form.length());
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/checkout"))
+                .POST(HttpRequest.BodyPublishers.ofString(form + padding)));
+        Assertions.assertEquals(200, response.statusCode());
+
+        response = send(HttpRequest.newBuilder(uri("/checkout"))
+                .POST(HttpRequest.BodyPublishers.ofString(form + padding + "x")));
+        Assertions.assertEquals(413, response.statusCode());
+        Assertions.assertEquals("{\"error\":\"Request body too large.\"}", response.body());
+    }
+
+    @Test
+    void testInvalidRequests() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                uri("/checkout?toolCode=JAKR&rentalDays=5&discountPercent=101&checkoutDate=9/3/15")));
+        Assertions.assertEquals(400, response.statusCode());
+        Assertions.assertEquals("{\"error\":\"Discount percent must be between 0 and 100.\"}", response.body());
+
+        response = send(HttpRequest.newBuilder(uri("/checkout?toolCode=JAKR&rentalDays=five")));
+        Assertions.assertEquals(400, response.statusCode());
+        Assertions.assertEquals("{\"error\":\"Invalid rentalDays: five\"}", response.body());
+
+        response = send(HttpRequest.newBuilder(uri("/checkout?rentalDays=5&discountPercent=0&checkoutDate=9/3/15")));
+        Assertions.assertEquals(400, response.statusCode());
+        Assertions.assertEquals("{\"error\":\"Missing parameter: toolCode\"}", response.body());
+
+        response = send(HttpRequest.newBuilder(uri("/checkout/other")));
+        Assertions.assertEquals(404, response.statusCode());
+
+        response = send(HttpRequest.newBuilder(uri("/checkout")).DELETE());
+        Assertions.assertEquals(405, response.statusCode());
+    }
+
+    @Test
+    void testMetrics() throws IOException, InterruptedException {
+        Checkout.enableMetrics(1);
+        send(HttpRequest.newBuilder(uri("/checkout?toolCode=LADW&rentalDays=3&discountPercent=10&checkoutDate=7/2/20")));
+        send(HttpRequest.newBuilder(uri("/checkout?toolCode=XXXX&rentalDays=3&discountPercent=10&checkoutDate=7/2/20")));
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/metrics")));
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("text/plain; version=0.0.4; charset=utf-8",
+                response.headers().firstValue("Content-Type").orElseThrow());
+        Assertions.assertTrue(response.body().contains("\ncheckout_requests_total 2\n"));
+        Assertions.assertTrue(response.body().contains("\ncheckout_failures_total{type=\"tool_code\"} 1\n"));
+        Assertions.assertTrue(response.body().contains("\ncheckout_latency_nanoseconds_count{stage=\"total\"} 1\n"));
+
+        Checkout.disableMetrics();
+        Assertions.assertEquals(404, send(HttpRequest.newBuilder(uri("/metrics"))).statusCode());
+    }
+
+    private URI uri(String pathAndQuery) {
+        return URI.create("http://localhost:" + server.getPort() + pathAndQuery);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
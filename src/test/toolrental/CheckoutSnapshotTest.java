@@ -0,0 +1,140 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class CheckoutSnapshotTest {
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("checkout", ".snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Checkout.setToolCatalog(null);
+        Checkout.setHolidayCalendar(HolidayCalendar.standard());
+    }
+
+    @Test
+    void testRoundTripsCatalogAndHolidays() throws IOException {
+        HolidayCalendar calendar = new HolidayCalendar(List.of(HolidayCalendar.INDEPENDENCE_DAY,
+                HolidayCalendar.LABOR_DAY, HolidayCalendar.MEMORIAL_DAY, HolidayCalendar.THANKSGIVING));
+        CheckoutSnapshot.write(file, ToolCatalog.getDefault(), calendar, 1990, 2100);
+        CheckoutSnapshot snapshot = CheckoutSnapshot.read(file);
+
+        Assertions.assertEquals(1990, snapshot.getFirstYear());
+        Assertions.assertEquals(2100, snapshot.getLastYear());
+        Assertions.assertEquals(ToolCatalog.getDefault().size(), snapshot.getCatalog().size());
+
+        for (Tool tool : ToolCatalog.getDefault().tools()) {
+            Assertions.assertEquals(tool, snapshot.getCatalog().get(tool.toolCode()));
+        }
+
+        long from = LocalDate.of(1990, 1, 1).toEpochDay();
+        long to = LocalDate.of(2100, 12, 31).toEpochDay();
+
+        for (long day = from; day <= to; day++) {
+            Assertions.assertEquals(calendar.isHoliday(day), snapshot.getCalendar().isHoliday(day));
+        }
+
+        Random random = new Random(21);
+        for (int i = 0; i < 1000; i++) {
+            long start = from + random.nextInt((int) (to - from));
+            long end = Math.min(to, start + random.nextInt(2000));
+
+            Assertions.assertEquals(calendar.countHolidays(start, end), snapshot.getCalendar().countHolidays(start, end));
+            Assertions.assertEquals(calendar.countWeekendHolidays(start, end),
+                    snapshot.getCalendar().countWeekendHolidays(start, end));
+        }
+    }
+
+    @Test
+    void testInstalledSnapshotChecksOutLikeDefaults() throws IOException {
+        CheckoutSnapshot.write(file, ToolCatalog.getDefault(), HolidayCalendar.standard(),
+                CheckoutSnapshot.DEFAULT_FIRST_YEAR, CheckoutSnapshot.DEFAULT_LAST_YEAR);
+        Random random = new Random(210);
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        String[] dates = new String[500];
+        RentalAgreement[] expected = new RentalAgreement[dates.length];
+
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/" + (10 + random.nextInt(90));
+            expected[i] = Checkout.checkoutTool(toolCodes[i % 4], 1 + i, i % 101, dates[i]);
+        }
+
+        CheckoutSnapshot.read(file).install();
+
+        for (int i = 0; i < dates.length; i++) {
+            Assertions.assertEquals(expected[i], Checkout.checkoutTool(toolCodes[i % 4], 1 + i, i % 101, dates[i]));
+        }
+    }
+
+    @Test
+    void testInstalledCatalogReplacesDefault() throws IOException {
+        ToolCatalog catalog = ToolCatalog.read(new StringReader("SNOW,LADDER,Honda\n"));
+        CheckoutSnapshot.write(file, catalog, HolidayCalendar.standard(), 2000, 2100);
+        CheckoutSnapshot.read(file).install();
+
+        Assertions.assertEquals(new Tool("SNOW", ToolType.LADDER, "Honda"),
+                Checkout.checkoutTool("SNOW", 3, 0, "7/2/20").tool());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("LADW", 3, 0, "7/2/20"));
+    }
+
+    @Test
+    void testRejectsDaysOutsideYears() throws IOException {
+        CheckoutSnapshot.write(file, ToolCatalog.getDefault(), HolidayCalendar.standard(), 2010, 2020);
+        HolidayCalendar calendar = CheckoutSnapshot.read(file).getCalendar();
+
+        Assertions.assertTrue(calendar.isHoliday(LocalDate.of(2020, 7, 3).toEpochDay()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> calendar.isHoliday(LocalDate.of(2021, 7, 5).toEpochDay()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> calendar.countHolidays(LocalDate.of(2009, 12, 1).toEpochDay(),
+                        LocalDate.of(2010, 1, 31).toEpochDay()));
+    }
+
+    @Test
+    void testRejectsInvalidYearRanges() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CheckoutSnapshot.write(file,
+                ToolCatalog.getDefault(), HolidayCalendar.standard(), 2020, 2019));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CheckoutSnapshot.write(file,
+                ToolCatalog.getDefault(), HolidayCalendar.standard(), 2000, 2256));
+    }
+
+    @Test
+    void testRejectsCorruptSnapshots() {
+        byte[] bytes = CheckoutSnapshot.toBytes(ToolCatalog.getDefault(), HolidayCalendar.standard(), 2000, 2010);
+        Assertions.assertEquals(2010, CheckoutSnapshot.fromBytes(bytes).getLastYear());
+
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> CheckoutSnapshot.fromBytes(truncated));
+        }
+
+        byte[] extended = Arrays.copyOf(bytes, bytes.length + 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CheckoutSnapshot.fromBytes(extended));
+
+        byte[] badMagic = bytes.clone();
+        badMagic[0] = 'X';
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CheckoutSnapshot.fromBytes(badMagic));
+
+        // The last holiday of 2010 moved into 2011.
+        byte[] badHoliday = bytes.clone();
+        badHoliday[badHoliday.length - 2] = 0x7F;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CheckoutSnapshot.fromBytes(badHoliday));
+    }
+}
@@ -0,0 +1,280 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+class CheckoutTest {
+    @Test
+    void test1() {
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> Checkout.checkoutTool("JAKR", 5, 101, "9/3/15"), "Discount percent must be between 0 and 100.");
+    }
+
+    @Test
+    void test2() {
+        RentalAgreement agreement = Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        Assertions.assertEquals(3, agreement.rentalDays());
+        Assertions.assertEquals("07/02/20", agreement.checkoutDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals("07/05/20", agreement.dueDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals(new BigDecimal("1.99"), agreement.dailyRentalCharge());
+        Assertions.assertEquals(2, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("3.98"), agreement.preDiscountCharge());
+        Assertions.assertEquals(10, agreement.discountPercent());
+        Assertions.assertEquals(new BigDecimal("0.40"), agreement.discountAmount());
+        Assertions.assertEquals(new BigDecimal("3.58"), agreement.finalCharge());
+    }
+
+    @Test
+    void test3() {
+        RentalAgreement agreement = Checkout.checkoutTool("CHNS", 5, 25, "7/2/15");
+        Assertions.assertEquals(5, agreement.rentalDays());
+        Assertions.assertEquals("07/02/15", agreement.checkoutDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals("07/07/15", agreement.dueDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals(new BigDecimal("1.49"), agreement.dailyRentalCharge());
+        Assertions.assertEquals(3, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("4.47"), agreement.preDiscountCharge());
+        Assertions.assertEquals(25, agreement.discountPercent());
+        Assertions.assertEquals(new BigDecimal("1.12"), agreement.discountAmount());
+        Assertions.assertEquals(new BigDecimal("3.35"), agreement.finalCharge());
+    }
+
+    @Test
+    void test4() {
+        RentalAgreement agreement = Checkout.checkoutTool("JAKD", 6, 0, "9/03/15");
+        Assertions.assertEquals(6, agreement.rentalDays());
+        Assertions.assertEquals("09/03/15", agreement.checkoutDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals("09/09/15", agreement.dueDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals(new BigDecimal("2.99"), agreement.dailyRentalCharge());
+        Assertions.assertEquals(3, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("8.97"), agreement.preDiscountCharge());
+        Assertions.assertEquals(0, agreement.discountPercent());
+        Assertions.assertEquals(new BigDecimal("0.00"), agreement.discountAmount());
+        Assertions.assertEquals(new BigDecimal("8.97"), agreement.finalCharge());
+    }
+
+    @Test
+    void test5() {
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 9, 0, "7/02/15");
+        Assertions.assertEquals(9, agreement.rentalDays());
+        Assertions.assertEquals("07/02/15", agreement.checkoutDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals("07/11/15", agreement.dueDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals(new BigDecimal("2.99"), agreement.dailyRentalCharge());
+        Assertions.assertEquals(5, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("14.95"), agreement.preDiscountCharge());
+        Assertions.assertEquals(0, agreement.discountPercent());
+        Assertions.assertEquals(new BigDecimal("0.00"), agreement.discountAmount());
+        Assertions.assertEquals(new BigDecimal("14.95"), agreement.finalCharge());
+    }
+
+    @Test
+    void test6() {
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 4, 50, "7/02/20");
+        Assertions.assertEquals(4, agreement.rentalDays());
+        Assertions.assertEquals("07/02/20", agreement.checkoutDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals("07/06/20", agreement.dueDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals(new BigDecimal("2.99"), agreement.dailyRentalCharge());
+        Assertions.assertEquals(1, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("2.99"), agreement.preDiscountCharge());
+        Assertions.assertEquals(50, agreement.discountPercent());
+        Assertions.assertEquals(new BigDecimal("1.50"), agreement.discountAmount());
+        Assertions.assertEquals(new BigDecimal("1.49"), agreement.finalCharge());
+    }
+
+    @Test
+    void test7() {
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> Checkout.checkoutTool("JAKR", 0, 20, "9/3/15"), "Rental day count must be 1 or greater.");
+    }
+
+    @Test
+    void test8() {
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> Checkout.checkoutTool("ILGL", 1, 20, "9/3/15"), "Invalid tool code: ILGL");
+    }
+
+    @Test
+    void test9() {
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 4, 50, "7/02/21");
+        Assertions.assertEquals(4, agreement.rentalDays());
+        Assertions.assertEquals("07/02/21", agreement.checkoutDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals("07/06/21", agreement.dueDate().format(DateTimeFormatter.ofPattern("MM/dd/yy")));
+        Assertions.assertEquals(new BigDecimal("2.99"), agreement.dailyRentalCharge());
+        Assertions.assertEquals(1, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("2.99"), agreement.preDiscountCharge());
+        Assertions.assertEquals(50, agreement.discountPercent());
+        Assertions.assertEquals(new BigDecimal("1.50"), agreement.discountAmount());
+        Assertions.assertEquals(new BigDecimal("1.49"), agreement.finalCharge());
+    }
+
+    @Test
+    void testInvalidCheckoutDate() {
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> Checkout.checkoutTool("JAKR", 4, 50, "7/32/20"), "Invalid checkout date: 7/32/20");
+    }
+
+    @Test
+    void testChargeableDaysMatchDayByDayCount() {
+        for (ToolType toolType : ToolType.values()) {
+            Tool tool = new Tool("TEST", toolType, "Test");
+
+            for (LocalDate start = LocalDate.of(1995, 1, 1); start.getYear() < 2035; start = start.plusDays(1)) {
+                // Walk the days one at a time like the original loop did, comparing every rental length up to a year.
+                int expected = 0;
+                LocalDate date = start.plusDays(1);
+
+                for (int rentalDays = 1; rentalDays <= 366; rentalDays++, date = date.plusDays(1)) {
+                    if (isChargeableReference(date, toolType)) {
+                        expected++;
+                    }
+
+                    Assertions.assertEquals(expected, Checkout.calculateChargeableDays(start, date, tool),
+                            toolType + " from " + start + " to " + date);
+                }
+            }
+        }
+    }
+
+    private static boolean isChargeableReference(LocalDate date, ToolType toolType) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+
+        LocalDate laborDay = LocalDate.of(date.getYear(), Month.SEPTEMBER, 1);
+        while (laborDay.getDayOfWeek() != DayOfWeek.MONDAY) {
+            laborDay = laborDay.plusDays(1);
+        }
+
+        LocalDate independenceDay = LocalDate.of(date.getYear(), Month.JULY, 4);
+        if (independenceDay.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            independenceDay = independenceDay.with(TemporalAdjusters.previous(DayOfWeek.FRIDAY));
+        } else if (independenceDay.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            independenceDay = independenceDay.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        }
+
+        boolean holiday = date.equals(laborDay) || date.equals(independenceDay);
+
+        if (weekend && toolType.isWeekendCharge()) {
+            return true;
+        }
+
+        if (holiday && toolType.isHolidayCharge()) {
+            return true;
+        }
+
+        return !weekend && !holiday;
+    }
+
+    @Test
+    void testCheckoutTools() {
+        List<CheckoutRequest> requests = List.of(
+                new CheckoutRequest("JAKR", 5, 101, "9/3/15"),
+                new CheckoutRequest("LADW", 3, 10, "7/2/20"),
+                new CheckoutRequest("ILGL", 1, 20, "9/3/15"),
+                new CheckoutRequest("CHNS", 5, 25, "7/2/15"),
+                new CheckoutRequest("JAKD", 6, 0, "9/31/15x"));
+
+        List<CheckoutResult> results = Checkout.checkoutTools(requests);
+
+        Assertions.assertEquals(requests.size(), results.size());
+        Assertions.assertFalse(results.get(0).isSuccess());
+        Assertions.assertEquals("Discount percent must be between 0 and 100.", results.get(0).error().getMessage());
+        Assertions.assertTrue(results.get(1).isSuccess());
+        Assertions.assertEquals(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"), results.get(1).agreement());
+        Assertions.assertFalse(results.get(2).isSuccess());
+        Assertions.assertEquals("Invalid tool code: ILGL", results.get(2).error().getMessage());
+        Assertions.assertTrue(results.get(3).isSuccess());
+        Assertions.assertEquals(new BigDecimal("3.35"), results.get(3).agreement().finalCharge());
+        Assertions.assertFalse(results.get(4).isSuccess());
+    }
+
+    @Test
+    void testCheckoutToolsRejectsMissingFields() {
+        List<CheckoutRequest> requests = Arrays.asList(
+                new CheckoutRequest(null, 3, 10, "7/2/20"),
+                new CheckoutRequest("LADW", 3, 10, null),
+                null,
+                new CheckoutRequest("LADW", 3, 10, "7/2/20"));
+
+        List<CheckoutResult> results = Checkout.checkoutTools(requests);
+
+        Assertions.assertEquals(requests.size(), results.size());
+        Assertions.assertEquals("Invalid tool code: null", results.get(0).error().getMessage());
+        Assertions.assertEquals("Invalid checkout date: null", results.get(1).error().getMessage());
+        Assertions.assertInstanceOf(IllegalArgumentException.class, results.get(2).error());
+        Assertions.assertTrue(results.get(3).isSuccess());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool(null, 3, 10, "7/2/20"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Checkout.checkoutTool("LADW", 3, 10, null));
+    }
+
+    @Test
+    void testCheckoutToolsKeepsInputOrder() {
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        List<CheckoutRequest> requests = IntStream.range(0, 10_000)
+                .mapToObj(i -> new CheckoutRequest(toolCodes[i % 4], 1 + i % 30, i % 101, "7/2/15"))
+                .toList();
+
+        List<CheckoutResult> results = Checkout.checkoutTools(requests.stream());
+
+        for (int i = 0; i < requests.size(); i++) {
+            CheckoutRequest request = requests.get(i);
+            Assertions.assertEquals(Checkout.checkoutTool(request.toolCode(), request.rentalDays(),
+                    request.discountPercent(), request.checkoutDate()), results.get(i).agreement());
+        }
+    }
+
+    @Test
+    void testChangeDueDateMatchesFullRecompute() {
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
+        Random random = new Random(14);
+
+        for (int i = 0; i < 20_000; i++) {
+            String toolCode = toolCodes[random.nextInt(4)];
+            int discountPercent = random.nextInt(101);
+            String checkoutDate = LocalDate.of(2014, 1, 1).plusDays(random.nextInt(3 * 365)).format(formatter);
+            RentalAgreement agreement = Checkout.checkoutTool(toolCode, 1 + random.nextInt(60), discountPercent,
+                    checkoutDate);
+            int newRentalDays = 1 + random.nextInt(60);
+
+            Assertions.assertEquals(Checkout.checkoutTool(toolCode, newRentalDays, discountPercent, checkoutDate),
+                    Checkout.changeDueDate(agreement, agreement.checkoutDate().plusDays(newRentalDays),
+                            discountPercent));
+        }
+    }
+
+    @Test
+    void testWeeklyExtensionsMatchFullRecompute() {
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 7, 15, "12/28/15");
+
+        for (int week = 2; week <= 260; week++) {
+            agreement = Checkout.changeDueDate(agreement, agreement.dueDate().plusWeeks(1), 15);
+
+            Assertions.assertEquals(Checkout.checkoutTool("JAKR", 7 * week, 15, "12/28/15"), agreement);
+        }
+    }
+
+    @Test
+    void testChangeDueDateToSameDate() {
+        RentalAgreement agreement = Checkout.checkoutTool("CHNS", 5, 25, "7/2/15");
+
+        Assertions.assertEquals(agreement, Checkout.changeDueDate(agreement, agreement.dueDate(), 25));
+    }
+
+    @Test
+    void testChangeDueDateBeforeCheckout() {
+        RentalAgreement agreement = Checkout.checkoutTool("CHNS", 5, 25, "7/2/15");
+
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> Checkout.changeDueDate(agreement, agreement.checkoutDate(), 25));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> Checkout.changeDueDate(agreement, agreement.checkoutDate().minusDays(1), 25));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> Checkout.changeDueDate(agreement, agreement.dueDate(), 101));
+    }
+}
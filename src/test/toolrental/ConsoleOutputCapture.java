@@ -1,3 +1,5 @@
+package toolrental;
+
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 
@@ -0,0 +1,75 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class HolidayCalendarTest {
+    private static final HolidayCalendar CALENDAR = HolidayCalendar.standard();
+
+    @Test
+    void testIsHoliday() {
+        Assertions.assertTrue(CALENDAR.isHoliday(LocalDate.of(2015, 9, 7).toEpochDay()));
+        Assertions.assertTrue(CALENDAR.isHoliday(LocalDate.of(2015, 7, 3).toEpochDay()));
+        Assertions.assertTrue(CALENDAR.isHoliday(LocalDate.of(2020, 7, 3).toEpochDay()));
+        Assertions.assertTrue(CALENDAR.isHoliday(LocalDate.of(2021, 7, 5).toEpochDay()));
+        Assertions.assertTrue(CALENDAR.isHoliday(LocalDate.of(2019, 7, 4).toEpochDay()));
+        Assertions.assertFalse(CALENDAR.isHoliday(LocalDate.of(2015, 7, 4).toEpochDay()));
+        Assertions.assertFalse(CALENDAR.isHoliday(LocalDate.of(2021, 7, 4).toEpochDay()));
+        Assertions.assertFalse(CALENDAR.isHoliday(LocalDate.of(2015, 9, 1).toEpochDay()));
+    }
+
+    @Test
+    void testCountHolidays() {
+        long firstDay = LocalDate.of(2015, 1, 1).toEpochDay();
+
+        Assertions.assertEquals(2, CALENDAR.countHolidays(firstDay, LocalDate.of(2015, 12, 31).toEpochDay()));
+        Assertions.assertEquals(20, CALENDAR.countHolidays(firstDay, LocalDate.of(2024, 12, 31).toEpochDay()));
+        Assertions.assertEquals(1, CALENDAR.countHolidays(LocalDate.of(2015, 7, 3).toEpochDay(),
+                LocalDate.of(2015, 9, 6).toEpochDay()));
+        Assertions.assertEquals(0, CALENDAR.countHolidays(LocalDate.of(2015, 7, 4).toEpochDay(),
+                LocalDate.of(2015, 9, 6).toEpochDay()));
+        Assertions.assertEquals(0, CALENDAR.countWeekendHolidays(firstDay, LocalDate.of(2024, 12, 31).toEpochDay()));
+    }
+
+    @Test
+    void testYearsSharingACacheSlot() {
+        // 2015 and 2271 map to the same cache slot; alternating between them must not return stale holidays.
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(CALENDAR.isHoliday(LocalDate.of(2015, 9, 7).toEpochDay()));
+            Assertions.assertTrue(CALENDAR.isHoliday(LocalDate.of(2271, 9, 4).toEpochDay()));
+            Assertions.assertFalse(CALENDAR.isHoliday(LocalDate.of(2271, 9, 5).toEpochDay()));
+        }
+    }
+
+    @Test
+    void testAdditionalHolidays() {
+        HolidayCalendar calendar = new HolidayCalendar(List.of(HolidayCalendar.INDEPENDENCE_DAY,
+                HolidayCalendar.LABOR_DAY, HolidayCalendar.MEMORIAL_DAY, HolidayCalendar.THANKSGIVING));
+
+        Assertions.assertTrue(calendar.isHoliday(LocalDate.of(2023, 5, 29).toEpochDay()));
+        Assertions.assertTrue(calendar.isHoliday(LocalDate.of(2023, 11, 23).toEpochDay()));
+        Assertions.assertEquals(4, calendar.countHolidays(LocalDate.of(2023, 1, 1).toEpochDay(),
+                LocalDate.of(2023, 12, 31).toEpochDay()));
+    }
+
+    @Test
+    void testWeekendHolidays() {
+        HolidayCalendar calendar = new HolidayCalendar(List.of(year -> LocalDate.of(year, 12, 25)));
+        long firstDay = LocalDate.of(2020, 1, 1).toEpochDay();
+        long lastDay = LocalDate.of(2023, 12, 31).toEpochDay();
+
+        // Christmas fell on a Friday, Saturday, Sunday and Monday in 2020 through 2023.
+        Assertions.assertEquals(4, calendar.countHolidays(firstDay, lastDay));
+        Assertions.assertEquals(2, calendar.countWeekendHolidays(firstDay, lastDay));
+    }
+
+    @Test
+    void testYearOf() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+            Assertions.assertEquals(date.getYear(), EpochDays.yearOf(date.toEpochDay()));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InventoryIndexTest {
+    private static final long JULY_2 = LocalDate.of(2015, 7, 2).toEpochDay();
+    private static final long JULY_11 = LocalDate.of(2015, 7, 11).toEpochDay();
+
+    @Test
+    void testReserveAndFindFreeUnits() {
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.addUnits("JAKR", 2);
+
+        Assertions.assertArrayEquals(new int[]{0, 1}, inventory.findFreeUnits("JAKR", JULY_2, JULY_11));
+
+        InventoryIndex.Reservation first = inventory.reserve("JAKR", JULY_2, JULY_11);
+        Assertions.assertEquals(0, first.unit());
+        Assertions.assertArrayEquals(new int[]{1}, inventory.findFreeUnits("JAKR", JULY_2, JULY_11));
+        Assertions.assertArrayEquals(new int[]{1}, inventory.findFreeUnits("JAKR", JULY_2 - 5, JULY_2 + 1));
+        Assertions.assertArrayEquals(new int[]{0, 1}, inventory.findFreeUnits("JAKR", JULY_2 - 5, JULY_2));
+        Assertions.assertArrayEquals(new int[]{0, 1}, inventory.findFreeUnits("JAKR", JULY_11, JULY_11 + 3));
+
+        Assertions.assertEquals(1, inventory.reserve("JAKR", JULY_2 + 3, JULY_2 + 4).unit());
+        Assertions.assertNull(inventory.reserve("JAKR", JULY_2, JULY_2 + 4));
+        Assertions.assertEquals(0, inventory.reserve("JAKR", JULY_11, JULY_11 + 1).unit());
+    }
+
+    @Test
+    void testRelease() {
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.addUnits("LADW", 1);
+
+        InventoryIndex.Reservation reservation = inventory.reserve("LADW", JULY_2, JULY_11);
+        Assertions.assertNull(inventory.reserve("LADW", JULY_2 + 1, JULY_2 + 2));
+        Assertions.assertTrue(inventory.release(reservation));
+        Assertions.assertFalse(inventory.release(reservation));
+        Assertions.assertNotNull(inventory.reserve("LADW", JULY_2 + 1, JULY_2 + 2));
+    }
+
+    @Test
+    void testDoubleReleaseKeepsRebooking() {
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.addUnits("LADW", 1);
+
+        InventoryIndex.Reservation first = inventory.reserve("LADW", JULY_2, JULY_11);
+        Assertions.assertTrue(inventory.release(first));
+        InventoryIndex.Reservation second = inventory.reserve("LADW", JULY_2, JULY_11);
+        Assertions.assertEquals(first.unit(), second.unit());
+        Assertions.assertNotEquals(first.bookingId(), second.bookingId());
+
+        Assertions.assertFalse(inventory.release(first));
+        Assertions.assertNull(inventory.reserve("LADW", JULY_2, JULY_11));
+        Assertions.assertTrue(inventory.release(second));
+        Assertions.assertFalse(inventory.release(second));
+    }
+
+    @Test
+    void testReleaseForgedReservation() {
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.addUnits("LADW", 1);
+
+        InventoryIndex.Reservation reservation = inventory.reserve("LADW", JULY_2, JULY_11);
+        InventoryIndex.Reservation copy = new InventoryIndex.Reservation("LADW", reservation.unit(), JULY_2, JULY_11,
+                reservation.bookingId() + 1);
+        Assertions.assertFalse(inventory.release(copy));
+        Assertions.assertNull(inventory.reserve("LADW", JULY_2, JULY_11));
+    }
+
+    @Test
+    void testReserveAgreement() {
+        InventoryIndex inventory = new InventoryIndex();
+        inventory.addUnits("JAKR", 1);
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 9, 0, "7/02/15");
+
+        InventoryIndex.Reservation reservation = inventory.reserve(agreement);
+        Assertions.assertEquals(agreement.checkoutDate(), reservation.fromDate());
+        Assertions.assertEquals(agreement.dueDate(), reservation.toDate());
+        Assertions.assertNull(inventory.reserve(agreement));
+    }
+
+    @Test
+    void testUnknownTool() {
+        InventoryIndex inventory = new InventoryIndex();
+
+        Assertions.assertEquals(0, inventory.getUnitCount("ILGL"));
+        Assertions.assertNull(inventory.reserve("ILGL", JULY_2, JULY_11));
+        Assertions.assertArrayEquals(new int[0], inventory.findFreeUnits("ILGL", JULY_2, JULY_11));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> inventory.reserve("ILGL", JULY_2, JULY_2));
+    }
+
+    @Test
+    void testConcurrentReservationsNeverDoubleBook() throws InterruptedException {
+        InventoryIndex inventory = new InventoryIndex();
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        for (String toolCode : toolCodes) {
+            inventory.addUnits(toolCode, 3);
+        }
+
+        ConcurrentLinkedQueue<InventoryIndex.Reservation> held = new ConcurrentLinkedQueue<>();
+        AtomicInteger lostReservations = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                List<InventoryIndex.Reservation> mine = new ArrayList<>();
+                for (int i = 0; i < 20_000; i++) {
+                    if (!mine.isEmpty() && random.nextInt(4) == 0) {
+                        InventoryIndex.Reservation released = mine.remove(random.nextInt(mine.size()));
+                        if (!inventory.release(released)) {
+                            lostReservations.incrementAndGet();
+                        }
+                        continue;
+                    }
+
+                    long from = JULY_2 + random.nextInt(365);
+                    InventoryIndex.Reservation reservation = inventory.reserve(toolCodes[random.nextInt(4)], from,
+                            from + 1 + random.nextInt(14));
+                    if (reservation != null) {
+                        mine.add(reservation);
+                    }
+                }
+                held.addAll(mine);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Assertions.assertEquals(0, lostReservations.get());
+        List<InventoryIndex.Reservation> reservations = new ArrayList<>(held);
+        reservations.sort(Comparator.comparing(InventoryIndex.Reservation::toolCode)
+                .thenComparingInt(InventoryIndex.Reservation::unit)
+                .thenComparingLong(InventoryIndex.Reservation::fromEpochDay));
+
+        Assertions.assertFalse(reservations.isEmpty());
+        for (int i = 1; i < reservations.size(); i++) {
+            InventoryIndex.Reservation previous = reservations.get(i - 1);
+            InventoryIndex.Reservation current = reservations.get(i);
+
+            if (previous.toolCode().equals(current.toolCode()) && previous.unit() == current.unit()) {
+                Assertions.assertTrue(previous.toEpochDay() <= current.fromEpochDay(),
+                        "Double booked: " + previous + " and " + current);
+            }
+        }
+
+        // Every held reservation is still in the index, so none of its days can be reserved again.
+        for (InventoryIndex.Reservation reservation : reservations) {
+            Assertions.assertTrue(inventory.release(reservation));
+        }
+    }
+}
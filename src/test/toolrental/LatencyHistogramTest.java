@@ -0,0 +1,100 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class LatencyHistogramTest {
+    @Test
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getTotalNanos());
+        Assertions.assertEquals(0, histogram.getMaxNanos());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int value = 1; value <= 50; value++) {
+            histogram.record(value);
+        }
+
+        Assertions.assertEquals(50, histogram.getCount());
+        Assertions.assertEquals(1275, histogram.getTotalNanos());
+        Assertions.assertEquals(50, histogram.getMaxNanos());
+        Assertions.assertEquals(25, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(1, histogram.getValueAtPercentile(0));
+        Assertions.assertEquals(50, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(16);
+        long[] values = new long[100_000];
+
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 100ns to about 100ms.
+            values[i] = (long) Math.pow(10, 2 + random.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{1, 10, 50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+
+            Assertions.assertTrue(reported >= exact && reported <= exact * 1.04,
+                    percentile + "th percentile " + reported + " vs " + exact);
+        }
+
+        Assertions.assertEquals(values[values.length - 1], histogram.getMaxNanos());
+    }
+
+    @Test
+    void testOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        Assertions.assertEquals(2, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals((1L << 40) - 1, histogram.getMaxNanos());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(Double.NaN));
+    }
+
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(80_000, histogram.getCount());
+        Assertions.assertEquals(8L * 10_000 * 10_001 / 2, histogram.getTotalNanos());
+        Assertions.assertEquals(10_000, histogram.getMaxNanos());
+    }
+}
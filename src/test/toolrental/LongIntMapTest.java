@@ -0,0 +1,69 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongIntMapTest {
+    @Test
+    void testMatchesHashMap() {
+        Random random = new Random(22);
+        LongIntMap map = new LongIntMap(0);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range, so puts replace and removes hit, plus keys differing only in their high bits.
+            long key = random.nextBoolean() ? random.nextInt(5_000) : (long) random.nextInt(5_000) << 40;
+            int operation = random.nextInt(3);
+
+            if (operation == 0) {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                Integer previous = expected.put(key, value);
+                Assertions.assertEquals(previous == null ? LongIntMap.MISSING : previous, map.put(key, value));
+            } else if (operation == 1) {
+                Integer previous = expected.remove(key);
+                Assertions.assertEquals(previous == null ? LongIntMap.MISSING : previous, map.remove(key));
+            } else {
+                Integer value = expected.get(key);
+                Assertions.assertEquals(value == null ? LongIntMap.MISSING : value, map.get(key));
+            }
+
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            Assertions.assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void testGrowsAndEmpties() {
+        LongIntMap map = new LongIntMap(4);
+
+        for (int i = 0; i < 100_000; i++) {
+            Assertions.assertEquals(LongIntMap.MISSING, map.put(-i, i));
+        }
+
+        Assertions.assertEquals(100_000, map.size());
+
+        for (int i = 0; i < 100_000; i++) {
+            Assertions.assertEquals(i, map.remove(-i));
+        }
+
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertEquals(LongIntMap.MISSING, map.get(0));
+        Assertions.assertEquals(LongIntMap.MISSING, map.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    void testRejectsNegativeValues() {
+        LongIntMap map = new LongIntMap(16);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LongIntMap(-1));
+        Assertions.assertEquals(0, map.size());
+    }
+}
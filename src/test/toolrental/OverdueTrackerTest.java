@@ -0,0 +1,237 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class OverdueTrackerTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private final SimulatedClock clock = new SimulatedClock(START);
+    private final List<String> reports = new ArrayList<>();
+    private final OverdueTracker tracker = new OverdueTracker(clock,
+            (agreement, today) -> reports.add(agreement.dueDate() + "@" + today));
+
+    @Test
+    void testReportsTheDayAfterTheDueDate() {
+        tracker.track(agreementDue(START.plusDays(3)));
+
+        clock.set(START.plusDays(3));
+        Assertions.assertEquals(0, tracker.advance());
+        Assertions.assertEquals(1, tracker.size());
+
+        clock.set(START.plusDays(4));
+        Assertions.assertEquals(1, tracker.advance());
+        Assertions.assertEquals(List.of(START.plusDays(3) + "@" + START.plusDays(4)), reports);
+        Assertions.assertEquals(0, tracker.size());
+
+        clock.set(START.plusDays(30));
+        Assertions.assertEquals(0, tracker.advance());
+        Assertions.assertEquals(START.plusDays(30), tracker.getToday());
+    }
+
+    @Test
+    void testReportsAlreadyOverdueOnTheNextDay() {
+        tracker.track(agreementDue(START.minusDays(10)));
+
+        Assertions.assertEquals(1, tracker.advanceTo(START.plusDays(1)));
+        Assertions.assertEquals(List.of(START.minusDays(10) + "@" + START.plusDays(1)), reports);
+    }
+
+    @Test
+    void testCancelAndReschedule() {
+        long returned = tracker.track(agreementDue(START.plusDays(5)));
+        long extended = tracker.track(agreementDue(START.plusDays(5)));
+        long shortened = tracker.track(agreementDue(START.plusDays(500)));
+
+        Assertions.assertTrue(tracker.cancel(returned));
+        Assertions.assertFalse(tracker.cancel(returned));
+        Assertions.assertTrue(tracker.reschedule(extended, agreementDue(START.plusDays(100))));
+        Assertions.assertTrue(tracker.reschedule(shortened, agreementDue(START.plusDays(2))));
+        Assertions.assertFalse(tracker.reschedule(returned, agreementDue(START.plusDays(7))));
+        Assertions.assertEquals(2, tracker.size());
+
+        tracker.advanceTo(START.plusDays(1000));
+
+        Assertions.assertEquals(List.of(START.plusDays(2) + "@" + START.plusDays(3),
+                START.plusDays(100) + "@" + START.plusDays(101)), reports);
+        Assertions.assertFalse(tracker.cancel(shortened));
+    }
+
+    @Test
+    void testStaleHandleDoesNotCancelReusedEntry() {
+        long first = tracker.track(agreementDue(START.plusDays(1)));
+        tracker.advanceTo(START.plusDays(2));
+
+        long second = tracker.track(agreementDue(START.plusDays(5)));
+
+        Assertions.assertEquals((int) first, (int) second);
+        Assertions.assertFalse(tracker.cancel(first));
+        Assertions.assertEquals(1, tracker.size());
+        Assertions.assertTrue(tracker.cancel(second));
+    }
+
+    @Test
+    void testMatchesSortedDueDatesAcrossLevels() {
+        Random random = new Random(20);
+        Map<Long, LocalDate> open = new HashMap<>();
+        List<String> expected = new ArrayList<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            // Due dates up to about 30 years out exercise every level of the wheel.
+            LocalDate dueDate = START.plusDays(random.nextInt(random.nextBoolean() ? 90 : 11_000));
+            open.put(tracker.track(agreementDue(dueDate)), dueDate);
+        }
+
+        List<Long> handles = new ArrayList<>(open.keySet());
+
+        for (int i = 0; i < 5_000; i++) {
+            long handle = handles.get(i);
+
+            if (i % 2 == 0) {
+                Assertions.assertTrue(tracker.cancel(handle));
+                open.remove(handle);
+            } else {
+                LocalDate dueDate = open.get(handle).plusDays(random.nextInt(400) - 200);
+                Assertions.assertTrue(tracker.reschedule(handle, agreementDue(dueDate)));
+                open.put(handle, dueDate);
+            }
+        }
+
+        open.values().stream().sorted().forEach(dueDate -> expected.add(dueDate + "@"
+                + (dueDate.isBefore(START) ? START.plusDays(1) : dueDate.plusDays(1))));
+
+        // Advance in uneven steps, as an hourly job on a simulated clock would.
+        for (LocalDate day = START; day.isBefore(START.plusDays(12_000)); day = day.plusDays(1 + random.nextInt(40))) {
+            clock.set(day);
+            tracker.advance();
+        }
+        tracker.advanceTo(START.plusDays(12_000));
+
+        Assertions.assertEquals(expected, sortedWithinDay(reports));
+        Assertions.assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void testListenerMayTrackAgain() {
+        List<LocalDate> notices = new ArrayList<>();
+        OverdueTracker[] holder = new OverdueTracker[1];
+        holder[0] = new OverdueTracker(clock, (agreement, today) -> {
+            notices.add(today);
+
+            // Send a reminder every week until the tool comes back.
+            if (notices.size() < 3) {
+                holder[0].track(agreementDue(today.plusDays(6)));
+            }
+        });
+
+        holder[0].track(agreementDue(START.plusDays(1)));
+        holder[0].advanceTo(START.plusDays(60));
+
+        Assertions.assertEquals(List.of(START.plusDays(2), START.plusDays(9), START.plusDays(16)), notices);
+    }
+
+    @Test
+    void testFailingListenerDoesNotLoseTheDay() {
+        List<LocalDate> notices = new ArrayList<>();
+        OverdueTracker failing = new OverdueTracker(clock, (agreement, today) -> {
+            notices.add(agreement.dueDate());
+            if (notices.size() <= 2) {
+                throw new IllegalStateException("notice " + notices.size());
+            }
+        });
+
+        for (int i = 0; i < 3; i++) {
+            failing.track(agreementDue(START.plusDays(1)));
+        }
+        failing.track(agreementDue(START.plusDays(2)));
+
+        // Every agreement due that day is still reported, then the first failure surfaces.
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                () -> failing.advanceTo(START.plusDays(10)));
+        Assertions.assertEquals("notice 1", e.getMessage());
+        Assertions.assertEquals("notice 2", e.getSuppressed()[0].getMessage());
+        Assertions.assertEquals(List.of(START.plusDays(1), START.plusDays(1), START.plusDays(1)), notices);
+        Assertions.assertEquals(START.plusDays(2), failing.getToday());
+        Assertions.assertEquals(1, failing.size());
+
+        Assertions.assertEquals(1, failing.advanceTo(START.plusDays(10)));
+        Assertions.assertEquals(START.plusDays(2), notices.get(3));
+        Assertions.assertEquals(0, failing.size());
+    }
+
+    @Test
+    void testMillionsOfOpenRentals() {
+        RentalAgreement[] agreements = new RentalAgreement[365];
+        for (int day = 0; day < agreements.length; day++) {
+            agreements[day] = agreementDue(START.plusDays(day));
+        }
+
+        for (int i = 0; i < 1_000_000; i++) {
+            tracker.track(agreements[i % agreements.length]);
+        }
+
+        Assertions.assertEquals(1_000_000, tracker.size());
+        Assertions.assertEquals(1_000_000, tracker.advanceTo(START.plusDays(366)));
+        Assertions.assertEquals(0, tracker.size());
+    }
+
+    /**
+     * Orders the reports of each day by due date, since the tracker reports a day's agreements in no particular order.
+     */
+    private static List<String> sortedWithinDay(List<String> reports) {
+        List<String> sorted = new ArrayList<>(reports);
+        sorted.sort((a, b) -> {
+            int byDay = a.substring(a.indexOf('@')).compareTo(b.substring(b.indexOf('@')));
+            return byDay != 0 ? byDay : a.compareTo(b);
+        });
+        return sorted;
+    }
+
+    private static RentalAgreement agreementDue(LocalDate dueDate) {
+        return new RentalAgreement(ToolCatalog.getDefault().get("LADW"), 1, dueDate.minusDays(1), dueDate,
+                ToolType.LADDER.getDailyCharge(), 1, ToolType.LADDER.getDailyCharge(), 0,
+                BigDecimal.ZERO.setScale(2), ToolType.LADDER.getDailyCharge());
+    }
+
+    /**
+     * A clock whose day is set by the test.
+     */
+    private static final class SimulatedClock extends Clock {
+        private Instant instant;
+
+        SimulatedClock(LocalDate day) {
+            set(day);
+        }
+
+        void set(LocalDate day) {
+            instant = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
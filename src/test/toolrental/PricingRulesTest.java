@@ -0,0 +1,273 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+public class PricingRulesTest {
+    private static final List<PricingRule> RULES = List.of(
+            new PricingRule.ChargeDays(ToolType.LADDER, PricingRule.DayClass.WEEKDAY, false),
+            new PricingRule.SeasonalRate(ToolType.JACKHAMMER, Month.JUNE, Month.AUGUST, 349),
+            new PricingRule.SeasonalRate(ToolType.CHAINSAW, Month.NOVEMBER, Month.FEBRUARY, 99),
+            new PricingRule.SeasonalRate(ToolType.CHAINSAW, Month.JANUARY, Month.JANUARY, 89),
+            new PricingRule.Surcharge(null, PricingRule.DayClass.HOLIDAY, 50),
+            new PricingRule.Surcharge(ToolType.LADDER, PricingRule.DayClass.WEEKEND, 10),
+            new PricingRule.Surcharge(ToolType.LADDER, PricingRule.DayClass.WEEKEND, 10),
+            new PricingRule.Surcharge(ToolType.JACKHAMMER, PricingRule.DayClass.WEEKEND, 25),
+            new PricingRule.MinimumChargeDays(ToolType.JACKHAMMER, 3),
+            new PricingRule.TieredDiscount(null, 7, 10),
+            new PricingRule.TieredDiscount(null, 30, 20),
+            new PricingRule.TieredDiscount(ToolType.CHAINSAW, 14, 5));
+
+    @AfterEach
+    void tearDown() {
+        Checkout.setPricingRules(PricingRules.standard());
+    }
+
+    @Test
+    void testStandardRulesMatchToolTypeFlags() {
+        PricingRules rules = PricingRules.standard();
+        HolidayCalendar calendar = HolidayCalendar.standard();
+        long checkout = LocalDate.of(2015, 7, 2).toEpochDay();
+
+        for (ToolType toolType : ToolType.values()) {
+            for (int rentalDays = 1; rentalDays <= 400; rentalDays++) {
+                Assertions.assertEquals(referencePrice(List.of(), calendar, toolType, checkout, rentalDays, 25),
+                        rules.price(calendar, toolType, checkout, rentalDays, 25), toolType + " " + rentalDays);
+            }
+        }
+    }
+
+    @Test
+    void testCompiledRulesMatchDayByDayEvaluation() {
+        PricingRules rules = new PricingRules(RULES);
+        HolidayCalendar calendar = new HolidayCalendar(List.of(HolidayCalendar.INDEPENDENCE_DAY,
+                HolidayCalendar.LABOR_DAY, HolidayCalendar.MEMORIAL_DAY, HolidayCalendar.THANKSGIVING));
+        Random random = new Random(15);
+        long firstDay = LocalDate.of(2014, 1, 1).toEpochDay();
+
+        for (int i = 0; i < 20_000; i++) {
+            ToolType toolType = ToolType.values()[random.nextInt(ToolType.values().length)];
+            long checkout = firstDay + random.nextInt(5 * 365);
+            int rentalDays = 1 + random.nextInt(i % 10 == 0 ? 800 : 40);
+            int discountPercent = random.nextInt(101);
+
+            Assertions.assertEquals(referencePrice(RULES, calendar, toolType, checkout, rentalDays, discountPercent),
+                    rules.price(calendar, toolType, checkout, rentalDays, discountPercent),
+                    toolType + " " + LocalDate.ofEpochDay(checkout) + " " + rentalDays);
+        }
+    }
+
+    @Test
+    void testWeekdayChargeIsHonored() {
+        Checkout.setPricingRules(new PricingRules(
+                List.of(new PricingRule.ChargeDays(ToolType.LADDER, PricingRule.DayClass.WEEKDAY, false))));
+
+        // Thursday through Monday: only Saturday and Sunday are charged.
+        RentalAgreement agreement = Checkout.checkoutTool("LADW", 5, 0, "9/9/20");
+        Assertions.assertEquals(2, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("3.98"), agreement.finalCharge());
+
+        Checkout.setPricingRules(PricingRules.standard());
+        Assertions.assertEquals(5, Checkout.checkoutTool("LADW", 5, 0, "9/9/20").chargeDays());
+    }
+
+    @Test
+    void testSeasonalRateAndTieredDiscountInAgreement() {
+        Checkout.setPricingRules(new PricingRules(RULES));
+
+        // July 1 through July 7, 2015, with Independence Day observed on Friday July 3.
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 7, 0, "6/30/15");
+        Assertions.assertEquals(new BigDecimal("3.49"), agreement.dailyRentalCharge());
+        Assertions.assertEquals(4, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("13.96"), agreement.preDiscountCharge());
+        Assertions.assertEquals(10, agreement.discountPercent());
+        Assertions.assertEquals(new BigDecimal("1.40"), agreement.discountAmount());
+        Assertions.assertEquals(new BigDecimal("12.56"), agreement.finalCharge());
+    }
+
+    @Test
+    void testMinimumChargeDays() {
+        Checkout.setPricingRules(new PricingRules(RULES));
+
+        // A single Saturday is not charged for a jackhammer, but the minimum is three days.
+        RentalAgreement agreement = Checkout.checkoutTool("JAKD", 1, 0, "10/2/15");
+        Assertions.assertEquals(3, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("8.97"), agreement.finalCharge());
+    }
+
+    @Test
+    void testExtensionsMatchFullRecompute() {
+        Checkout.setPricingRules(new PricingRules(RULES));
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
+        Random random = new Random(16);
+
+        for (int i = 0; i < 5_000; i++) {
+            String toolCode = toolCodes[random.nextInt(4)];
+            int discountPercent = random.nextInt(101);
+            String checkoutDate = LocalDate.of(2014, 1, 1).plusDays(random.nextInt(3 * 365)).format(formatter);
+            int rentalDays = 1 + random.nextInt(60);
+            int newRentalDays = rentalDays + random.nextInt(90);
+            RentalAgreement agreement = Checkout.checkoutTool(toolCode, rentalDays, discountPercent, checkoutDate);
+
+            Assertions.assertEquals(Checkout.checkoutTool(toolCode, newRentalDays, discountPercent, checkoutDate),
+                    Checkout.changeDueDate(agreement, agreement.checkoutDate().plusDays(newRentalDays),
+                            discountPercent));
+        }
+    }
+
+    @Test
+    void testEarlyReturnBelowTierDropsTierDiscount() {
+        Checkout.setPricingRules(new PricingRules(RULES));
+
+        // Thirty days reach the 20% tier; returned after ten, only the 10% tier is earned, and after five none is.
+        RentalAgreement agreement = Checkout.checkoutTool("LADW", 30, 0, "7/2/15");
+        Assertions.assertEquals(20, agreement.discountPercent());
+        Assertions.assertEquals(Checkout.checkoutTool("LADW", 10, 0, "7/2/15"),
+                Checkout.changeDueDate(agreement, agreement.checkoutDate().plusDays(10), 0));
+        Assertions.assertEquals(Checkout.checkoutTool("LADW", 5, 0, "7/2/15"),
+                Checkout.changeDueDate(agreement, agreement.checkoutDate().plusDays(5), 0));
+
+        // A requested discount below the tier is kept once the tier is no longer reached.
+        agreement = Checkout.checkoutTool("CHNS", 30, 15, "7/2/15");
+        Assertions.assertEquals(Checkout.checkoutTool("CHNS", 3, 15, "7/2/15"),
+                Checkout.changeDueDate(agreement, agreement.checkoutDate().plusDays(3), 15));
+    }
+
+    @Test
+    void testEarlyReturnsMatchFullRecompute() {
+        Checkout.setPricingRules(new PricingRules(RULES));
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("M/d/yy");
+        Random random = new Random(17);
+
+        for (int i = 0; i < 5_000; i++) {
+            String toolCode = toolCodes[random.nextInt(4)];
+            int discountPercent = random.nextInt(101);
+            String checkoutDate = LocalDate.of(2014, 1, 1).plusDays(random.nextInt(3 * 365)).format(formatter);
+            int rentalDays = 1 + random.nextInt(90);
+            int newRentalDays = 1 + random.nextInt(rentalDays);
+            RentalAgreement agreement = Checkout.checkoutTool(toolCode, rentalDays, discountPercent, checkoutDate);
+
+            Assertions.assertEquals(Checkout.checkoutTool(toolCode, newRentalDays, discountPercent, checkoutDate),
+                    Checkout.changeDueDate(agreement, agreement.checkoutDate().plusDays(newRentalDays),
+                            discountPercent));
+        }
+    }
+
+    @Test
+    void testInvalidRules() {
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> new PricingRule.ChargeDays(null, null, true));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> new PricingRule.SeasonalRate(null, Month.MAY, Month.JUNE, -1));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> new PricingRule.Surcharge(null, PricingRule.DayClass.WEEKEND, -1));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> new PricingRule.MinimumChargeDays(null, -1));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> new PricingRule.TieredDiscount(null, 0, 10));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> new PricingRule.TieredDiscount(null, 7, 101));
+    }
+
+    /**
+     * Prices a rental by interpreting the rules one day at a time.
+     */
+    private static Quote referencePrice(List<PricingRule> rules, HolidayCalendar calendar, ToolType toolType,
+                                        long checkout, int rentalDays, int discountPercent) {
+        boolean[] charged = {toolType.isWeekdayCharge(), toolType.isWeekendCharge(), toolType.isHolidayCharge()};
+        int minimumChargeDays = 0;
+        int tierDiscount = 0;
+
+        for (PricingRule rule : rules) {
+            if (rule.toolType() != null && rule.toolType() != toolType) {
+                continue;
+            }
+
+            if (rule instanceof PricingRule.ChargeDays chargeDays) {
+                charged[chargeDays.dayClass().ordinal()] = chargeDays.charged();
+            } else if (rule instanceof PricingRule.MinimumChargeDays minimum) {
+                minimumChargeDays = minimum.chargeDays();
+            } else if (rule instanceof PricingRule.TieredDiscount tier && tier.rentalDays() <= rentalDays) {
+                tierDiscount = Math.max(tierDiscount, tier.discountPercent());
+            }
+        }
+
+        int chargeDays = 0;
+        long preDiscountCharge = 0;
+
+        for (long day = checkout + 1; day <= checkout + rentalDays; day++) {
+            DayOfWeek dayOfWeek = LocalDate.ofEpochDay(day).getDayOfWeek();
+            boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+            boolean holiday = calendar.isHoliday(day);
+            PricingRule.DayClass dayClass;
+
+            if (holiday && (!weekend || charged[PricingRule.DayClass.HOLIDAY.ordinal()])) {
+                dayClass = PricingRule.DayClass.HOLIDAY;
+            } else if (weekend) {
+                dayClass = PricingRule.DayClass.WEEKEND;
+            } else {
+                dayClass = PricingRule.DayClass.WEEKDAY;
+            }
+
+            if (charged[dayClass.ordinal()]) {
+                chargeDays++;
+                preDiscountCharge += dailyCharge(rules, toolType, day) + surcharge(rules, toolType, dayClass);
+            }
+        }
+
+        long dailyCharge = dailyCharge(rules, toolType, checkout);
+        if (chargeDays < minimumChargeDays) {
+            preDiscountCharge += dailyCharge * (minimumChargeDays - chargeDays);
+            chargeDays = minimumChargeDays;
+        }
+
+        int appliedDiscount = Math.max(discountPercent, tierDiscount);
+        long discountAmount = Cents.percentOf(preDiscountCharge, appliedDiscount);
+
+        return new Quote(chargeDays, dailyCharge, preDiscountCharge, appliedDiscount, discountAmount,
+                preDiscountCharge - discountAmount);
+    }
+
+    private static long dailyCharge(List<PricingRule> rules, ToolType toolType, long epochDay) {
+        int month = LocalDate.ofEpochDay(epochDay).getMonthValue();
+        long dailyCharge = toolType.getDailyChargeCents();
+
+        for (PricingRule rule : rules) {
+            if (rule instanceof PricingRule.SeasonalRate season
+                    && (season.toolType() == null || season.toolType() == toolType)) {
+                int first = season.firstMonth().getValue();
+                int last = season.lastMonth().getValue();
+
+                if (first <= last ? first <= month && month <= last : month >= first || month <= last) {
+                    dailyCharge = season.dailyChargeCents();
+                }
+            }
+        }
+
+        return dailyCharge;
+    }
+
+    private static long surcharge(List<PricingRule> rules, ToolType toolType, PricingRule.DayClass dayClass) {
+        long surcharge = 0;
+
+        for (PricingRule rule : rules) {
+            if (rule instanceof PricingRule.Surcharge extra && extra.dayClass() == dayClass
+                    && (extra.toolType() == null || extra.toolType() == toolType)) {
+                surcharge += extra.surchargeCents();
+            }
+        }
+
+        return surcharge;
+    }
+}
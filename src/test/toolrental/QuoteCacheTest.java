@@ -0,0 +1,114 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class QuoteCacheTest {
+    @AfterEach
+    void tearDown() {
+        Checkout.disableQuoteCache();
+        Checkout.setHolidayCalendar(HolidayCalendar.standard());
+        Checkout.setPricingRules(PricingRules.standard());
+    }
+
+    @Test
+    void testCachedCheckoutMatchesUncached() {
+        RentalAgreement expected = Checkout.checkoutTool("CHNS", 5, 25, "7/2/15");
+        QuoteCache cache = Checkout.enableQuoteCache(100);
+
+        Assertions.assertEquals(expected, Checkout.checkoutTool("CHNS", 5, 25, "7/2/15"));
+        Assertions.assertEquals(expected, Checkout.checkoutTool("CHNS", 5, 25, "7/02/15"));
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testToolsOfTheSameTypeShareQuotes() {
+        QuoteCache cache = Checkout.enableQuoteCache(100);
+
+        RentalAgreement dewalt = Checkout.checkoutTool("JAKD", 6, 0, "9/3/15");
+        RentalAgreement ridgid = Checkout.checkoutTool("JAKR", 6, 0, "9/3/15");
+
+        Assertions.assertEquals("Ridgid", ridgid.tool().brand());
+        Assertions.assertEquals(dewalt.finalCharge(), ridgid.finalCharge());
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testDifferentInputsMiss() {
+        QuoteCache cache = Checkout.enableQuoteCache(100);
+
+        Checkout.checkoutTool("LADW", 3, 10, "7/2/20");
+        Checkout.checkoutTool("LADW", 3, 20, "7/2/20");
+        Checkout.checkoutTool("LADW", 4, 10, "7/2/20");
+        Checkout.checkoutTool("LADW", 3, 10, "7/3/20");
+        Checkout.checkoutTool("CHNS", 3, 10, "7/2/20");
+
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(5, cache.getMissCount());
+        Assertions.assertEquals(5, cache.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        QuoteCache cache = new QuoteCache(16);
+        HolidayCalendar calendar = HolidayCalendar.standard();
+
+        for (int day = 0; day < 1000; day++) {
+            cache.get(new QuoteCache.Key(calendar, PricingRules.standard(), ToolType.LADDER, day, 1, 0),
+                    key -> new Quote(1, 199, 199, 0, 0, 199));
+        }
+
+        Assertions.assertTrue(cache.size() <= 16);
+        Assertions.assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+
+    @Test
+    void testHolidayCalendarChangeInvalidates() {
+        QuoteCache cache = Checkout.enableQuoteCache(100);
+
+        Assertions.assertEquals(4, Checkout.checkoutTool("JAKR", 7, 0, "9/3/15").chargeDays());
+        Assertions.assertEquals(1, cache.size());
+
+        Checkout.setHolidayCalendar(new HolidayCalendar(List.of(HolidayCalendar.INDEPENDENCE_DAY)));
+        Assertions.assertEquals(0, cache.size());
+
+        RentalAgreement agreement = Checkout.checkoutTool("JAKR", 7, 0, "9/3/15");
+        Assertions.assertEquals(5, agreement.chargeDays());
+        Assertions.assertEquals(new BigDecimal("14.95"), agreement.finalCharge());
+        Assertions.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void testPricingRulesChangeInvalidates() {
+        QuoteCache cache = Checkout.enableQuoteCache(100);
+
+        Assertions.assertEquals(new BigDecimal("11.96"), Checkout.checkoutTool("JAKR", 7, 0, "9/3/15").finalCharge());
+        Assertions.assertEquals(1, cache.size());
+
+        Checkout.setPricingRules(new PricingRules(List.of(new PricingRule.MinimumChargeDays(null, 6))));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(new BigDecimal("17.94"), Checkout.checkoutTool("JAKR", 7, 0, "9/3/15").finalCharge());
+        Assertions.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void testKeyIncludesCalendar() {
+        QuoteCache cache = new QuoteCache(100);
+        HolidayCalendar regional = new HolidayCalendar(List.of(HolidayCalendar.THANKSGIVING));
+        long day = LocalDate.of(2023, 11, 20).toEpochDay();
+
+        cache.get(new QuoteCache.Key(HolidayCalendar.standard(), PricingRules.standard(), ToolType.LADDER, day, 5, 0),
+                key -> new Quote(5, 199, 995, 0, 0, 995));
+        Quote quote = cache.get(new QuoteCache.Key(regional, PricingRules.standard(), ToolType.LADDER, day, 5, 0),
+                key -> new Quote(4, 199, 796, 0, 0, 796));
+
+        Assertions.assertEquals(4, quote.chargeDays());
+        Assertions.assertEquals(0, cache.getHitCount());
+    }
+}
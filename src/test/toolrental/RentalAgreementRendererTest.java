@@ -0,0 +1,107 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+public class RentalAgreementRendererTest {
+    @Test
+    void testRenderMatchesFormatters() {
+        for (RentalAgreement agreement : sampleAgreements()) {
+            Assertions.assertEquals(formatWithFormatters(agreement), agreement.toString());
+        }
+    }
+
+    @Test
+    void testRenderToByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        for (RentalAgreement agreement : sampleAgreements()) {
+            buffer.clear();
+            RentalAgreementRenderer.render(agreement, buffer);
+
+            byte[] bytes = new byte[buffer.position()];
+            buffer.flip().get(bytes);
+            Assertions.assertEquals(agreement.toString(), new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testRenderAllToChannel() throws IOException {
+        List<RentalAgreement> agreements = new ArrayList<>();
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 50; i++) {
+            agreements.addAll(sampleAgreements());
+        }
+
+        for (RentalAgreement agreement : agreements) {
+            expected.append(agreement).append('\n');
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RentalAgreementRenderer.renderAll(agreements, Channels.newChannel(out), ByteBuffer.allocateDirect(1000));
+
+        Assertions.assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRenderAllWithTooSmallBuffer() {
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> RentalAgreementRenderer.renderAll(
+                sampleAgreements(), Channels.newChannel(new ByteArrayOutputStream()), ByteBuffer.allocate(100)));
+    }
+
+    private static List<RentalAgreement> sampleAgreements() {
+        List<RentalAgreement> agreements = new ArrayList<>();
+
+        agreements.add(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"));
+        agreements.add(Checkout.checkoutTool("CHNS", 5, 25, "7/2/15"));
+        agreements.add(Checkout.checkoutTool("JAKD", 6, 0, "9/03/15"));
+        agreements.add(Checkout.checkoutTool("JAKR", 400, 100, "12/31/99"));
+        agreements.add(new RentalAgreement(new Tool("ŁADW", ToolType.LADDER, "Wérner 🔨"), 5,
+                LocalDate.of(1999, 6, 15), LocalDate.of(2100, 6, 20), new BigDecimal("1.005"), 5,
+                new BigDecimal("1234567.899"), 1000, new BigDecimal("-1.00"), new BigDecimal("-0.001")));
+        agreements.add(new RentalAgreement(new Tool("JAKR", ToolType.JACKHAMMER, "Ridgid"), 1,
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 2), new BigDecimal("12345678901234567890.12"),
+                Integer.MAX_VALUE, BigDecimal.ZERO, -5, new BigDecimal("0.015"), new BigDecimal("0.025")));
+
+        return agreements;
+    }
+
+    private static String formatWithFormatters(RentalAgreement agreement) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+        DecimalFormat currencyFormatter = new DecimalFormat("$0.00", DecimalFormatSymbols.getInstance(Locale.US));
+        NumberFormat percentFormatter = NumberFormat.getPercentInstance(Locale.US);
+
+        StringJoiner text = new StringJoiner("\n");
+        text.add("Tool code: " + agreement.tool().toolCode());
+        text.add("Tool type: " + agreement.tool().toolType().getName());
+        text.add("Tool brand: " + agreement.tool().brand());
+        text.add("Rental days: " + agreement.rentalDays());
+        text.add("Check out date: " + agreement.checkoutDate().format(dateFormatter));
+        text.add("Due date: " + agreement.dueDate().format(dateFormatter));
+        text.add("Daily rental charge: " + currencyFormatter.format(agreement.dailyRentalCharge()));
+        text.add("Charge days: " + agreement.chargeDays());
+        text.add("Pre-discount charge: " + currencyFormatter.format(agreement.preDiscountCharge()));
+        text.add("Discount percent: " + percentFormatter.format(agreement.discountPercent() / 100.0));
+        text.add("Discount amount: " + currencyFormatter.format(agreement.discountAmount()));
+        text.add("Final charge: " + currencyFormatter.format(agreement.finalCharge()));
+
+        return text.toString();
+    }
+}
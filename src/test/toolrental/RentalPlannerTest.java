@@ -0,0 +1,143 @@
+package toolrental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class RentalPlannerTest {
+    private static final DateTimeFormatter CHECKOUT_DATE = DateTimeFormatter.ofPattern("M/d/yy");
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR"};
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2022, 12, 31);
+
+    @AfterEach
+    void tearDown() {
+        Checkout.setPricingRules(PricingRules.standard());
+    }
+
+    @Test
+    void testPricesMatchCheckoutWithStandardRules() {
+        assertPricesMatchCheckout(Checkout.newRentalPlanner(FIRST_DAY, LAST_DAY));
+    }
+
+    @Test
+    void testPricesMatchCheckoutWithCustomRules() {
+        Checkout.setPricingRules(new PricingRules(List.of(
+                new PricingRule.ChargeDays(ToolType.LADDER, PricingRule.DayClass.HOLIDAY, false),
+                new PricingRule.SeasonalRate(ToolType.CHAINSAW, Month.NOVEMBER, Month.FEBRUARY, 99),
+                new PricingRule.Surcharge(null, PricingRule.DayClass.WEEKEND, 25),
+                new PricingRule.MinimumChargeDays(ToolType.JACKHAMMER, 3),
+                new PricingRule.TieredDiscount(null, 7, 10),
+                new PricingRule.TieredDiscount(null, 30, 20))));
+
+        assertPricesMatchCheckout(Checkout.newRentalPlanner(FIRST_DAY, LAST_DAY));
+    }
+
+    @Test
+    void testChargeDays() {
+        RentalPlanner planner = Checkout.newRentalPlanner(FIRST_DAY, LAST_DAY);
+
+        // Thursday 7/2/20 to Sunday 7/5/20 with the Independence Day holiday observed on Friday.
+        Assertions.assertEquals(2, planner.chargeDays(ToolType.LADDER, LocalDate.of(2020, 7, 2), 3));
+        Assertions.assertEquals(1, planner.chargeDays(ToolType.CHAINSAW, LocalDate.of(2020, 7, 2), 3));
+        Assertions.assertEquals(0, planner.chargeDays(ToolType.JACKHAMMER, LocalDate.of(2020, 7, 2), 3));
+        Assertions.assertEquals(Checkout.calculateChargeableDays(FIRST_DAY, LAST_DAY,
+                        ToolCatalog.getDefault().get("JAKR")),
+                planner.chargeDays(ToolType.JACKHAMMER, FIRST_DAY, (int) (LAST_DAY.toEpochDay() - FIRST_DAY.toEpochDay())));
+    }
+
+    @Test
+    void testCheapestStartsMatchBruteForce() {
+        RentalPlanner planner = Checkout.newRentalPlanner(FIRST_DAY, LAST_DAY);
+        LocalDate earliest = LocalDate.of(2021, 1, 1);
+        LocalDate latest = earliest.plusDays(180);
+
+        for (int i = 0; i < TOOL_CODES.length; i++) {
+            ToolType toolType = ToolCatalog.getDefault().get(TOOL_CODES[i]).toolType();
+            List<RentalPlanner.Option> expected = new ArrayList<>();
+
+            for (LocalDate date = earliest; !date.isAfter(latest); date = date.plusDays(1)) {
+                RentalAgreement agreement = Checkout.checkoutTool(TOOL_CODES[i], 10, 15, date.format(CHECKOUT_DATE));
+                expected.add(new RentalPlanner.Option(date, agreement.chargeDays(), agreement.finalCharge()));
+            }
+
+            expected.sort(Comparator.comparing(RentalPlanner.Option::finalCharge)
+                    .thenComparing(RentalPlanner.Option::checkoutDate));
+
+            Assertions.assertEquals(expected.subList(0, 5), planner.cheapestStarts(toolType, 10, 15, earliest, latest, 5));
+            Assertions.assertEquals(expected, planner.cheapestStarts(toolType, 10, 15, earliest, latest, 1000));
+
+            List<LocalDate> cheapestDates = expected.stream()
+                    .filter(option -> option.finalCharge().equals(expected.get(0).finalCharge()))
+                    .map(RentalPlanner.Option::checkoutDate)
+                    .toList();
+            Assertions.assertEquals(cheapestDates, planner.cheapestStartDates(toolType, 10, 15, earliest, latest));
+        }
+    }
+
+    @Test
+    void testCheapestTenDayChainsawOverSixMonths() {
+        RentalPlanner planner = Checkout.newRentalPlanner(FIRST_DAY, LAST_DAY);
+
+        // Ten days hold at most four weekend days, the only days the chainsaw is free; the first start date with four
+        // is a Thursday, covering Friday through the Sunday a week later.
+        List<RentalPlanner.Option> options = planner.cheapestStarts(ToolType.CHAINSAW, 10, 0,
+                LocalDate.of(2021, 6, 1), LocalDate.of(2021, 11, 30), 1);
+
+        Assertions.assertEquals(1, options.size());
+        Assertions.assertEquals(6, options.get(0).chargeDays());
+        Assertions.assertEquals(new BigDecimal("8.94"), options.get(0).finalCharge());
+        Assertions.assertEquals(LocalDate.of(2021, 6, 3), options.get(0).checkoutDate());
+        Assertions.assertEquals(DayOfWeek.THURSDAY, options.get(0).checkoutDate().getDayOfWeek());
+    }
+
+    @Test
+    void testInvalidQueries() {
+        RentalPlanner planner = Checkout.newRentalPlanner(FIRST_DAY, LAST_DAY);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> planner.chargeDays(ToolType.LADDER, FIRST_DAY.minusDays(1), 3));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> planner.chargeDays(ToolType.LADDER, LAST_DAY.minusDays(2), 3));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> planner.price(ToolType.LADDER, FIRST_DAY, 0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> planner.price(ToolType.LADDER, FIRST_DAY, 3, 101));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> planner.cheapestStarts(ToolType.LADDER, 3, 0, FIRST_DAY, FIRST_DAY, 0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> planner.cheapestStartDates(ToolType.LADDER, 3, 0, LAST_DAY.minusDays(5), FIRST_DAY));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Checkout.newRentalPlanner(LAST_DAY, FIRST_DAY));
+        Assertions.assertEquals(3, planner.chargeDays(ToolType.LADDER, LAST_DAY.minusDays(3), 3));
+    }
+
+    private static void assertPricesMatchCheckout(RentalPlanner planner) {
+        Random random = new Random(19);
+        long days = LAST_DAY.toEpochDay() - FIRST_DAY.toEpochDay();
+
+        for (int i = 0; i < 5000; i++) {
+            int rentalDays = 1 + random.nextInt(400);
+            LocalDate checkoutDate = FIRST_DAY.plusDays(random.nextInt((int) days - rentalDays + 1));
+            String toolCode = TOOL_CODES[random.nextInt(TOOL_CODES.length)];
+            int discountPercent = random.nextInt(101);
+            RentalAgreement agreement = Checkout.checkoutTool(toolCode, rentalDays, discountPercent,
+                    checkoutDate.format(CHECKOUT_DATE));
+            ToolType toolType = agreement.tool().toolType();
+
+            Assertions.assertEquals(new RentalPlanner.Option(checkoutDate, agreement.chargeDays(),
+                    agreement.finalCharge()), planner.price(toolType, checkoutDate, rentalDays, discountPercent));
+        }
+    }
+}
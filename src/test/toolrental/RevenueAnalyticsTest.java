@@ -0,0 +1,114 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class RevenueAnalyticsTest {
+    private static final LocalDate FROM = LocalDate.of(2015, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2017, 12, 31);
+
+    @Test
+    void testReportsMatchLoopOverAgreements() {
+        List<RentalAgreement> agreements = randomAgreements(300_000);
+        RevenueAnalytics analytics = new RevenueAnalytics();
+        agreements.forEach(analytics::add);
+
+        LocalDate from = LocalDate.of(2015, 3, 15);
+        LocalDate to = LocalDate.of(2016, 11, 2);
+        SortedMap<YearMonth, Map<ToolType, BigDecimal>> expectedRevenue = new TreeMap<>();
+        SortedMap<String, BigDecimal> expectedDiscounts = new TreeMap<>();
+        BigDecimal expectedTotal = new BigDecimal("0.00");
+        long chargeDays = 0;
+        long count = 0;
+
+        for (RentalAgreement agreement : agreements) {
+            LocalDate date = agreement.checkoutDate();
+
+            if (date.isBefore(from) || date.isAfter(to)) {
+                continue;
+            }
+
+            expectedRevenue.computeIfAbsent(YearMonth.from(date), month -> new EnumMap<>(ToolType.class))
+                    .merge(agreement.tool().toolType(), agreement.finalCharge(), BigDecimal::add);
+            expectedDiscounts.merge(agreement.tool().brand(), agreement.discountAmount(), BigDecimal::add);
+            expectedTotal = expectedTotal.add(agreement.finalCharge());
+            chargeDays += agreement.chargeDays();
+            count++;
+        }
+
+        Assertions.assertEquals(agreements.size(), analytics.size());
+        Assertions.assertEquals(expectedRevenue, analytics.revenueByMonthAndToolType(from, to));
+        Assertions.assertEquals(expectedDiscounts, analytics.discountsByBrand(from, to));
+        Assertions.assertEquals(expectedTotal, analytics.totalRevenue(from, to));
+        Assertions.assertEquals((double) chargeDays / count, analytics.averageChargeDays(from, to), 1e-9);
+    }
+
+    @Test
+    void testGroupsWithOnlyFreeRentalsAreReported() {
+        RevenueAnalytics analytics = new RevenueAnalytics(0);
+        analytics.add(Checkout.checkoutTool("CHNS", 5, 100, "7/2/15"));
+
+        LocalDate july = LocalDate.of(2015, 7, 1);
+        Assertions.assertEquals(Map.of(YearMonth.of(2015, 7), Map.of(ToolType.CHAINSAW, new BigDecimal("0.00"))),
+                analytics.revenueByMonthAndToolType(july, july.plusMonths(1)));
+        Assertions.assertEquals(Map.of("Stihl", new BigDecimal("4.47")), analytics.discountsByBrand(july, july.plusDays(1)));
+    }
+
+    @Test
+    void testEmptyRanges() {
+        RevenueAnalytics analytics = new RevenueAnalytics();
+
+        Assertions.assertEquals(new BigDecimal("0.00"), analytics.totalRevenue(FROM, TO));
+        Assertions.assertTrue(analytics.revenueByMonthAndToolType(FROM, TO).isEmpty());
+        Assertions.assertEquals(0, analytics.averageChargeDays(FROM, TO));
+
+        analytics.add(Checkout.checkoutTool("LADW", 3, 10, "7/2/20"));
+        Assertions.assertTrue(analytics.discountsByBrand(FROM, TO).isEmpty());
+        Assertions.assertEquals(new BigDecimal("3.58"), analytics.totalRevenue(LocalDate.MIN, LocalDate.MAX));
+    }
+
+    @Test
+    void testInvalidRange() {
+        RevenueAnalytics analytics = new RevenueAnalytics();
+
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> analytics.totalRevenue(TO, FROM));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> new RevenueAnalytics(-1));
+    }
+
+    @Test
+    void testMonthIndexMatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+            Assertions.assertEquals(date.getYear() * 12L + date.getMonthValue() - 1,
+                    EpochDays.monthIndexOf(date.toEpochDay()), date.toString());
+        }
+    }
+
+    private static List<RentalAgreement> randomAgreements(int count) {
+        String[] toolCodes = {"LADW", "CHNS", "JAKD", "JAKR"};
+        Random random = new Random(13);
+        List<RentalAgreement> agreements = new ArrayList<>(count);
+        long firstDay = FROM.toEpochDay();
+        int days = (int) (TO.toEpochDay() - firstDay + 1);
+
+        for (int i = 0; i < count; i++) {
+            LocalDate date = LocalDate.ofEpochDay(firstDay + random.nextInt(days));
+            String checkoutDate = date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear() % 100;
+
+            agreements.add(Checkout.checkoutTool(toolCodes[random.nextInt(4)], 1 + random.nextInt(30),
+                    random.nextInt(101), checkoutDate));
+        }
+
+        return agreements;
+    }
+}
@@ -0,0 +1,76 @@
+package toolrental;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ToolCatalogTest {
+    @Test
+    void testDefaultCatalog() {
+        ToolCatalog catalog = ToolCatalog.getDefault();
+
+        Assertions.assertEquals(4, catalog.size());
+        Assertions.assertEquals(new Tool("LADW", ToolType.LADDER, "Werner"), catalog.get("LADW"));
+        Assertions.assertEquals(new Tool("CHNS", ToolType.CHAINSAW, "Stihl"), catalog.get("CHNS"));
+        Assertions.assertEquals(new Tool("JAKD", ToolType.JACKHAMMER, "DeWalt"), catalog.get("JAKD"));
+        Assertions.assertEquals(new Tool("JAKR", ToolType.JACKHAMMER, "Ridgid"), catalog.get("JAKR"));
+        Assertions.assertNull(catalog.get("ILGL"));
+    }
+
+    @Test
+    void testLookupReturnsSameInstance() {
+        Assertions.assertSame(ToolCatalog.getDefault().get("JAKR"), ToolCatalog.getDefault().get("JAKR"));
+    }
+
+    @Test
+    void testRead() throws IOException {
+        ToolCatalog catalog = ToolCatalog.read(new StringReader("""
+                # comment
+
+                LADW,LADDER,Werner
+                LADX, LADDER , Werner
+                """));
+
+        Assertions.assertEquals(2, catalog.size());
+        Assertions.assertEquals(new Tool("LADX", ToolType.LADDER, "Werner"), catalog.get("LADX"));
+        Assertions.assertSame(catalog.get("LADW").brand(), catalog.get("LADX").brand());
+    }
+
+    @Test
+    void testReadMalformed() {
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> ToolCatalog.read(new StringReader("LADW,LADDER")));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> ToolCatalog.read(new StringReader("LADW,STEPSTOOL,Werner")));
+        Assertions.assertThrowsExactly(IllegalArgumentException.class,
+                () -> ToolCatalog.read(new StringReader("LADW,LADDER,Werner\nLADW,LADDER,Werner")));
+    }
+
+    @Test
+    void testReload() throws IOException {
+        Path file = Files.createTempFile("tools", ".csv");
+
+        try {
+            Files.writeString(file, "LADW,LADDER,Werner\n");
+            ToolCatalog catalog = ToolCatalog.load(file);
+            Tool ladder = catalog.get("LADW");
+
+            Files.writeString(file, "CHNS,CHAINSAW,Stihl\n");
+            catalog.reload(file);
+
+            Assertions.assertNull(catalog.get("LADW"));
+            Assertions.assertEquals(new Tool("CHNS", ToolType.CHAINSAW, "Stihl"), catalog.get("CHNS"));
+            Assertions.assertEquals(new Tool("LADW", ToolType.LADDER, "Werner"), ladder);
+
+            Files.writeString(file, "bad line\n");
+            Assertions.assertThrowsExactly(IllegalArgumentException.class, () -> catalog.reload(file));
+            Assertions.assertEquals(1, catalog.size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
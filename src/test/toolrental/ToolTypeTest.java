@@ -1,3 +1,5 @@
+package toolrental;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 